@@ -0,0 +1,39 @@
+package io.github.philkes.spring.cache.annotation;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cached service used by the benchmarks, simulating the latency of a downstream source of the cached data.
+ */
+public class BenchmarkService {
+
+    public static final String CACHE = "benchmarkCache";
+
+    public static final String CACHE_WITH_MULTIPLE_PARAMS = "benchmarkCacheWithMultipleParams";
+
+    public static final String REFRESH_DELAY_PROPERTY = "benchmark.refresh.delay";
+
+    private final long latencyNanos;
+
+    public BenchmarkService(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+    }
+
+    @CacheableAutoRefreshed(cacheNames = CACHE, fixedDelayString = "${" + REFRESH_DELAY_PROPERTY + "}")
+    public String fetch(String id) {
+        simulateLatency();
+        return "data: %s".formatted(id);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = CACHE_WITH_MULTIPLE_PARAMS, fixedDelayString = "${" + REFRESH_DELAY_PROPERTY + "}")
+    public String fetch(String id, int version, long tenant) {
+        simulateLatency();
+        return "data: %s, %d, %d".formatted(id, version, tenant);
+    }
+
+    private void simulateLatency() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
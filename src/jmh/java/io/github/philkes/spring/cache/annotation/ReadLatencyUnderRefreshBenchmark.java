@@ -0,0 +1,147 @@
+package io.github.philkes.spring.cache.annotation;
+
+import io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor.CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN;
+import static io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator.PARAMETERS_KEY_GENERATOR_BEAN;
+
+/**
+ * Measures the latency (see the {@code p0.99} percentile of the results) of cache hits of a {@link CacheableAutoRefreshed}
+ * annotated method, while the cache is continuously refreshed in the background ({@code refreshing = true})
+ * compared to without any refreshes ({@code refreshing = false}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ReadLatencyUnderRefreshBenchmark {
+
+    /**
+     * Simulated latency of a single invocation of the cached method while refreshing
+     */
+    private static final long LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    @Param({"map", "caffeine"})
+    String cacheType;
+
+    @Param({"true", "false"})
+    boolean refreshing;
+
+    @Param({"10000"})
+    int keyCount;
+
+    private AnnotationConfigApplicationContext context;
+
+    private BenchmarkService service;
+
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new AnnotationConfigApplicationContext();
+        // Refresh immediately after the previous refresh finished or practically never
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of(BenchmarkService.REFRESH_DELAY_PROPERTY, refreshing ? "1" : String.valueOf(TimeUnit.DAYS.toMillis(1)))));
+        context.register("map".equals(cacheType) ? MapConfiguration.class : CaffeineConfiguration.class);
+        context.refresh();
+        service = context.getBean(BenchmarkService.class);
+        ids = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            ids[i] = String.valueOf(i);
+            service.fetch(ids[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String read() {
+        return service.fetch(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Configuration
+    @EnableCaching
+    @EnableScheduling
+    static class MapConfiguration {
+
+        @Bean
+        static CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(BenchmarkService.CACHE, BenchmarkService.CACHE_WITH_MULTIPLE_PARAMS);
+        }
+
+        @Bean(name = CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN)
+        static MapCacheableAutoRefreshedProcessor cacheableAutoRefreshedProcessor(CacheManager cacheManager) {
+            return new MapCacheableAutoRefreshedProcessor(cacheManager);
+        }
+
+        @Bean(name = PARAMETERS_KEY_GENERATOR_BEAN)
+        static KeyGenerator parametersKeyGenerator() {
+            return new ParametersKeyGenerator();
+        }
+
+        @Bean
+        BenchmarkService benchmarkService() {
+            return new BenchmarkService(LATENCY_NANOS);
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    @EnableScheduling
+    static class CaffeineConfiguration {
+
+        @Bean
+        static CaffeineCacheManager cacheManager() {
+            return new CaffeineCacheManager(BenchmarkService.CACHE, BenchmarkService.CACHE_WITH_MULTIPLE_PARAMS);
+        }
+
+        @Bean(name = CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN)
+        static CaffeineCacheableAutoRefreshedProcessor cacheableAutoRefreshedProcessor(CaffeineCacheManager cacheManager) {
+            return new CaffeineCacheableAutoRefreshedProcessor(cacheManager);
+        }
+
+        @Bean(name = PARAMETERS_KEY_GENERATOR_BEAN)
+        static KeyGenerator parametersKeyGenerator() {
+            return new ParametersKeyGenerator();
+        }
+
+        @Bean
+        BenchmarkService benchmarkService() {
+            return new BenchmarkService(LATENCY_NANOS);
+        }
+    }
+}
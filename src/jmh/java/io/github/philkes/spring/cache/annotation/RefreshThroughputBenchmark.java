@@ -0,0 +1,95 @@
+package io.github.philkes.spring.cache.annotation;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefreshSettings;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of complete refreshes ({@link CacheRefresher#refreshCaches()}) of a single cache by the
+ * {@link MapCacheableAutoRefreshedProcessor} and {@link CaffeineCacheableAutoRefreshedProcessor} refreshers.
+ * The score is in refreshes per second, multiply it by {@code keyCount} for the refreshed entries per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshThroughputBenchmark {
+
+    @Param({"map", "caffeine"})
+    String cacheType;
+
+    @Param({"100", "10000"})
+    int keyCount;
+
+    /**
+     * Number of parameters of the cached method, i.e. of the {@link ParametersKey}s
+     */
+    @Param({"1", "3"})
+    int arity;
+
+    /**
+     * Simulated latency of a single invocation of the cached method
+     */
+    @Param({"0", "50"})
+    long latencyMicros;
+
+    private CacheRefresher<?> cacheRefresher;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        BenchmarkService service = new BenchmarkService(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        Method method = arity == 1
+                ? BenchmarkService.class.getMethod("fetch", String.class)
+                : BenchmarkService.class.getMethod("fetch", String.class, int.class, long.class);
+        String[] cacheNames = {BenchmarkService.CACHE};
+        CacheRefreshSettings settings = CacheRefreshSettings.builder().build();
+        CacheManager cacheManager;
+        switch (cacheType) {
+            case "map" -> {
+                ConcurrentMapCacheManager mapCacheManager = new ConcurrentMapCacheManager(cacheNames);
+                cacheRefresher = new MapCacheableAutoRefreshedProcessor(mapCacheManager)
+                        .createCacheRefresher(mapCacheManager, cacheNames, service, method, settings);
+                cacheManager = mapCacheManager;
+            }
+            case "caffeine" -> {
+                CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(cacheNames);
+                cacheRefresher = new CaffeineCacheableAutoRefreshedProcessor(caffeineCacheManager)
+                        .createCacheRefresher(caffeineCacheManager, cacheNames, service, method, settings);
+                cacheManager = caffeineCacheManager;
+            }
+            default -> throw new IllegalArgumentException("Unknown cache type '%s'".formatted(cacheType));
+        }
+        Cache cache = cacheManager.getCache(BenchmarkService.CACHE);
+        for (int i = 0; i < keyCount; i++) {
+            String id = String.valueOf(i);
+            ParametersKey key = arity == 1 ? ParametersKey.of(id) : ParametersKey.of(id, i, (long) i % 10);
+            cache.put(key, "initial data");
+        }
+    }
+
+    @Benchmark
+    public void refreshCaches() {
+        cacheRefresher.refreshCaches();
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.philkes.spring.cache;
+
+import io.github.philkes.spring.cache.actuator.CacheRefreshEndpoint;
+import io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import static io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor.CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN;
+
+/**
+ * Configuration class that registers the {@link CacheRefreshEndpoint} if Spring Boot Actuator is present and the endpoint
+ * is available, e.g. via {@code management.endpoints.web.exposure.include=cacherefresh}.
+ *
+ * <p>This configuration class is automatically imported.
+ */
+@AutoConfiguration(after = CacheableAutoRefreshedConfiguration.class)
+@ConditionalOnClass(Endpoint.class)
+@ConditionalOnAvailableEndpoint(endpoint = CacheRefreshEndpoint.class)
+public class CacheRefreshEndpointConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(name = CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN)
+    public CacheRefreshEndpoint cacheRefreshEndpoint(@Qualifier(CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN) CacheableAutoRefreshedProcessor<?> processor) {
+        return new CacheRefreshEndpoint(processor);
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.philkes.spring.cache;
+
+import io.github.philkes.spring.cache.metrics.MicrometerCacheRefreshListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration class that registers a {@link MicrometerCacheRefreshListener}, publishing metrics about the refreshes of
+ * the caches, if a {@link MeterRegistry} is present.
+ *
+ * <p>This configuration class is automatically imported.
+ */
+@AutoConfiguration(after = CacheableAutoRefreshedConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+public class CacheRefreshMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MicrometerCacheRefreshListener micrometerCacheRefreshListener(MeterRegistry meterRegistry) {
+        return new MicrometerCacheRefreshListener(meterRegistry);
+    }
+}
@@ -1,21 +1,45 @@
 package io.github.philkes.spring.cache;
 
+import io.github.philkes.spring.cache.annotation.CacheRefreshOperations;
+import io.github.philkes.spring.cache.annotation.CacheWarmUpLifecycle;
+import io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed;
 import io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor;
 import io.github.philkes.spring.cache.annotation.CaffeineCacheableAutoRefreshedProcessor;
+import io.github.philkes.spring.cache.annotation.JCacheCacheableAutoRefreshedProcessor;
 import io.github.philkes.spring.cache.annotation.MapCacheableAutoRefreshedProcessor;
+import io.github.philkes.spring.cache.annotation.RefreshedCaffeineCacheCustomizer;
+import io.github.philkes.spring.cache.interceptor.EarlyRefreshInterceptor;
 import io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator;
+import io.github.philkes.spring.cache.snapshot.CacheSnapshotLifecycle;
+import io.github.philkes.spring.cache.snapshot.CacheSnapshotStore;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 import static io.github.philkes.spring.cache.annotation.CaffeineCacheableAutoRefreshedProcessor.CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN;
+import static io.github.philkes.spring.cache.interceptor.EarlyRefreshInterceptor.EARLY_REFRESH_INTERCEPTOR_BEAN;
 import static io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator.PARAMETERS_KEY_GENERATOR_BEAN;
 
 /**
@@ -26,20 +50,78 @@ import static io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator.
  */
 @AutoConfiguration(after = CacheAutoConfiguration.class)
 @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+@ImportRuntimeHints(CacheableAutoRefreshedRuntimeHints.class)
 public class CacheableAutoRefreshedConfiguration {
 
+    /**
+     * Directory of the snapshots of the caches, enables restoring the caches on startup, see {@link CacheSnapshotLifecycle}.
+     */
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "cache.auto-refresh.snapshot.directory";
+
     @Bean(name = PARAMETERS_KEY_GENERATOR_BEAN)
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     public KeyGenerator parametersKeyGenerator() {
         return new ParametersKeyGenerator();
     }
 
+    @Bean(name = EARLY_REFRESH_INTERCEPTOR_BEAN)
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public EarlyRefreshInterceptor earlyRefreshInterceptor() {
+        return new EarlyRefreshInterceptor();
+    }
+
+    /**
+     * Applies the {@link EarlyRefreshInterceptor} to all {@link CacheableAutoRefreshed} methods, before the caching interceptor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor earlyRefreshAdvisor(@Qualifier(EARLY_REFRESH_INTERCEPTOR_BEAN) EarlyRefreshInterceptor earlyRefreshInterceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, CacheableAutoRefreshed.class, true),
+                earlyRefreshInterceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
 
     @ConditionalOnBean(CaffeineCacheManager.class)
     @Bean(name = CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN)
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
-    public CaffeineCacheableAutoRefreshedProcessor caffeineCacheableAutoRefreshedAnnotationProcessor(CaffeineCacheManager cacheManager) {
-        return new CaffeineCacheableAutoRefreshedProcessor(cacheManager);
+    public CaffeineCacheableAutoRefreshedProcessor caffeineCacheableAutoRefreshedAnnotationProcessor(CaffeineCacheManager cacheManager,
+                                                                                                    ObjectProvider<RefreshedCaffeineCacheCustomizer> customizers) {
+        return new CaffeineCacheableAutoRefreshedProcessor(cacheManager, customizers.orderedStream().toList());
+    }
+
+    @ConditionalOnProperty(SNAPSHOT_DIRECTORY_PROPERTY)
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public CacheSnapshotLifecycle cacheSnapshotLifecycle(@Qualifier(CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN) CacheableAutoRefreshedProcessor<?> processor,
+                                                         @Value("${" + SNAPSHOT_DIRECTORY_PROPERTY + "}") Path directory,
+                                                         @Value("${cache.auto-refresh.snapshot.values:false}") boolean includeValues,
+                                                         @Value("${cache.auto-refresh.snapshot.interval:5m}") Duration interval,
+                                                         @Value("${cache.auto-refresh.snapshot.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism,
+                                                         @Value("${cache.auto-refresh.snapshot.serial-filter:" + CacheSnapshotStore.DEFAULT_SERIAL_FILTER + "}") String serialFilter) {
+        return new CacheSnapshotLifecycle(processor, new CacheSnapshotStore(directory, includeValues, ClassUtils.getDefaultClassLoader(), serialFilter),
+                interval, parallelism);
+    }
+
+    @ConditionalOnMissingBean
+    @Bean
+    public CacheRefreshOperations cacheRefreshOperations(@Qualifier(CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN) CacheableAutoRefreshedProcessor<?> processor) {
+        return new CacheRefreshOperations(processor);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public CacheWarmUpLifecycle cacheWarmUpLifecycle(@Qualifier(CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN) CacheableAutoRefreshedProcessor<?> processor,
+                                                     @Value("${" + CacheWarmUpLifecycle.PARALLELISM_PROPERTY + ":#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism) {
+        return new CacheWarmUpLifecycle(processor, parallelism);
+    }
+
+    @ConditionalOnBean(JCacheCacheManager.class)
+    @Bean(name = CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN)
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public JCacheCacheableAutoRefreshedProcessor jCacheCacheableAutoRefreshedAnnotationProcessor(JCacheCacheManager cacheManager) {
+        return new JCacheCacheableAutoRefreshedProcessor(cacheManager);
     }
 
     @ConditionalOnBean(ConcurrentMapCacheManager.class)
@@ -0,0 +1,41 @@
+package io.github.philkes.spring.cache;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static io.github.philkes.spring.cache.interceptor.CacheRefresher.CACHE_REFRESH_METHOD;
+import static io.github.philkes.spring.cache.interceptor.CacheRefresher.TRIGGER_CACHE_REFRESH_METHOD;
+
+/**
+ * {@link RuntimeHintsRegistrar} for the reflection and serialization independent of the application's beans: the scheduled
+ * methods of the {@link CacheRefresher}, the virtual thread factories (looked up reflectively to support Java 17) and the
+ * {@link ParametersKey}s written to cache snapshots. The hints of the {@code @CacheableAutoRefreshed} methods are registered by
+ * {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedBeanRegistrationAotProcessor}.
+ */
+class CacheableAutoRefreshedRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+        hints.reflection().registerType(CacheRefresher.class, type -> type
+                .withMethod(CACHE_REFRESH_METHOD, List.of(), ExecutableMode.INVOKE)
+                .withMethod(TRIGGER_CACHE_REFRESH_METHOD, List.of(), ExecutableMode.INVOKE));
+        hints.reflection().registerType(Thread.class, type -> type.withMethod("ofVirtual", List.of(), ExecutableMode.INVOKE));
+        hints.reflection().registerTypeIfPresent(classLoader, "java.lang.Thread$Builder", type -> type
+                .withMethod("name", List.of(TypeReference.of(String.class), TypeReference.of(long.class)), ExecutableMode.INVOKE)
+                .withMethod("factory", List.of(), ExecutableMode.INVOKE));
+        hints.reflection().registerType(Executors.class, type -> type.withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+        hints.serialization().registerType(ParametersKey.class)
+                .registerType(TypeReference.of(ParametersKey.class.getName() + "$NoParametersKey"))
+                .registerType(TypeReference.of(ParametersKey.class.getName() + "$SingleParameterKey"))
+                .registerType(TypeReference.of(ParametersKey.class.getName() + "$MultiParametersKey"))
+                .registerType(Object[].class);
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.philkes.spring.cache.actuator;
+
+import io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor;
+import io.github.philkes.spring.cache.interceptor.CacheRefreshStatistics;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import org.springframework.boot.actuate.endpoint.OperationResponseBody;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.FixedRateTask;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.Task;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Endpoint @Endpoint} ({@value #ID}) exposing the refreshers of all {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed}
+ * methods: lists their schedules and the state of their caches, and refreshes, pauses or resumes single caches at runtime,
+ * e.g. {@code POST /actuator/cacherefresh/{cache}} with {@code {"action": "pause"}}.
+ */
+@Endpoint(id = CacheRefreshEndpoint.ID)
+public class CacheRefreshEndpoint {
+
+    public static final String ID = "cacherefresh";
+
+    private final CacheableAutoRefreshedProcessor<?> processor;
+
+    public CacheRefreshEndpoint(CacheableAutoRefreshedProcessor<?> processor) {
+        this.processor = processor;
+    }
+
+    @ReadOperation
+    public CacheRefreshersDescriptor refreshers() {
+        List<RefresherDescriptor> refreshers = new ArrayList<>();
+        for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+            Map<String, CacheDescriptor> caches = new LinkedHashMap<>();
+            refresher.getCacheNames().forEach(cacheName -> caches.put(cacheName, describe(refresher, cacheName)));
+            refreshers.add(new RefresherDescriptor(refresher.getMethod().getDeclaringClass().getName() + "." + refresher.getMethod().getName(),
+                    describe(processor.getScheduledTask(refresher)), refresher.isRefreshing(), caches));
+        }
+        return new CacheRefreshersDescriptor(refreshers);
+    }
+
+    /**
+     * @return state of the given cache, {@code null} (i.e. {@code 404}) if no refresher uses it
+     */
+    @ReadOperation
+    @Nullable
+    public CacheDescriptor cache(@Selector String cache) {
+        CacheRefresher<?> refresher = findCacheRefresher(cache);
+        return refresher != null ? describe(refresher, cache) : null;
+    }
+
+    /**
+     * Applies the given action to the given cache. {@link Action#REFRESH} triggers the refresh of all caches of the method the cache
+     * belongs to, just like a scheduled refresh, i.e. it is skipped if a refresh is already running or the cache is paused.
+     *
+     * @return state of the given cache after the action, {@code null} (i.e. {@code 404}) if no refresher uses it
+     */
+    @WriteOperation
+    @Nullable
+    public CacheDescriptor updateCache(@Selector String cache, Action action) {
+        CacheRefresher<?> refresher = findCacheRefresher(cache);
+        if (refresher == null) {
+            return null;
+        }
+        switch (action) {
+            case REFRESH -> refresher.triggerRefreshCaches();
+            case PAUSE -> refresher.pause(cache);
+            case RESUME -> refresher.resume(cache);
+        }
+        return describe(refresher, cache);
+    }
+
+    @Nullable
+    private CacheRefresher<?> findCacheRefresher(String cacheName) {
+        for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+            if (refresher.getCacheNames().contains(cacheName)) {
+                return refresher;
+            }
+        }
+        return null;
+    }
+
+    private static CacheDescriptor describe(CacheRefresher<?> refresher, String cacheName) {
+        CacheRefreshStatistics statistics = refresher.getStatistics(cacheName);
+        Duration lastRefreshDuration = statistics.getLastRefreshDuration();
+        Throwable lastFailure = statistics.getLastFailure();
+        return new CacheDescriptor(cacheName, refresher.isPaused(cacheName), refresher.getEntries(cacheName).size(),
+                lastRefreshDuration != null ? lastRefreshDuration.toString() : null, statistics.getLastRefreshedCount(),
+                statistics.getLastFailedCount(), statistics.getSkippedRefreshes(), lastFailure != null ? lastFailure.toString() : null);
+    }
+
+    @Nullable
+    private static ScheduleDescriptor describe(@Nullable Task task) {
+        if (task instanceof CronTask cronTask) {
+            return new ScheduleDescriptor("cron", cronTask.getExpression(), null, null);
+        }
+        if (task instanceof IntervalTask intervalTask) {
+            String type = task instanceof FixedRateTask ? "fixedRate" : task instanceof FixedDelayTask ? "fixedDelay" : "interval";
+            return new ScheduleDescriptor(type, null, intervalTask.getIntervalDuration().toString(), intervalTask.getInitialDelayDuration().toString());
+        }
+        return null;
+    }
+
+    public enum Action {
+        /**
+         * Refresh the caches right away
+         */
+        REFRESH,
+        /**
+         * Pause the refreshes of the cache, see {@link CacheRefresher#pause(String)}
+         */
+        PAUSE,
+        /**
+         * Resume the paused refreshes of the cache
+         */
+        RESUME
+    }
+
+    /**
+     * Refreshers of all {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed} methods
+     */
+    public record CacheRefreshersDescriptor(List<RefresherDescriptor> refreshers) implements OperationResponseBody {
+    }
+
+    /**
+     * @param target     cached method, i.e. {@code <class>.<method>}
+     * @param schedule   {@code null} if the refreshes are not scheduled (yet)
+     * @param refreshing whether a refresh is currently running
+     */
+    public record RefresherDescriptor(String target, @Nullable ScheduleDescriptor schedule, boolean refreshing,
+                                      Map<String, CacheDescriptor> caches) implements OperationResponseBody {
+    }
+
+    /**
+     * @param type         {@code cron}, {@code fixedDelay} or {@code fixedRate}
+     * @param expression   cron expression, only for {@code cron}
+     * @param interval     ISO-8601 duration between the refreshes, divided by the number of spread slots
+     * @param initialDelay ISO-8601 duration before the first refresh
+     */
+    public record ScheduleDescriptor(String type, @Nullable String expression, @Nullable String interval,
+                                     @Nullable String initialDelay) implements OperationResponseBody {
+    }
+
+    /**
+     * @param size                number of entries of the cache
+     * @param lastRefreshDuration ISO-8601 duration of the last finished refresh, {@code null} if none finished yet
+     * @param skippedRefreshes    number of refreshes skipped since the previous refresh was still running or after failed refreshes
+     * @param lastError           last exception thrown while refreshing an entry
+     */
+    public record CacheDescriptor(String name, boolean paused, int size, @Nullable String lastRefreshDuration,
+                                  int lastRefreshedCount, int lastFailedCount, long skippedRefreshes,
+                                  @Nullable String lastError) implements OperationResponseBody {
+    }
+}
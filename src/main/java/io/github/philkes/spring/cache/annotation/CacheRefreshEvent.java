@@ -0,0 +1,40 @@
+package io.github.philkes.spring.cache.annotation;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Requests the refresh of the entries of the given keys of a cache of a {@link CacheableAutoRefreshed} method when published,
+ * see {@link CacheRefreshOperations#refreshKeys(String, Collection)}. Allows refreshing entries as soon as their source
+ * changed, e.g. when consuming change events of the source.
+ */
+public class CacheRefreshEvent extends ApplicationEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String cacheName;
+
+    private final List<?> keys;
+
+    /**
+     * @param keys arguments if the cached method has exactly one parameter, otherwise the {@code Object[]} of the arguments
+     *             or the {@link io.github.philkes.spring.cache.interceptor.ParametersKey}s
+     */
+    public CacheRefreshEvent(Object source, String cacheName, Collection<?> keys) {
+        super(source);
+        this.cacheName = cacheName;
+        this.keys = List.copyOf(keys);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public List<?> getKeys() {
+        return keys;
+    }
+}
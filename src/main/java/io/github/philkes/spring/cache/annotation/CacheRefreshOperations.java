@@ -0,0 +1,110 @@
+package io.github.philkes.spring.cache.annotation;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Refreshes the caches of {@link CacheableAutoRefreshed} methods on demand, in addition to their scheduled refreshes.
+ *
+ * <p>Single entries are refreshed right away via {@link CacheRefresher#refreshKeys(Collection)}: duplicate keys are refreshed
+ * once and keys already being refreshed join the running refresh. The entries are refreshed in all caches of the method
+ * the given cache belongs to. Refreshes can also be requested by publishing a {@link CacheRefreshEvent}.
+ *
+ * <p>The entries are refreshed on the refresh scheduler, or on the refresh executor of the method if the dedicated scheduler
+ * is disabled (see {@link CacheableAutoRefreshedProcessor#DEDICATED_SCHEDULER_PROPERTY}). If neither is available, e.g. the
+ * scheduler is disabled and the {@link CacheableAutoRefreshed#parallelism()} is {@code 1}, the entries are refreshed on the
+ * calling thread (or the thread publishing the event) and the returned futures are already completed.
+ */
+public class CacheRefreshOperations implements ApplicationListener<CacheRefreshEvent> {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final CacheableAutoRefreshedProcessor<?> processor;
+
+    public CacheRefreshOperations(CacheableAutoRefreshedProcessor<?> processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * Refreshes the entry cached for the given arguments of the method.
+     *
+     * @return future completing once the entry was refreshed, exceptionally if the invocation failed
+     * @throws IllegalArgumentException if no {@link CacheableAutoRefreshed} method uses the given cache or the number of arguments
+     *                                  does not match its parameters
+     */
+    public CompletableFuture<Void> refresh(String cacheName, Object... args) {
+        CacheRefresher<?> refresher = getCacheRefresher(cacheName);
+        Method method = refresher.getMethod();
+        if (args.length != method.getParameterCount()) {
+            throw new IllegalArgumentException("Bean method '%s' of cache '%s' expects %d arguments, but %d were given"
+                    .formatted(method.toGenericString(), cacheName, method.getParameterCount(), args.length));
+        }
+        return refresher.refreshKeys(Set.of(ParametersKey.of(args)));
+    }
+
+    /**
+     * Refreshes the entries of the given keys.
+     *
+     * @param keys arguments if the cached method has exactly one parameter, otherwise the {@code Object[]} of the arguments
+     *             or the {@link ParametersKey}s
+     * @return future completing once all entries were refreshed, exceptionally if any invocation failed
+     * @throws IllegalArgumentException if no {@link CacheableAutoRefreshed} method uses the given cache or a key does not match its parameters
+     */
+    public CompletableFuture<Void> refreshKeys(String cacheName, Collection<?> keys) {
+        CacheRefresher<?> refresher = getCacheRefresher(cacheName);
+        Set<ParametersKey> parametersKeys = new LinkedHashSet<>(keys.size());
+        for (Object key : keys) {
+            parametersKeys.add(refresher.toParametersKey(key));
+        }
+        return refresher.refreshKeys(parametersKeys);
+    }
+
+    /**
+     * Triggers the refresh of all entries of the caches of the method the given cache belongs to, just like a scheduled refresh.
+     * Skipped if a refresh of these caches is already running.
+     *
+     * @throws IllegalArgumentException if no {@link CacheableAutoRefreshed} method uses the given cache
+     */
+    public void refreshAll(String cacheName) {
+        getCacheRefresher(cacheName).triggerRefreshCaches();
+    }
+
+    /**
+     * Writes the given entries into the given cache, e.g. entries refreshed by another node of the cluster
+     * (see {@link io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher}).
+     *
+     * @throws IllegalArgumentException if no {@link CacheableAutoRefreshed} method uses the given cache
+     */
+    public void putAll(String cacheName, Map<ParametersKey, Object> entries) {
+        getCacheRefresher(cacheName).storeAll(cacheName, entries);
+    }
+
+    @Override
+    public void onApplicationEvent(CacheRefreshEvent event) {
+        refreshKeys(event.getCacheName(), event.getKeys()).exceptionally(e -> {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Refresh of %d cache-entries of cache '%s' requested by event failed.".formatted(event.getKeys().size(), event.getCacheName()), e);
+            }
+            return null;
+        });
+    }
+
+    private CacheRefresher<?> getCacheRefresher(String cacheName) {
+        for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+            if (refresher.getCacheNames().contains(cacheName)) {
+                return refresher;
+            }
+        }
+        throw new IllegalArgumentException("No @CacheableAutoRefreshed method uses cache '%s'".formatted(cacheName));
+    }
+}
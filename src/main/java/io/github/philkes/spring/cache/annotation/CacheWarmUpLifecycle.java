@@ -0,0 +1,101 @@
+package io.github.philkes.spring.cache.annotation;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.snapshot.CacheSnapshotLifecycle;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the caches of all {@link CacheableAutoRefreshed} methods with their {@link CacheableAutoRefreshed#warmUpKeys()} on startup.
+ *
+ * <p>The warm-up blocks the start of the application context, i.e. it finishes before the web server (started in a later phase)
+ * accepts any requests and before the application reports readiness. It runs after the caches were restored from their
+ * snapshots (see {@link CacheSnapshotLifecycle}), so that only missing keys are loaded.
+ */
+public class CacheWarmUpLifecycle implements SmartLifecycle {
+
+    /**
+     * Started right after the {@link CacheSnapshotLifecycle}
+     */
+    public static final int PHASE = CacheSnapshotLifecycle.PHASE + 1;
+
+    public static final String PARALLELISM_PROPERTY = "cache.auto-refresh.warm-up.parallelism";
+
+    private static final String THREAD_NAME_PREFIX = "cache-warm-up-";
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final CacheableAutoRefreshedProcessor<?> processor;
+
+    private final int parallelism;
+
+    private volatile boolean running;
+
+    /**
+     * @param parallelism maximum number of concurrent invocations of the cached (or batch) methods while warming up
+     */
+    public CacheWarmUpLifecycle(CacheableAutoRefreshedProcessor<?> processor, int parallelism) {
+        this.processor = processor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Loads the warm-up keys of all caches, returns after all caches were loaded.
+     * A failing key provider only skips the warm-up of its caches.
+     */
+    public void warmUp() {
+        if (processor.getCacheRefreshers().stream().noneMatch(refresher -> refresher.getSettings().getWarmUpKeyProvider() != null)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory(THREAD_NAME_PREFIX)) : null;
+        int loadedCount = 0;
+        try {
+            for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+                try {
+                    int count = refresher.warmUp(parallelism, executor);
+                    loadedCount += count;
+                    if (logger.isDebugEnabled() && refresher.getSettings().getWarmUpKeyProvider() != null) {
+                        logger.debug("Warmed up caches %s with %d cache-entries.".formatted(refresher.getCacheNames(), count));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Could not warm up caches %s.".formatted(refresher.getCacheNames()), e);
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Warmed up caches with %d cache-entries in %d ms.".formatted(loadedCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        }
+    }
+}
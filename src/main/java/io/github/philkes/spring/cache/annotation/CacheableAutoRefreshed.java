@@ -22,6 +22,29 @@ import static io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator.
  *
  * <p>While the cache is auto-refreshed, the old cached value is still present in the cache.</p>
  *
+ * <p>The entries of a cache can be refreshed concurrently by setting {@link #parallelism()}.</p>
+ *
+ * <p>By setting {@link #refreshOnlyIfAccessedWithin()} and/or {@link #evictIfIdleFor()} only recently accessed cache-entries
+ * are refreshed, idle entries are kept as is or evicted.</p>
+ *
+ * <p>If the source of the cached data supports loading multiple entries at once, a {@link #batchMethod()} can be specified
+ * to refresh the entries in batches of {@link #batchSize()}.</p>
+ *
+ * <p>To avoid refreshing all entries in a single burst, {@link #spreadSlots()} spreads the refreshes evenly over the
+ * refresh interval.</p>
+ *
+ * <p>For very large caches the work per refresh can be limited with {@link #maxKeysPerTick()} and/or {@link #maxTimePerTick()},
+ * the next refresh then continues where the last one stopped.</p>
+ *
+ * <p>To avoid overloading a slow or failing source, the concurrency of the refreshes can adapt to the latency of the source
+ * ({@link #adaptiveConcurrency()}) and refreshes can back off after failures ({@link #failureBackoff()}).
+ * Slow invocations and refreshes are bounded by {@link #refreshTimeout()} and {@link #refreshDeadline()}.</p>
+ *
+ * <p>The caches can be loaded on startup with the keys provided by {@link #warmUpKeys()}.</p>
+ *
+ * <p>Instead of (or in addition to) the scheduled refreshes, read cache-entries can be refreshed early in the background
+ * with {@link #earlyRefreshAfter()}, so that only entries which are actually read are refreshed.</p>
+ *
  */
 @Target({ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
@@ -133,4 +156,268 @@ public @interface CacheableAutoRefreshed {
      * @see Scheduled#timeUnit()
      */
     TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Maximum number of cache-entries of a single cache that are refreshed concurrently.
+     * {@code 1} refreshes all entries sequentially on the scheduler's thread.
+     * Only applies to caches that are refreshed entry by entry (e.g. {@link java.util.Map} caches),
+     * Caffeine caches are refreshed asynchronously by Caffeine itself.
+     * For methods returning a {@link java.util.concurrent.CompletionStage} or a reactive type (e.g. {@code Mono}, {@code Flux})
+     * this is the maximum number of invocations in flight, no thread is blocked while waiting for their values and no
+     * {@link #executor()} is used unless a {@link #batchMethod()} is set.
+     * <p>Defaults to {@code -1}, which falls back to the
+     * {@value CacheableAutoRefreshedProcessor#PARALLELISM_PROPERTY} property (defaults to {@code 1}), or for asynchronous methods
+     * to the {@value CacheableAutoRefreshedProcessor#ASYNC_PARALLELISM_PROPERTY} property (defaults to {@code 64}).
+     */
+    int parallelism() default -1;
+
+    /**
+     * Same as {@link #parallelism()} but as a String value, supporting Spring-style "${...}" placeholders.
+     * <p>Defaults to empty string.
+     */
+    String parallelismString() default "";
+
+    /**
+     * Name of the {@link java.util.concurrent.Executor} bean that runs the refreshes if {@link #parallelism()} is greater than {@code 1}
+     * and the method is not asynchronous (or a {@link #batchMethod()} is set).
+     * <p>Defaults to empty string, which uses a shared executor configured by the
+     * {@value CacheableAutoRefreshedProcessor#VIRTUAL_THREADS_PROPERTY} property.
+     */
+    String executor() default "";
+
+    /**
+     * Only cache-entries that were accessed within this duration (in {@link #timeUnit()}) are refreshed,
+     * other entries are kept in the cache without being refreshed.
+     * <p>Defaults to {@code -1}, i.e. all entries are refreshed.
+     */
+    long refreshOnlyIfAccessedWithin() default -1;
+
+    /**
+     * Same as {@link #refreshOnlyIfAccessedWithin()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String refreshOnlyIfAccessedWithinString() default "";
+
+    /**
+     * Cache-entries that were not accessed within this duration (in {@link #timeUnit()}) are evicted from the cache
+     * instead of being refreshed.
+     * <p>Defaults to {@code -1}, i.e. no entries are evicted.
+     */
+    long evictIfIdleFor() default -1;
+
+    /**
+     * Same as {@link #evictIfIdleFor()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String evictIfIdleForString() default "";
+
+    /**
+     * Name of a method of the same bean that loads multiple cache-entries with a single invocation, which is then used to
+     * refresh the cache in batches of {@link #batchSize()} entries instead of invoking the annotated method for every entry.
+     * <p>The batch method has to accept a single {@link java.util.List} parameter and return a {@link java.util.Map}.
+     * If the annotated method has exactly one parameter, the list contains its arguments and the returned map has to
+     * be keyed by them, e.g. {@code Map<String, Data> fetchAll(List<String> ids)} for {@code Data fetch(String id)}.
+     * Otherwise the list contains the {@link io.github.philkes.spring.cache.interceptor.ParametersKey}s and the returned
+     * map has to be keyed by them. Entries missing in the returned map retain their old cached value.
+     * <p>Defaults to empty string, i.e. every entry is refreshed with its own invocation.
+     */
+    String batchMethod() default "";
+
+    /**
+     * Maximum number of cache-entries refreshed by a single invocation of the {@link #batchMethod()}.
+     * <p>Defaults to {@code -1}, which falls back to the
+     * {@value CacheableAutoRefreshedProcessor#BATCH_SIZE_PROPERTY} property (defaults to {@code 100}).
+     */
+    int batchSize() default -1;
+
+    /**
+     * Number of slots the refresh interval ({@link #fixedDelay()} or {@link #fixedRate()}) is split into. Instead of refreshing
+     * all cache-entries at once every interval, the refresh is triggered {@code spreadSlots} times per interval and each
+     * time only the entries of the current slot are refreshed. The slot of an entry is determined by a stable hash of its key,
+     * so every entry is still refreshed once per interval, but the load on the source is spread evenly over the interval.
+     * Not supported in combination with {@link #cron()}.
+     * <p>Defaults to {@code -1}, i.e. all entries are refreshed at once.
+     */
+    int spreadSlots() default -1;
+
+    /**
+     * Whether the slots of the entries (see {@link #spreadSlots()}) are shifted by a random offset, so that multiple
+     * application instances do not refresh the same entries at the same time.
+     * <p>Defaults to false.
+     */
+    boolean spreadJitter() default false;
+
+    /**
+     * Maximum number of cache-entries of a single cache that are refreshed per triggered refresh.
+     * The next refresh continues with the entries that were not refreshed yet, until all entries were refreshed once (a "sweep").
+     * Not supported in combination with {@link #spreadSlots()}.
+     * <p>Defaults to {@code -1}, i.e. all entries are refreshed at once.
+     */
+    int maxKeysPerTick() default -1;
+
+    /**
+     * Maximum duration (in {@link #timeUnit()}) of the refresh of a single cache per triggered refresh, see {@link #maxKeysPerTick()}.
+     * <p>Defaults to {@code -1}, i.e. unlimited.
+     */
+    long maxTimePerTick() default -1;
+
+    /**
+     * Same as {@link #maxTimePerTick()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String maxTimePerTickString() default "";
+
+    /**
+     * Maximum number of entries of the cache, overriding the size bound of the cache's own configuration.
+     * Only supported by Caffeine caches.
+     * <p>Defaults to {@code -1}, i.e. the configuration of the cache (e.g. {@code spring.cache.caffeine.spec}) is used.
+     */
+    long maximumSize() default -1;
+
+    /**
+     * Maximum weight of the entries of the cache, as determined by the {@link #weigher()}, overriding the size bound of
+     * the cache's own configuration. Only supported by Caffeine caches.
+     * <p>Defaults to {@code -1}, i.e. the configuration of the cache (e.g. {@code spring.cache.caffeine.spec}) is used.
+     */
+    long maximumWeight() default -1;
+
+    /**
+     * Name of the {@code com.github.benmanes.caffeine.cache.Weigher} bean used to weigh the entries for {@link #maximumWeight()}.
+     * <p>Defaults to empty string.
+     */
+    String weigher() default "";
+
+    /**
+     * Name of a method of the same bean without parameters, or of a {@link java.util.function.Supplier} bean, that provides
+     * the keys the caches are loaded with on startup, before the application context finished refreshing (and therefore
+     * before the application reports readiness). Keys already present in the caches (e.g. restored from a snapshot) are
+     * not loaded again. The keys are loaded in parallel (or in batches of the {@link #batchMethod()}), see the
+     * {@value CacheWarmUpLifecycle#PARALLELISM_PROPERTY} property.
+     * <p>The provided {@link Iterable} contains the arguments if the annotated method has exactly one parameter,
+     * otherwise an {@code Object[]} of the arguments or the {@link io.github.philkes.spring.cache.interceptor.ParametersKey}s.
+     * Supports Spring-style "${...}" placeholders.
+     * <p>Defaults to empty string, i.e. the caches are not warmed up.
+     */
+    String warmUpKeys() default "";
+
+    /**
+     * Whether the number of concurrently refreshed entries adapts to the source: it shrinks when invocations fail or
+     * get slower than usual and grows again while they succeed (AIMD), with {@link #parallelism()} as upper bound.
+     * <p>Defaults to false, which falls back to the {@value CacheableAutoRefreshedProcessor#ADAPTIVE_CONCURRENCY_PROPERTY} property.
+     */
+    boolean adaptiveConcurrency() default false;
+
+    /**
+     * Duration (in {@link #timeUnit()}) the refreshes of a cache are skipped after a refresh in which all invocations failed.
+     * The duration doubles with every further failed refresh, up to the
+     * {@value CacheableAutoRefreshedProcessor#MAX_FAILURE_BACKOFF_PROPERTY} property (defaults to 10 minutes).
+     * <p>Defaults to {@code -1}, which falls back to the {@value CacheableAutoRefreshedProcessor#FAILURE_BACKOFF_PROPERTY}
+     * property (not set by default, i.e. no backoff).
+     */
+    long failureBackoff() default -1;
+
+    /**
+     * Same as {@link #failureBackoff()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String failureBackoffString() default "";
+
+    /**
+     * Maximum duration (in {@link #timeUnit()}) of a single invocation of the cached (or batch) method during a refresh.
+     * A slower invocation is abandoned (and interrupted), the old cached values are retained and the timeout is counted.
+     * Synchronous invocations then run on the refresh executor instead of the refreshing thread.
+     * <p>Defaults to {@code -1}, which falls back to the {@value CacheableAutoRefreshedProcessor#REFRESH_TIMEOUT_PROPERTY}
+     * property (not set by default, i.e. no timeout).
+     */
+    long refreshTimeout() default -1;
+
+    /**
+     * Same as {@link #refreshTimeout()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String refreshTimeoutString() default "";
+
+    /**
+     * Maximum duration (in {@link #timeUnit()}) of a whole refresh of the caches. Once exceeded, no further entries are refreshed,
+     * the remaining entries keep their old values until the next refresh.
+     * <p>Defaults to {@code -1}, which falls back to the {@value CacheableAutoRefreshedProcessor#REFRESH_DEADLINE_PROPERTY}
+     * property (not set by default, i.e. no deadline).
+     */
+    long refreshDeadline() default -1;
+
+    /**
+     * Same as {@link #refreshDeadline()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String refreshDeadlineString() default "";
+
+    /**
+     * Whether a refreshed value is compared to the cached value and only written to the cache if it changed, avoiding the
+     * garbage and write amplification (e.g. write-based expiry, listeners) of rewriting unchanged values. Only changed entries are
+     * reported to {@link io.github.philkes.spring.cache.interceptor.CacheRefreshListener#onEntryChanged CacheRefreshListener#onEntryChanged}.
+     * The values are compared via {@link Object#equals(Object)} or the {@link #fingerprint()}.
+     * <p>Defaults to false, which falls back to the {@value CacheableAutoRefreshedProcessor#SKIP_UNCHANGED_PROPERTY} property.
+     */
+    boolean skipUnchanged() default false;
+
+    /**
+     * Name of a method of the same bean with a single parameter, or of a {@link java.util.function.Function} bean, mapping a
+     * cached value to the fingerprint it is compared by instead of the value itself, e.g. a version or a hash.
+     * Implies {@link #skipUnchanged()}. Supports Spring-style "${...}" placeholders.
+     * <p>Defaults to empty string, i.e. the values are compared via {@link Object#equals(Object)}.
+     */
+    String fingerprint() default "";
+
+    /**
+     * Whether the scheduled refreshes are coordinated across the nodes of a cluster via the
+     * {@link io.github.philkes.spring.cache.cluster.RefreshLockProvider} bean, so that each tick refreshes every entry only once
+     * per cluster. The nodes have to share the cache tier, or publish the refreshed entries via a
+     * {@link io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher} bean, in which case every node also refreshes
+     * the keys of other nodes' partitions that these nodes did not publish.
+     * Can not be combined with {@link #maxKeysPerTick()} or {@link #maxTimePerTick()}.
+     * <p>Defaults to false, which falls back to the {@value CacheableAutoRefreshedProcessor#CLUSTER_ENABLED_PROPERTY} property.
+     */
+    boolean clusterCoordinated() default false;
+
+    /**
+     * Number of partitions the keys are split into if {@link #clusterCoordinated()}, which are locked and refreshed separately,
+     * so that nodes ticking at the same time split the refresh among themselves. The hash codes of the keys have to be the same
+     * on all nodes (e.g. Strings, numbers or records of these).
+     * <p>Defaults to {@code -1}, which falls back to the {@value CacheableAutoRefreshedProcessor#CLUSTER_PARTITIONS_PROPERTY}
+     * property, or {@code 1}, i.e. a single node refreshes all entries per tick.
+     */
+    int clusterPartitions() default -1;
+
+    /**
+     * Age (in {@link #timeUnit()}) after which a cache-entry is refreshed when it is read. Before that age, every read refreshes
+     * the entry with a probability rising with its age and with the duration of its last load ("XFetch", see
+     * {@link io.github.philkes.spring.cache.interceptor.EarlyRefreshTracker}), so that frequently read entries are refreshed
+     * shortly before they become stale, while entries that are not read are not refreshed at all.
+     * The refreshes run in the background, the reader always gets the cached value without waiting, and each entry is
+     * refreshed at most once at a time.
+     * <p>If set, the scheduling attributes (e.g. {@link #fixedDelay()}) are optional.
+     * <p>Defaults to {@code -1}, i.e. reads do not trigger refreshes.
+     */
+    long earlyRefreshAfter() default -1;
+
+    /**
+     * Same as {@link #earlyRefreshAfter()} but as a String value, supporting Spring-style "${...}" placeholders
+     * as well as {@link java.time.Duration#parse java.time.Duration} compliant values.
+     * <p>Defaults to empty string.
+     */
+    String earlyRefreshAfterString() default "";
+
+    /**
+     * Scales how early entries are refreshed on read if {@link #earlyRefreshAfter()} is set, values greater than {@code 1}
+     * favor earlier refreshes, values smaller than {@code 1} later ones.
+     * <p>Defaults to {@code -1}, which falls back to the {@value CacheableAutoRefreshedProcessor#EARLY_REFRESH_BETA_PROPERTY}
+     * property (defaults to {@code 1}).
+     */
+    double earlyRefreshBeta() default -1;
 }
@@ -0,0 +1,107 @@
+package io.github.philkes.spring.cache.annotation;
+
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationAotProcessor;
+import org.springframework.beans.factory.aot.BeanRegistrationCode;
+import org.springframework.beans.factory.aot.BeanRegistrationCodeFragments;
+import org.springframework.beans.factory.aot.BeanRegistrationCodeFragmentsDecorator;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * {@link BeanRegistrationAotProcessor} that detects the {@link CacheableAutoRefreshed} methods of every bean at build time:
+ * <ul>
+ *     <li>The detected methods are stored as {@link CacheableAutoRefreshedMethods} in the generated bean definition, so that the
+ *     {@link CacheableAutoRefreshedProcessor} skips introspecting all methods of the bean classes on startup.</li>
+ *     <li>Reflection hints are registered for the annotated methods and the methods referenced by
+ *     {@link CacheableAutoRefreshed#batchMethod()}, {@link CacheableAutoRefreshed#warmUpKeys()} and
+ *     {@link CacheableAutoRefreshed#fingerprint()}, since they are invoked reflectively by the refreshes (e.g. in a native image).</li>
+ * </ul>
+ * The refresh settings are still resolved on startup, since they depend on the {@link org.springframework.core.env.Environment}
+ * and on other beans (e.g. executors). Referenced method names containing placeholders are only resolvable on startup as well,
+ * hints for such methods have to be registered manually.
+ */
+class CacheableAutoRefreshedBeanRegistrationAotProcessor implements BeanRegistrationAotProcessor {
+
+    @Override
+    @Nullable
+    public BeanRegistrationAotContribution processAheadOfTime(RegisteredBean registeredBean) {
+        Class<?> beanClass = registeredBean.getBeanClass();
+        if (!AnnotationUtils.isCandidateClass(beanClass, CacheableAutoRefreshed.class)) {
+            return null;
+        }
+        Map<Method, CacheableAutoRefreshed> annotatedMethods = MethodIntrospector.selectMethods(beanClass,
+                (MethodIntrospector.MetadataLookup<CacheableAutoRefreshed>) CacheableAutoRefreshedProcessor::findCacheableAutoRefreshed);
+        // Also stored for classes without annotated methods, which are then skipped on startup
+        return new AotContribution(beanClass, annotatedMethods, CacheableAutoRefreshedMethods.of(beanClass, annotatedMethods.keySet()));
+    }
+
+    private static class AotContribution implements BeanRegistrationAotContribution {
+
+        private final Class<?> beanClass;
+
+        private final Map<Method, CacheableAutoRefreshed> annotatedMethods;
+
+        private final CacheableAutoRefreshedMethods methods;
+
+        AotContribution(Class<?> beanClass, Map<Method, CacheableAutoRefreshed> annotatedMethods, CacheableAutoRefreshedMethods methods) {
+            this.beanClass = beanClass;
+            this.annotatedMethods = annotatedMethods;
+            this.methods = methods;
+        }
+
+        @Override
+        public BeanRegistrationCodeFragments customizeBeanRegistrationCodeFragments(GenerationContext generationContext, BeanRegistrationCodeFragments codeFragments) {
+            return new BeanRegistrationCodeFragmentsDecorator(codeFragments) {
+                @Override
+                public CodeBlock generateSetBeanDefinitionPropertiesCode(GenerationContext generationContext, BeanRegistrationCode beanRegistrationCode,
+                                                                         RootBeanDefinition beanDefinition, Predicate<String> attributeFilter) {
+                    CodeBlock arguments = CodeBlock.join(Stream.concat(Stream.of(methods.getTargetClassName()), Arrays.stream(methods.getMethodSignatures()))
+                            .map(argument -> CodeBlock.of("$S", argument)).toList(), ", ");
+                    return CodeBlock.builder()
+                            .add(super.generateSetBeanDefinitionPropertiesCode(generationContext, beanRegistrationCode, beanDefinition, attributeFilter))
+                            .addStatement("$L.setAttribute($S, $T.of($L))", BEAN_DEFINITION_VARIABLE, CacheableAutoRefreshedMethods.ATTRIBUTE,
+                                    CacheableAutoRefreshedMethods.class, arguments)
+                            .build();
+                }
+            };
+        }
+
+        @Override
+        public void applyTo(GenerationContext generationContext, BeanRegistrationCode beanRegistrationCode) {
+            ReflectionHints reflectionHints = generationContext.getRuntimeHints().reflection();
+            annotatedMethods.forEach((method, cacheableAutoRefreshed) -> {
+                reflectionHints.registerMethod(method, ExecutableMode.INVOKE);
+                registerMethods(reflectionHints, cacheableAutoRefreshed.batchMethod());
+                registerMethods(reflectionHints, cacheableAutoRefreshed.warmUpKeys());
+                registerMethods(reflectionHints, cacheableAutoRefreshed.fingerprint());
+            });
+        }
+
+        /**
+         * Registers all methods of the bean class with the given name, no-op if the name is a placeholder or refers to a bean.
+         */
+        private void registerMethods(ReflectionHints reflectionHints, String methodName) {
+            if (!StringUtils.hasText(methodName)) {
+                return;
+            }
+            ReflectionUtils.doWithMethods(beanClass, method -> reflectionHints.registerMethod(method, ExecutableMode.INVOKE),
+                    method -> method.getName().equals(methodName));
+        }
+    }
+}
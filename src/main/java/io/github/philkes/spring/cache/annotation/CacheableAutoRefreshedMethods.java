@@ -0,0 +1,99 @@
+package io.github.philkes.spring.cache.annotation;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CacheableAutoRefreshed} methods of a bean class, detected ahead-of-time by the
+ * {@link CacheableAutoRefreshedBeanRegistrationAotProcessor} and stored in the {@value #ATTRIBUTE} attribute of the generated
+ * bean definition. The {@link CacheableAutoRefreshedProcessor} then resolves only these methods on startup, instead of
+ * introspecting all methods of the bean class.
+ *
+ * <p>Only intended to be instantiated by the generated code.
+ */
+public final class CacheableAutoRefreshedMethods {
+
+    /**
+     * Name of the bean definition attribute holding the {@link CacheableAutoRefreshedMethods} of the bean
+     */
+    public static final String ATTRIBUTE = "io.github.philkes.spring.cache.annotation.cacheableAutoRefreshedMethods";
+
+    private final String targetClassName;
+
+    private final String[] methodSignatures;
+
+    private CacheableAutoRefreshedMethods(String targetClassName, String[] methodSignatures) {
+        this.targetClassName = targetClassName;
+        this.methodSignatures = methodSignatures;
+    }
+
+    /**
+     * @param targetClassName  name of the bean class the methods were detected on
+     * @param methodSignatures signatures of the methods as returned by {@link #signatureOf(Method)}, empty if the class has no
+     *                         {@link CacheableAutoRefreshed} methods
+     */
+    public static CacheableAutoRefreshedMethods of(String targetClassName, String... methodSignatures) {
+        return new CacheableAutoRefreshedMethods(targetClassName, methodSignatures);
+    }
+
+    static CacheableAutoRefreshedMethods of(Class<?> targetClass, Collection<Method> methods) {
+        return of(targetClass.getName(), methods.stream().map(CacheableAutoRefreshedMethods::signatureOf).sorted().toArray(String[]::new));
+    }
+
+    /**
+     * @return signature of the method, e.g. {@code getData(java.lang.String,int)}
+     */
+    static String signatureOf(Method method) {
+        return Arrays.stream(method.getParameterTypes()).map(Class::getName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    public String getTargetClassName() {
+        return targetClassName;
+    }
+
+    public String[] getMethodSignatures() {
+        return methodSignatures.clone();
+    }
+
+    /**
+     * @return the methods of the given class, {@code null} if the methods were detected on another class, e.g. if the bean
+     * is created by a factory-method declaring an interface as return type
+     * @throws IllegalStateException if a method does not exist (anymore), i.e. the generated code is outdated
+     */
+    @Nullable
+    Set<Method> resolve(Class<?> targetClass) {
+        if (!targetClass.getName().equals(targetClassName)) {
+            return null;
+        }
+        Set<Method> methods = new LinkedHashSet<>(methodSignatures.length);
+        for (String signature : methodSignatures) {
+            int parametersStart = signature.indexOf('(');
+            String name = signature.substring(0, parametersStart);
+            String parameters = signature.substring(parametersStart + 1, signature.length() - 1);
+            Class<?>[] parameterTypes = parameters.isEmpty() ? new Class<?>[0] : Arrays.stream(parameters.split(","))
+                    .map(typeName -> ClassUtils.resolveClassName(typeName, targetClass.getClassLoader()))
+                    .toArray(Class<?>[]::new);
+            Method method = ReflectionUtils.findMethod(targetClass, name, parameterTypes);
+            if (method == null) {
+                throw new IllegalStateException("Method '%s' detected ahead-of-time does not exist in '%s', the generated code is outdated"
+                        .formatted(signature, targetClassName));
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheableAutoRefreshedMethods " + targetClassName + Arrays.toString(methodSignatures);
+    }
+}
@@ -1,29 +1,64 @@
 package io.github.philkes.spring.cache.annotation;
 
+import io.github.philkes.spring.cache.cluster.RefreshLockProvider;
+import io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher;
+import io.github.philkes.spring.cache.interceptor.AsyncResultAdapter;
+import io.github.philkes.spring.cache.interceptor.CacheRefreshListener;
+import io.github.philkes.spring.cache.interceptor.CacheRefreshSettings;
 import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.CachedMethodInvoker;
+import io.github.philkes.spring.cache.interceptor.EarlyRefreshInterceptor;
+import io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator;
 import org.springframework.aop.framework.AopInfrastructureBean;
 import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.Task;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static io.github.philkes.spring.cache.interceptor.CacheRefresher.CACHE_REFRESH_METHOD;
+import static io.github.philkes.spring.cache.interceptor.CacheRefresher.TRIGGER_CACHE_REFRESH_METHOD;
 
 /**
  * Bean post-processor that registers methods annotated with
@@ -38,21 +73,267 @@ import static io.github.philkes.spring.cache.interceptor.CacheRefresher.CACHE_RE
  * See the {@link EnableScheduling @EnableScheduling} javadocs for complete usage
  * details.
  *
+ * <p>If {@link CacheableAutoRefreshed#parallelism()} is greater than {@code 1}, the cache-entries are refreshed on the
+ * {@link CacheableAutoRefreshed#executor()} bean or on a shared executor, which uses virtual threads if
+ * {@value #VIRTUAL_THREADS_PROPERTY} is set and the JVM supports them.
+ *
+ * <p>The refreshes are scheduled on a dedicated scheduler, isolated from the application's other scheduled tasks
+ * (see {@value #DEDICATED_SCHEDULER_PROPERTY}). The refreshers are not isolated from each other, they share the threads of
+ * this scheduler. Fixed-rate ticks that arrive while the previous refresh of the same method is still running are skipped
+ * and reported to the {@link CacheRefreshListener}s.
+ *
+ * <p>All {@link CacheRefreshListener} beans are registered with the created {@link CacheRefresher}s before the refreshes
+ * are scheduled.
+ *
+ * <p>In an application processed ahead-of-time, the {@link CacheableAutoRefreshedBeanRegistrationAotProcessor} already detected
+ * the annotated methods of the beans, only these methods are inspected on startup.
+ *
  * @param <C> type of the used native-cache, e.g. {@link Map} or {@link com.github.benmanes.caffeine.cache.LoadingCache}
  * @see ScheduledAnnotationBeanPostProcessor
  */
-public abstract class CacheableAutoRefreshedProcessor<C> extends ScheduledAnnotationBeanPostProcessor {
+public abstract class CacheableAutoRefreshedProcessor<C> extends ScheduledAnnotationBeanPostProcessor implements EnvironmentAware {
 
     public static final String CACHEABLE_AUTO_REFRESHED_PROCESSOR_BEAN = "io.github.philkes.spring.cache.annotation.internalCacheableAutoRefreshedAnnotationBeanPostProcessor";
 
+    /**
+     * Default {@link CacheableAutoRefreshed#parallelism()} if none is specified in the annotation.
+     */
+    public static final String PARALLELISM_PROPERTY = "cache.auto-refresh.parallelism";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#parallelism()} of asynchronous methods (e.g. returning a {@code CompletableFuture} or {@code Mono})
+     * if none is specified in the annotation, i.e. the maximum number of invocations in flight.
+     */
+    public static final String ASYNC_PARALLELISM_PROPERTY = "cache.auto-refresh.async.parallelism";
+
+    private static final int DEFAULT_ASYNC_PARALLELISM = 64;
+
+    /**
+     * Enables {@link CacheableAutoRefreshed#adaptiveConcurrency()} for all methods.
+     */
+    public static final String ADAPTIVE_CONCURRENCY_PROPERTY = "cache.auto-refresh.adaptive-concurrency";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#failureBackoff()} if none is specified in the annotation.
+     */
+    public static final String FAILURE_BACKOFF_PROPERTY = "cache.auto-refresh.failure-backoff.initial";
+
+    /**
+     * Upper bound of the {@link CacheableAutoRefreshed#failureBackoff()}.
+     */
+    public static final String MAX_FAILURE_BACKOFF_PROPERTY = "cache.auto-refresh.failure-backoff.max";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#refreshTimeout()} if none is specified in the annotation.
+     */
+    public static final String REFRESH_TIMEOUT_PROPERTY = "cache.auto-refresh.refresh-timeout";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#refreshDeadline()} if none is specified in the annotation.
+     */
+    public static final String REFRESH_DEADLINE_PROPERTY = "cache.auto-refresh.refresh-deadline";
+
+    /**
+     * Enables {@link CacheableAutoRefreshed#skipUnchanged()} for all methods.
+     */
+    public static final String SKIP_UNCHANGED_PROPERTY = "cache.auto-refresh.skip-unchanged";
+
+    /**
+     * Enables {@link CacheableAutoRefreshed#clusterCoordinated()} for all methods.
+     */
+    public static final String CLUSTER_ENABLED_PROPERTY = "cache.auto-refresh.cluster.enabled";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#clusterPartitions()} if none is specified in the annotation.
+     */
+    public static final String CLUSTER_PARTITIONS_PROPERTY = "cache.auto-refresh.cluster.partitions";
+
+    /**
+     * Minimum duration a coordinated refresh stays locked, see {@link CacheRefreshSettings#getLockAtLeastFor()}.
+     * Defaults to the interval of the scheduled refreshes, or zero for cron expressions.
+     */
+    public static final String CLUSTER_LOCK_AT_LEAST_FOR_PROPERTY = "cache.auto-refresh.cluster.lock-at-least-for";
+
+    /**
+     * Maximum duration a coordinated refresh stays locked, see {@link CacheRefreshSettings#getLockAtMostFor()}.
+     */
+    public static final String CLUSTER_LOCK_AT_MOST_FOR_PROPERTY = "cache.auto-refresh.cluster.lock-at-most-for";
+
+    private static final Duration DEFAULT_LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+
+    /**
+     * Default {@link CacheableAutoRefreshed#earlyRefreshBeta()} if none is specified in the annotation.
+     */
+    public static final String EARLY_REFRESH_BETA_PROPERTY = "cache.auto-refresh.early-refresh.beta";
+
+    /**
+     * Default {@link CacheableAutoRefreshed#batchSize()} if none is specified in the annotation.
+     */
+    public static final String BATCH_SIZE_PROPERTY = "cache.auto-refresh.batch-size";
+
+    /**
+     * Whether the shared refresh executor should use virtual threads (requires Java 21+).
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "cache.auto-refresh.virtual-threads";
+
+    /**
+     * Whether the refreshes are scheduled on a dedicated scheduler instead of the application's {@link TaskScheduler}.
+     */
+    public static final String DEDICATED_SCHEDULER_PROPERTY = "cache.auto-refresh.scheduler.enabled";
+
+    /**
+     * Number of threads of the dedicated refresh scheduler, shared by all {@link CacheableAutoRefreshed} methods. Defaults to
+     * the number of these methods, since every method runs at most one scheduled refresh at a time. On-demand and early
+     * refreshes (see {@link CacheRefresher#refreshKeys(java.util.Collection)}) run on the same threads and can delay the
+     * scheduled refreshes if all threads are busy.
+     */
+    public static final String SCHEDULER_POOL_SIZE_PROPERTY = "cache.auto-refresh.scheduler.pool-size";
+
+    /**
+     * Name of an optional {@link TaskScheduler} bean used as the dedicated refresh scheduler.
+     */
+    public static final String REFRESH_SCHEDULER_BEAN = "cacheRefreshTaskScheduler";
+
+    private static final String REFRESH_THREAD_NAME_PREFIX = "cache-refresh-";
+
+    private static final String REFRESH_SCHEDULER_THREAD_NAME_PREFIX = "cache-refresh-scheduler-";
+
     private final CacheManager cacheManager;
 
     protected final Set<Class<?>> nonAnnotatedClasses = Collections.newSetFromMap(new ConcurrentHashMap<>(64));
 
+    @Nullable
+    private Environment environment;
+
+    @Nullable
+    private StringValueResolver embeddedValueResolver;
+
+    @Nullable
+    private BeanFactory beanFactory;
+
+    @Nullable
+    private ExecutorService sharedRefreshExecutor;
+
+    /**
+     * Created refreshers whose {@link CacheRefreshListener}s and refresh scheduler are not registered yet
+     */
+    private final List<CacheRefresher<C>> unregisteredRefreshers = new ArrayList<>();
+
+    /**
+     * All created refreshers
+     */
+    private final List<CacheRefresher<C>> cacheRefreshers = new CopyOnWriteArrayList<>();
+
+    @Nullable
+    private TaskScheduler refreshScheduler;
+
+    /**
+     * Dedicated refresh scheduler created by this processor, which has to be shut down on destruction
+     */
+    @Nullable
+    private ThreadPoolTaskScheduler ownRefreshScheduler;
+
     protected CacheableAutoRefreshedProcessor(CacheManager cacheManager) {
         this.cacheManager = cacheManager;
     }
 
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setEmbeddedValueResolver(StringValueResolver resolver) {
+        super.setEmbeddedValueResolver(resolver);
+        this.embeddedValueResolver = resolver;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        synchronized (this) {
+            if (sharedRefreshExecutor != null) {
+                sharedRefreshExecutor.shutdownNow();
+                sharedRefreshExecutor = null;
+            }
+            if (ownRefreshScheduler != null) {
+                ownRefreshScheduler.destroy();
+                ownRefreshScheduler = null;
+            }
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        List<CacheRefresher<C>> refreshers;
+        synchronized (unregisteredRefreshers) {
+            refreshers = new ArrayList<>(unregisteredRefreshers);
+            unregisteredRefreshers.clear();
+        }
+        TaskScheduler scheduler = resolveRefreshScheduler();
+        if (scheduler != null) {
+            setScheduler(scheduler);
+            refreshers.forEach(refresher -> refresher.setRefreshScheduler(scheduler));
+        }
+        registerListeners(refreshers);
+        super.onApplicationEvent(event);
+    }
+
+    /**
+     * Resolves the scheduler the refreshes are scheduled on, isolated from the application's other scheduled tasks:
+     * the {@value #REFRESH_SCHEDULER_BEAN} bean if present, otherwise a dedicated scheduler with {@value #SCHEDULER_POOL_SIZE_PROPERTY}
+     * threads (virtual threads if {@value #VIRTUAL_THREADS_PROPERTY} is set). A single scheduler is shared by all refreshers,
+     * it does not partition its threads per refresher. Returns {@code null} if {@value #DEDICATED_SCHEDULER_PROPERTY}
+     * is disabled, the refreshes are then scheduled like any other {@link Scheduled} task.
+     */
+    @Nullable
+    private synchronized TaskScheduler resolveRefreshScheduler() {
+        if (refreshScheduler != null) {
+            return refreshScheduler;
+        }
+        if (beanFactory != null && beanFactory.containsBean(REFRESH_SCHEDULER_BEAN)) {
+            refreshScheduler = beanFactory.getBean(REFRESH_SCHEDULER_BEAN, TaskScheduler.class);
+            return refreshScheduler;
+        }
+        if (environment != null && !environment.getProperty(DEDICATED_SCHEDULER_PROPERTY, Boolean.class, true)) {
+            return null;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        int poolSize = environment != null ? environment.getProperty(SCHEDULER_POOL_SIZE_PROPERTY, Integer.class, -1) : -1;
+        scheduler.setPoolSize(poolSize > 0 ? poolSize : Math.max(1, cacheRefreshers.size()));
+        scheduler.setThreadNamePrefix(REFRESH_SCHEDULER_THREAD_NAME_PREFIX);
+        ThreadFactory virtualThreadFactory = isVirtualThreads() ? createVirtualThreadFactory(REFRESH_SCHEDULER_THREAD_NAME_PREFIX) : null;
+        if (virtualThreadFactory != null) {
+            scheduler.setThreadFactory(virtualThreadFactory);
+        }
+        scheduler.initialize();
+        ownRefreshScheduler = scheduler;
+        refreshScheduler = scheduler;
+        return refreshScheduler;
+    }
+
+    /**
+     * Registers all {@link CacheRefreshListener} beans with the given refreshers. Resolved only once the context is refreshed,
+     * since the listeners might depend on beans that are not available yet while post-processing.
+     */
+    private void registerListeners(List<CacheRefresher<C>> refreshers) {
+        if (refreshers.isEmpty() || beanFactory == null) {
+            return;
+        }
+        List<CacheRefreshListener> listeners = beanFactory.getBeanProvider(CacheRefreshListener.class).orderedStream().toList();
+        if (listeners.isEmpty()) {
+            return;
+        }
+        CacheRefreshListener listener = CacheRefreshListener.composite(listeners);
+        refreshers.forEach(refresher -> refresher.setListener(listener));
+    }
+
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) {
         return bean;
@@ -70,12 +351,7 @@ public abstract class CacheableAutoRefreshedProcessor<C> extends ScheduledAnnota
         Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
         if (!this.nonAnnotatedClasses.contains(targetClass) &&
                 AnnotationUtils.isCandidateClass(targetClass, CacheableAutoRefreshed.class)) {
-            Map<Method, Set<CacheableAutoRefreshed>> annotatedMethods = MethodIntrospector.selectMethods(targetClass,
-                    (MethodIntrospector.MetadataLookup<Set<CacheableAutoRefreshed>>) method -> {
-                        CacheableAutoRefreshed cacheableAutoRefreshedAnnotation = AnnotatedElementUtils.getMergedAnnotation(
-                                method, CacheableAutoRefreshed.class);
-                        return cacheableAutoRefreshedAnnotation == null ? null : Set.of(cacheableAutoRefreshedAnnotation);
-                    });
+            Map<Method, Set<CacheableAutoRefreshed>> annotatedMethods = selectAnnotatedMethods(targetClass, beanName);
             if (annotatedMethods.isEmpty()) {
                 this.nonAnnotatedClasses.add(targetClass);
                 if (logger.isTraceEnabled()) {
@@ -84,9 +360,30 @@ public abstract class CacheableAutoRefreshedProcessor<C> extends ScheduledAnnota
             } else {
                 annotatedMethods.forEach((method, cacheableRefreshAnnotations) -> cacheableRefreshAnnotations.forEach(cacheableAutoRefreshed -> {
                             // Schedule cache refresher just like with the default @Scheduled annotation
-                            CacheRefresher<C> cacheRefresher = createCacheRefresher(cacheManager, cacheableAutoRefreshed.value(), bean, method);
+                            CacheRefreshSettings settings = resolveSettings(cacheableAutoRefreshed, bean, targetClass, method);
+                            CacheRefresher<C> cacheRefresher = createCacheRefresher(cacheManager, cacheableAutoRefreshed.value(), bean, method, settings);
+                            if (cacheManager.getCache(cacheableAutoRefreshed.value()[0]) instanceof AbstractValueAdaptingCache cache) {
+                                cacheRefresher.setAllowNullValues(cache.isAllowNullValues());
+                            }
+                            synchronized (unregisteredRefreshers) {
+                                unregisteredRefreshers.add(cacheRefresher);
+                            }
+                            cacheRefreshers.add(cacheRefresher);
+                            if (cacheRefresher.getAccessTracker() != null) {
+                                getParametersKeyGenerator().registerAccessTracker(method, cacheRefresher.getAccessTracker());
+                            }
+                            if (settings.isEarlyRefresh()) {
+                                getBean(EarlyRefreshInterceptor.EARLY_REFRESH_INTERCEPTOR_BEAN, EarlyRefreshInterceptor.class).registerEarlyRefresher(method, cacheRefresher);
+                                if (!isScheduled(cacheableAutoRefreshed)) {
+                                    // Only refreshed on read
+                                    return;
+                                }
+                            }
                             try {
-                                processScheduled(toScheduled(cacheableAutoRefreshed), cacheRefresher.getClass().getMethod(CACHE_REFRESH_METHOD), cacheRefresher);
+                                Scheduled scheduled = toScheduled(cacheableAutoRefreshed, method, settings);
+                                // Fixed-rate ticks only trigger the refresh, so that ticks overlapping a running refresh are skipped
+                                String refreshMethod = isFixedRate(scheduled) ? TRIGGER_CACHE_REFRESH_METHOD : CACHE_REFRESH_METHOD;
+                                processScheduled(scheduled, CacheRefresher.class.getMethod(refreshMethod), cacheRefresher);
                             } catch (NoSuchMethodException e) {
                                 throw new RuntimeException(e);
                             }
@@ -102,7 +399,461 @@ public abstract class CacheableAutoRefreshedProcessor<C> extends ScheduledAnnota
         return bean;
     }
 
-    protected abstract CacheRefresher<C> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method);
+    /**
+     * Selects the annotated methods of the bean class. Only the methods detected ahead-of-time are inspected if the bean definition
+     * was generated by the {@link CacheableAutoRefreshedBeanRegistrationAotProcessor}, otherwise all methods of the class.
+     */
+    private Map<Method, Set<CacheableAutoRefreshed>> selectAnnotatedMethods(Class<?> targetClass, String beanName) {
+        MethodIntrospector.MetadataLookup<Set<CacheableAutoRefreshed>> lookup = method -> {
+            CacheableAutoRefreshed cacheableAutoRefreshedAnnotation = findCacheableAutoRefreshed(method);
+            return cacheableAutoRefreshedAnnotation == null ? null : Set.of(cacheableAutoRefreshedAnnotation);
+        };
+        Set<Method> precomputedMethods = resolvePrecomputedMethods(targetClass, beanName);
+        if (precomputedMethods == null) {
+            return MethodIntrospector.selectMethods(targetClass, lookup);
+        }
+        Map<Method, Set<CacheableAutoRefreshed>> annotatedMethods = new LinkedHashMap<>();
+        for (Method method : precomputedMethods) {
+            Set<CacheableAutoRefreshed> cacheableRefreshAnnotations = lookup.inspect(method);
+            if (cacheableRefreshAnnotations != null) {
+                annotatedMethods.put(method, cacheableRefreshAnnotations);
+            }
+        }
+        return annotatedMethods;
+    }
+
+    /**
+     * @return the methods stored by the {@link CacheableAutoRefreshedBeanRegistrationAotProcessor} in the bean definition,
+     * {@code null} if there are none for the given class
+     */
+    @Nullable
+    private Set<Method> resolvePrecomputedMethods(Class<?> targetClass, String beanName) {
+        if (beanFactory instanceof ConfigurableListableBeanFactory listableBeanFactory && listableBeanFactory.containsBeanDefinition(beanName)
+                && listableBeanFactory.getMergedBeanDefinition(beanName).getAttribute(CacheableAutoRefreshedMethods.ATTRIBUTE)
+                instanceof CacheableAutoRefreshedMethods methods) {
+            return methods.resolve(targetClass);
+        }
+        return null;
+    }
+
+    @Nullable
+    static CacheableAutoRefreshed findCacheableAutoRefreshed(Method method) {
+        return AnnotatedElementUtils.getMergedAnnotation(method, CacheableAutoRefreshed.class);
+    }
+
+    /**
+     * @return refreshers of all processed {@link CacheableAutoRefreshed} methods
+     */
+    public List<CacheRefresher<C>> getCacheRefreshers() {
+        return Collections.unmodifiableList(cacheRefreshers);
+    }
+
+    /**
+     * @return task scheduling the refreshes of the given refresher, {@code null} if the refreshes are not scheduled (yet),
+     * i.e. before the context is refreshed
+     */
+    @Nullable
+    public Task getScheduledTask(CacheRefresher<?> cacheRefresher) {
+        for (ScheduledTask scheduledTask : getScheduledTasks()) {
+            if (scheduledTask.getTask().getRunnable() instanceof ScheduledMethodRunnable runnable && runnable.getTarget() == cacheRefresher) {
+                return scheduledTask.getTask();
+            }
+        }
+        return null;
+    }
+
+    protected abstract CacheRefresher<C> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method, CacheRefreshSettings settings);
+
+    /**
+     * Resolves the refresh specific attributes of the annotation, falling back to the configured properties.
+     */
+    protected CacheRefreshSettings resolveSettings(CacheableAutoRefreshed cacheableAutoRefreshed, Object bean, Class<?> targetClass, Method method) {
+        CacheRefreshSettings.Builder builder = CacheRefreshSettings.builder();
+        int parallelism = cacheableAutoRefreshed.parallelism();
+        String parallelismString = cacheableAutoRefreshed.parallelismString();
+        if (StringUtils.hasText(parallelismString)) {
+            if (parallelism >= 0) {
+                throw new IllegalArgumentException("Specify 'parallelism' or 'parallelismString', but not both on method '%s'".formatted(method));
+            }
+            parallelism = parseInt(resolve(parallelismString), "parallelismString", method);
+        }
+        boolean async = AsyncResultAdapter.forReturnType(method.getReturnType()) != null;
+        if (parallelism < 0 && async) {
+            parallelism = environment != null ? environment.getProperty(ASYNC_PARALLELISM_PROPERTY, Integer.class, DEFAULT_ASYNC_PARALLELISM) : DEFAULT_ASYNC_PARALLELISM;
+        }
+        if (parallelism < 0) {
+            parallelism = environment != null ? environment.getProperty(PARALLELISM_PROPERTY, Integer.class, 1) : 1;
+        }
+        boolean batched = StringUtils.hasText(cacheableAutoRefreshed.batchMethod());
+        if (parallelism > 1 && (!async || batched)) {
+            // Asynchronous methods are refreshed without blocking a thread, only their in-flight invocations are limited
+            builder.setExecutor(resolveExecutor(cacheableAutoRefreshed.executor()));
+        }
+        if (batched) {
+            builder.setBatchMethod(resolveBatchMethod(targetClass, cacheableAutoRefreshed.batchMethod(), method));
+            int batchSize = cacheableAutoRefreshed.batchSize();
+            if (batchSize < 0) {
+                batchSize = environment != null ? environment.getProperty(BATCH_SIZE_PROPERTY, Integer.class, 100) : 100;
+            }
+            builder.setBatchSize(batchSize);
+        }
+        if (cacheableAutoRefreshed.spreadSlots() > 0) {
+            builder.setSpreadSlots(cacheableAutoRefreshed.spreadSlots());
+        }
+        builder.setSpreadJitter(cacheableAutoRefreshed.spreadJitter());
+        builder.setMaxKeysPerTick(cacheableAutoRefreshed.maxKeysPerTick());
+        builder.setMaxTimePerTick(resolveDuration(cacheableAutoRefreshed.maxTimePerTick(),
+                cacheableAutoRefreshed.maxTimePerTickString(), cacheableAutoRefreshed.timeUnit(), "maxTimePerTick", method));
+        builder.setMaximumSize(cacheableAutoRefreshed.maximumSize());
+        builder.setMaximumWeight(cacheableAutoRefreshed.maximumWeight());
+        if (StringUtils.hasText(cacheableAutoRefreshed.weigher())) {
+            builder.setWeigher(resolve(cacheableAutoRefreshed.weigher()));
+        }
+        builder.setAdaptiveConcurrency(cacheableAutoRefreshed.adaptiveConcurrency()
+                || (environment != null && environment.getProperty(ADAPTIVE_CONCURRENCY_PROPERTY, Boolean.class, false)));
+        Duration failureBackoff = resolveDuration(cacheableAutoRefreshed.failureBackoff(), cacheableAutoRefreshed.failureBackoffString(),
+                cacheableAutoRefreshed.timeUnit(), "failureBackoff", method);
+        if (failureBackoff == null && environment != null) {
+            failureBackoff = environment.getProperty(FAILURE_BACKOFF_PROPERTY, Duration.class);
+        }
+        if (failureBackoff != null && !failureBackoff.isZero()) {
+            builder.setFailureBackoff(failureBackoff);
+            if (environment != null && environment.containsProperty(MAX_FAILURE_BACKOFF_PROPERTY)) {
+                builder.setMaxFailureBackoff(environment.getProperty(MAX_FAILURE_BACKOFF_PROPERTY, Duration.class));
+            }
+        }
+        Duration refreshTimeout = resolveDuration(cacheableAutoRefreshed.refreshTimeout(), cacheableAutoRefreshed.refreshTimeoutString(),
+                cacheableAutoRefreshed.timeUnit(), "refreshTimeout", method);
+        if (refreshTimeout == null && environment != null) {
+            refreshTimeout = environment.getProperty(REFRESH_TIMEOUT_PROPERTY, Duration.class);
+        }
+        if (refreshTimeout != null && !refreshTimeout.isZero()) {
+            // The shared executor is unbounded, so abandoned invocations never block further refreshes
+            builder.setRefreshTimeout(refreshTimeout, resolveExecutor(""));
+        }
+        Duration refreshDeadline = resolveDuration(cacheableAutoRefreshed.refreshDeadline(), cacheableAutoRefreshed.refreshDeadlineString(),
+                cacheableAutoRefreshed.timeUnit(), "refreshDeadline", method);
+        if (refreshDeadline == null && environment != null) {
+            refreshDeadline = environment.getProperty(REFRESH_DEADLINE_PROPERTY, Duration.class);
+        }
+        if (refreshDeadline != null && !refreshDeadline.isZero()) {
+            builder.setRefreshDeadline(refreshDeadline);
+        }
+        if (StringUtils.hasText(cacheableAutoRefreshed.fingerprint())) {
+            builder.setSkipUnchanged(true)
+                    .setFingerprint(resolveFingerprint(bean, targetClass, resolve(cacheableAutoRefreshed.fingerprint()), method));
+        } else {
+            builder.setSkipUnchanged(cacheableAutoRefreshed.skipUnchanged()
+                    || (environment != null && environment.getProperty(SKIP_UNCHANGED_PROPERTY, Boolean.class, false)));
+        }
+        if (cacheableAutoRefreshed.clusterCoordinated()
+                || (environment != null && environment.getProperty(CLUSTER_ENABLED_PROPERTY, Boolean.class, false))) {
+            resolveClusterCoordination(builder, cacheableAutoRefreshed, method);
+        }
+        Duration earlyRefreshAfter = resolveDuration(cacheableAutoRefreshed.earlyRefreshAfter(), cacheableAutoRefreshed.earlyRefreshAfterString(),
+                cacheableAutoRefreshed.timeUnit(), "earlyRefreshAfter", method);
+        if (earlyRefreshAfter != null) {
+            double earlyRefreshBeta = cacheableAutoRefreshed.earlyRefreshBeta();
+            if (earlyRefreshBeta < 0) {
+                earlyRefreshBeta = environment != null ? environment.getProperty(EARLY_REFRESH_BETA_PROPERTY, Double.class, 1.0) : 1.0;
+            }
+            builder.setEarlyRefresh(earlyRefreshAfter, earlyRefreshBeta);
+        }
+        if (StringUtils.hasText(cacheableAutoRefreshed.warmUpKeys())) {
+            builder.setWarmUpKeyProvider(resolveWarmUpKeyProvider(bean, targetClass, resolve(cacheableAutoRefreshed.warmUpKeys()), method));
+        }
+        return builder.setParallelism(parallelism)
+                .setRefreshOnlyIfAccessedWithin(resolveDuration(cacheableAutoRefreshed.refreshOnlyIfAccessedWithin(),
+                        cacheableAutoRefreshed.refreshOnlyIfAccessedWithinString(), cacheableAutoRefreshed.timeUnit(), "refreshOnlyIfAccessedWithin", method))
+                .setEvictIfIdleFor(resolveDuration(cacheableAutoRefreshed.evictIfIdleFor(),
+                        cacheableAutoRefreshed.evictIfIdleForString(), cacheableAutoRefreshed.timeUnit(), "evictIfIdleFor", method))
+                .build();
+    }
+
+    /**
+     * Resolves the {@link RefreshLockProvider} bean coordinating the refreshes of the method and the lock durations.
+     * By default the refreshes stay locked for the interval between the ticks, so that other nodes skip the same tick.
+     */
+    private void resolveClusterCoordination(CacheRefreshSettings.Builder builder, CacheableAutoRefreshed cacheableAutoRefreshed, Method method) {
+        if (beanFactory == null) {
+            throw new IllegalStateException("BeanFactory must be set to resolve the RefreshLockProvider for method '%s'".formatted(method));
+        }
+        RefreshLockProvider lockProvider = beanFactory.getBeanProvider(RefreshLockProvider.class).getIfUnique();
+        if (lockProvider == null) {
+            throw new IllegalStateException("Cluster coordination of method '%s' requires a single RefreshLockProvider bean".formatted(method));
+        }
+        int clusterPartitions = cacheableAutoRefreshed.clusterPartitions();
+        if (clusterPartitions < 0) {
+            clusterPartitions = environment != null ? environment.getProperty(CLUSTER_PARTITIONS_PROPERTY, Integer.class, 1) : 1;
+        }
+        Duration lockAtLeastFor = environment != null ? environment.getProperty(CLUSTER_LOCK_AT_LEAST_FOR_PROPERTY, Duration.class) : null;
+        if (lockAtLeastFor == null) {
+            TimeUnit timeUnit = cacheableAutoRefreshed.timeUnit();
+            Duration interval = resolveDuration(cacheableAutoRefreshed.fixedDelay(), cacheableAutoRefreshed.fixedDelayString(), timeUnit, "fixedDelay", method);
+            if (interval == null) {
+                interval = resolveDuration(cacheableAutoRefreshed.fixedRate(), cacheableAutoRefreshed.fixedRateString(), timeUnit, "fixedRate", method);
+            }
+            int spreadSlots = Math.max(1, cacheableAutoRefreshed.spreadSlots());
+            lockAtLeastFor = interval != null ? interval.dividedBy(spreadSlots) : Duration.ZERO;
+        }
+        Duration lockAtMostFor = environment != null ? environment.getProperty(CLUSTER_LOCK_AT_MOST_FOR_PROPERTY, Duration.class, DEFAULT_LOCK_AT_MOST_FOR) : DEFAULT_LOCK_AT_MOST_FOR;
+        if (lockAtMostFor.compareTo(lockAtLeastFor) < 0) {
+            lockAtMostFor = lockAtLeastFor;
+        }
+        builder.setClusterCoordination(lockProvider, clusterPartitions, lockAtLeastFor, lockAtMostFor)
+                .setEntryPublisher(beanFactory.getBeanProvider(RefreshedEntryPublisher.class).getIfUnique());
+    }
+
+    private static Method resolveBatchMethod(Class<?> targetClass, String batchMethodName, Method method) {
+        Set<Method> batchMethods = MethodIntrospector.selectMethods(targetClass, (ReflectionUtils.MethodFilter) candidate ->
+                candidate.getName().equals(batchMethodName) && candidate.getParameterCount() == 1
+                        && candidate.getParameterTypes()[0].isAssignableFrom(List.class) && Map.class.isAssignableFrom(candidate.getReturnType()));
+        if (batchMethods.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one batch method '%s' with a single 'List' parameter and 'Map' return type in '%s' for method '%s', but found %d"
+                    .formatted(batchMethodName, targetClass.getName(), method, batchMethods.size()));
+        }
+        Method batchMethod = batchMethods.iterator().next();
+        ReflectionUtils.makeAccessible(batchMethod);
+        return batchMethod;
+    }
+
+    /**
+     * Resolves the {@link CacheableAutoRefreshed#warmUpKeys()} either to a method of the bean or to a {@link Supplier} bean.
+     * The bean is only looked up when the keys are requested, i.e. on startup.
+     */
+    private Supplier<? extends Iterable<?>> resolveWarmUpKeyProvider(Object bean, Class<?> targetClass, String warmUpKeys, Method method) {
+        Set<Method> warmUpMethods = MethodIntrospector.selectMethods(targetClass, (ReflectionUtils.MethodFilter) candidate ->
+                candidate.getName().equals(warmUpKeys) && candidate.getParameterCount() == 0 && Iterable.class.isAssignableFrom(candidate.getReturnType()));
+        if (warmUpMethods.size() > 1) {
+            throw new IllegalArgumentException("Expected at most one warm-up method '%s' without parameters and 'Iterable' return type in '%s' for method '%s', but found %d"
+                    .formatted(warmUpKeys, targetClass.getName(), method, warmUpMethods.size()));
+        }
+        if (warmUpMethods.size() == 1) {
+            CachedMethodInvoker invoker = CachedMethodInvoker.of(bean, warmUpMethods.iterator().next());
+            return () -> {
+                try {
+                    Iterable<?> keys = (Iterable<?>) invoker.invoke();
+                    return keys != null ? keys : List.of();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Warm-up method '%s' of '%s' threw an exception".formatted(warmUpKeys, targetClass.getName()), e);
+                }
+            };
+        }
+        if (beanFactory == null || !beanFactory.containsBean(warmUpKeys)) {
+            throw new IllegalArgumentException("Found neither a warm-up method '%s' in '%s' nor a bean named '%s' for method '%s'"
+                    .formatted(warmUpKeys, targetClass.getName(), warmUpKeys, method));
+        }
+        return () -> {
+            Object keys = getBean(warmUpKeys, Supplier.class).get();
+            if (keys != null && !(keys instanceof Iterable)) {
+                throw new IllegalStateException("Warm-up bean '%s' did not supply an 'Iterable' of keys".formatted(warmUpKeys));
+            }
+            return keys != null ? (Iterable<?>) keys : List.of();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<Object, ?> resolveFingerprint(Object bean, Class<?> targetClass, String fingerprint, Method method) {
+        Set<Method> fingerprintMethods = MethodIntrospector.selectMethods(targetClass, (ReflectionUtils.MethodFilter) candidate ->
+                candidate.getName().equals(fingerprint) && candidate.getParameterCount() == 1 && candidate.getReturnType() != void.class);
+        if (fingerprintMethods.size() > 1) {
+            throw new IllegalArgumentException("Expected at most one fingerprint method '%s' with a single parameter in '%s' for method '%s', but found %d"
+                    .formatted(fingerprint, targetClass.getName(), method, fingerprintMethods.size()));
+        }
+        if (fingerprintMethods.size() == 1) {
+            CachedMethodInvoker invoker = CachedMethodInvoker.of(bean, fingerprintMethods.iterator().next());
+            return value -> {
+                try {
+                    return invoker.invoke(new Object[]{value});
+                } catch (Exception e) {
+                    throw new IllegalStateException("Fingerprint method '%s' of '%s' threw an exception".formatted(fingerprint, targetClass.getName()), e);
+                }
+            };
+        }
+        if (beanFactory == null || !beanFactory.containsBean(fingerprint)) {
+            throw new IllegalArgumentException("Found neither a fingerprint method '%s' in '%s' nor a bean named '%s' for method '%s'"
+                    .formatted(fingerprint, targetClass.getName(), fingerprint, method));
+        }
+        return value -> ((Function<Object, ?>) getBean(fingerprint, Function.class)).apply(value);
+    }
+
+    private ParametersKeyGenerator getParametersKeyGenerator() {
+        return getBean(ParametersKeyGenerator.PARAMETERS_KEY_GENERATOR_BEAN, ParametersKeyGenerator.class);
+    }
+
+    protected <T> T getBean(String beanName, Class<T> type) {
+        if (beanFactory == null) {
+            throw new IllegalStateException("BeanFactory must be set to resolve bean '%s'".formatted(beanName));
+        }
+        return beanFactory.getBean(beanName, type);
+    }
+
+    /**
+     * Resolves an optional duration annotation attribute, given either as a number in {@code timeUnit} or as a String
+     * (supporting placeholders and {@link Duration#parse} values). Negative values are treated as not set.
+     */
+    @Nullable
+    protected Duration resolveDuration(long value, String stringValue, TimeUnit timeUnit, String attribute, Method method) {
+        if (StringUtils.hasText(stringValue)) {
+            if (value >= 0) {
+                throw new IllegalArgumentException("Specify '%s' or '%sString', but not both on method '%s'".formatted(attribute, attribute, method));
+            }
+            String resolved = resolve(stringValue);
+            try {
+                if (resolved.startsWith("P") || resolved.startsWith("-P")) {
+                    Duration duration = Duration.parse(resolved);
+                    return duration.isNegative() ? null : duration;
+                }
+                value = Long.parseLong(resolved);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid %sString value \"%s\" - cannot parse into duration on method '%s'".formatted(attribute, resolved, method));
+            }
+        }
+        return value < 0 ? null : Duration.of(value, timeUnit.toChronoUnit());
+    }
+
+    private Executor resolveExecutor(String executorBeanName) {
+        if (StringUtils.hasText(executorBeanName)) {
+            return getBean(resolve(executorBeanName), Executor.class);
+        }
+        synchronized (this) {
+            if (sharedRefreshExecutor == null) {
+                sharedRefreshExecutor = createSharedRefreshExecutor();
+            }
+            return sharedRefreshExecutor;
+        }
+    }
+
+    private static boolean isFixedRate(Scheduled scheduled) {
+        return scheduled.fixedRate() >= 0 || StringUtils.hasText(scheduled.fixedRateString());
+    }
+
+    private boolean isVirtualThreads() {
+        return environment != null && environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+    }
+
+    /**
+     * @return factory of virtual threads, {@code null} if not supported by the JVM
+     */
+    @Nullable
+    private ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+        try {
+            // Looked up reflectively since virtual threads are only available on Java 21+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not supported by the current JVM, falling back to platform threads for the cache refresh scheduler.");
+            return null;
+        }
+    }
+
+    private ExecutorService createSharedRefreshExecutor() {
+        if (isVirtualThreads()) {
+            try {
+                // Looked up reflectively since virtual threads are only available on Java 21+
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not supported by the current JVM, falling back to platform threads for cache refreshes.");
+            }
+        }
+        return Executors.newCachedThreadPool(new CustomizableThreadFactory(REFRESH_THREAD_NAME_PREFIX));
+    }
+
+    protected String resolve(String value) {
+        return embeddedValueResolver != null ? embeddedValueResolver.resolveStringValue(value) : value;
+    }
+
+    private static int parseInt(String value, String attribute, Method method) {
+        try {
+            return Integer.parseInt(value);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid %s value \"%s\" - cannot parse into integer on method '%s'".formatted(attribute, value, method));
+        }
+    }
+
+    /**
+     * @return {@code true} if any of the scheduling attributes of the annotation is set
+     */
+    private static boolean isScheduled(CacheableAutoRefreshed cacheableAutoRefreshed) {
+        return StringUtils.hasText(cacheableAutoRefreshed.cron()) || cacheableAutoRefreshed.fixedDelay() >= 0
+                || StringUtils.hasText(cacheableAutoRefreshed.fixedDelayString()) || cacheableAutoRefreshed.fixedRate() >= 0
+                || StringUtils.hasText(cacheableAutoRefreshed.fixedRateString());
+    }
+
+    /**
+     * Converts the annotation to a {@link Scheduled} annotation. If the refreshes are spread over multiple slots
+     * (see {@link CacheRefreshSettings#getSpreadSlots()}) the interval is divided by the number of slots.
+     */
+    private Scheduled toScheduled(CacheableAutoRefreshed cacheableAutoRefreshed, Method method, CacheRefreshSettings settings) {
+        Scheduled scheduled = toScheduled(cacheableAutoRefreshed);
+        int spreadSlots = settings.getSpreadSlots();
+        if (spreadSlots <= 1) {
+            return scheduled;
+        }
+        if (StringUtils.hasText(scheduled.cron())) {
+            throw new IllegalArgumentException("'spreadSlots' is not supported in combination with 'cron' on method '%s'".formatted(method));
+        }
+        TimeUnit timeUnit = scheduled.timeUnit();
+        Duration fixedDelay = resolveDuration(scheduled.fixedDelay(), scheduled.fixedDelayString(), timeUnit, "fixedDelay", method);
+        Duration fixedRate = resolveDuration(scheduled.fixedRate(), scheduled.fixedRateString(), timeUnit, "fixedRate", method);
+        Duration initialDelay = resolveDuration(scheduled.initialDelay(), scheduled.initialDelayString(), timeUnit, "initialDelay", method);
+        long slotFixedDelay = fixedDelay != null ? Math.max(1, fixedDelay.toMillis() / spreadSlots) : -1;
+        long slotFixedRate = fixedRate != null ? Math.max(1, fixedRate.toMillis() / spreadSlots) : -1;
+        long initialDelayMillis = initialDelay != null ? initialDelay.toMillis() : -1;
+        return new Scheduled() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return scheduled.annotationType();
+            }
+
+            @Override
+            public String cron() {
+                return "";
+            }
+
+            @Override
+            public String zone() {
+                return scheduled.zone();
+            }
+
+            @Override
+            public long fixedDelay() {
+                return slotFixedDelay;
+            }
+
+            @Override
+            public String fixedDelayString() {
+                return "";
+            }
+
+            @Override
+            public long fixedRate() {
+                return slotFixedRate;
+            }
+
+            @Override
+            public String fixedRateString() {
+                return "";
+            }
+
+            @Override
+            public long initialDelay() {
+                return initialDelayMillis;
+            }
+
+            @Override
+            public String initialDelayString() {
+                return "";
+            }
+
+            @Override
+            public TimeUnit timeUnit() {
+                return TimeUnit.MILLISECONDS;
+            }
+        };
+    }
 
     private static Scheduled toScheduled(CacheableAutoRefreshed cacheableAutoRefreshed) {
         return new Scheduled() {
@@ -4,7 +4,11 @@ import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.github.philkes.spring.cache.interceptor.BatchLoader;
+import io.github.philkes.spring.cache.interceptor.CacheRefreshSettings;
 import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.CachedMethodInvoker;
 import io.github.philkes.spring.cache.interceptor.ParametersKey;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.springframework.cache.Cache;
@@ -13,9 +17,14 @@ import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * {@link CacheableAutoRefreshedProcessor} when a {@link CaffeineCacheManager} is used for caching
@@ -24,48 +33,200 @@ import java.util.stream.Collectors;
  */
 public class CaffeineCacheableAutoRefreshedProcessor extends CacheableAutoRefreshedProcessor<LoadingCache<Object, Object>> {
 
+    private final List<RefreshedCaffeineCacheCustomizer> customizers;
+
     public CaffeineCacheableAutoRefreshedProcessor(CacheManager cacheManager) {
+        this(cacheManager, List.of());
+    }
+
+    public CaffeineCacheableAutoRefreshedProcessor(CacheManager cacheManager, List<RefreshedCaffeineCacheCustomizer> customizers) {
         super(cacheManager);
+        this.customizers = List.copyOf(customizers);
     }
 
-    private LoadingCache<Object, Object> fromCache(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, CacheLoader<Object, Object> cacheLoader) {
+    /**
+     * Builds the {@link LoadingCache} replacing the given cache.
+     * <p>The new cache is built from the policy of the given cache, so that its size bound, expiry and statistics are kept,
+     * also for caches registered via {@link CaffeineCacheManager#registerCustomCache(String, com.github.benmanes.caffeine.cache.Cache)}.
+     * The size bound can be overridden, see {@link CacheRefreshSettings#isMaximumOverridden()}. Finally the
+     * {@link RefreshedCaffeineCacheCustomizer}s are applied.
+     * <p>The maximum weight of a weighted cache is kept as well, but its weigher is not exposed by the policy, so it has to be set
+     * by a customizer if the size bound is not overridden.
+     *
+     * @throws IllegalStateException if the given cache is weighted and no weigher is set
+     */
+    private LoadingCache<Object, Object> fromCache(String cacheName, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                                   CacheLoader<Object, Object> cacheLoader, CacheRefreshSettings settings) {
         Policy<Object, Object> policy = cache.policy();
+        boolean weigherRequired = !settings.isMaximumOverridden() && policy.eviction().map(Policy.Eviction::isWeighted).orElse(false);
+        Caffeine<Object, Object> builder = fromPolicy(policy, !settings.isMaximumOverridden());
+        if (settings.getMaximumSize() >= 0) {
+            builder.maximumSize(settings.getMaximumSize());
+        } else if (settings.getMaximumWeight() >= 0) {
+            @SuppressWarnings("unchecked")
+            Weigher<Object, Object> weigher = getBean(settings.getWeigher(), Weigher.class);
+            builder.maximumWeight(settings.getMaximumWeight()).weigher(weigher);
+        }
+        customizers.forEach(customizer -> customizer.customize(cacheName, builder));
+        try {
+            return builder.build(cacheLoader);
+        } catch (IllegalStateException e) {
+            if (weigherRequired) {
+                throw new IllegalStateException(("The weigher of the weighted Caffeine cache '%s' can not be copied. Set it with a RefreshedCaffeineCacheCustomizer "
+                        + "or specify 'maximumWeight' and 'weigher' in @CacheableAutoRefreshed.").formatted(cacheName), e);
+            }
+            throw e;
+        }
+    }
+
+    private Caffeine<Object, Object> fromPolicy(Policy<Object, Object> policy, boolean copyMaximum) {
         Caffeine<Object, Object> builder = Caffeine.newBuilder();
         policy.refreshAfterWrite().ifPresent(refreshAfterWrite -> builder.refreshAfterWrite(refreshAfterWrite.getRefreshesAfter()));
         policy.expireAfterAccess().ifPresent(expireAfterAcces -> builder.expireAfterAccess(expireAfterAcces.getExpiresAfter()));
         policy.expireAfterWrite().ifPresent(expireAfterWrite -> builder.expireAfterWrite(expireAfterWrite.getExpiresAfter()));
+        if (copyMaximum) {
+            policy.eviction().ifPresent(eviction -> {
+                if (eviction.isWeighted()) {
+                    builder.maximumWeight(eviction.getMaximum());
+                } else {
+                    builder.maximumSize(eviction.getMaximum());
+                }
+            });
+        }
         if (policy.isRecordingStats()) {
             builder.recordStats();
         }
-        return builder.build(cacheLoader);
+        return builder;
     }
 
-
     /**
      * Build {@link CacheRefresher} for Caffeine cache.
-     * The internal caffeine caches are customised for manual asynchronous refreshes via {@link LoadingCache#refreshAll(Iterable)}
+     * The internal caffeine caches are customised for manual asynchronous refreshes via {@link LoadingCache#refreshAll(Iterable)},
+     * the refresh waits until all entries were reloaded.
+     * If a {@link CacheRefreshSettings#getBatchMethod()} is set, the entries are instead reloaded in batches via the {@link BatchLoader}.
+     * Entries of asynchronous methods are reloaded without blocking, see {@link CacheRefresher#isAsync()}.
+     * Multiple caches of the same method are refreshed together, see {@link CacheRefresher#refreshCachesMerged(Map)}.
      */
     @Override
-    protected CacheRefresher<LoadingCache<Object, @Nullable Object>> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method) {
-        Map<String, LoadingCache<Object, @Nullable Object>> caches = Arrays.stream(cacheNames).collect(Collectors.toMap(cacheName -> cacheName, cacheName -> {
+    protected CacheRefresher<LoadingCache<Object, @Nullable Object>> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method, CacheRefreshSettings settings) {
+        // Populated after creating the refresher, since the cache loaders reload the entries through the refresher
+        Map<String, LoadingCache<Object, @Nullable Object>> caches = new LinkedHashMap<>();
+        CacheRefresher<LoadingCache<Object, @Nullable Object>> cacheRefresher = new CacheRefresher<>(caches, bean, method, settings) {
+            @Override
+            protected Iterable<ParametersKey> selectKeysToRefresh(LoadingCache<Object, Object> cache, String cacheName) {
+                Map<Object, Object> cacheMap = cache.asMap();
+                return selectKeysToRefresh(cacheMap.keySet(), cache::invalidate, cacheMap::containsKey, cacheName);
+            }
+
+            @Override
+            protected void put(LoadingCache<Object, Object> cache, ParametersKey key, Object value) {
+                cache.put(key, value);
+            }
+
+            @Override
+            protected Map<Object, Object> asMap(LoadingCache<Object, Object> cache) {
+                return cache.asMap();
+            }
+
+            @Override
+            public void refreshCache(LoadingCache<Object, Object> cache, String cacheName) {
+                Iterable<ParametersKey> keys = selectKeysToRefresh(cache, cacheName);
+                if (getBatchLoader() != null) {
+                    refreshBatches(keys, batch -> {
+                        try {
+                            refreshBatch(batch, cacheName).forEach((key, value) -> store(cache, cacheName, key, value));
+                        } catch (Exception e) {
+                            logRefreshFailure(batch, List.of(cacheName), e);
+                        }
+                    });
+                    return;
+                }
+                if (isAsync()) {
+                    // Limits the invocations in flight, Caffeine would start all reloads at once
+                    refreshEntriesAsync(keys, key -> cacheName, (key, value) -> store(cache, cacheName, key, value));
+                    return;
+                }
+                if (getSettings().isBudgeted()) {
+                    // Refresh chunk by chunk, so the budget of the tick covers the actual refresh
+                    refreshBatches(keys, chunk -> awaitRefresh(cache.refreshAll(chunk)));
+                    return;
+                }
+                awaitRefresh(cache.refreshAll(keys));
+            }
+        };
+        for (String cacheName : cacheNames) {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache instanceof CaffeineCache caffeineCache) {
-                LoadingCache<Object, Object> customCache = fromCache(caffeineCache.getNativeCache(), key -> method.invoke(bean, ((ParametersKey) key).getParams()));
+                LoadingCache<Object, Object> customCache = fromCache(cacheName, caffeineCache.getNativeCache(),
+                        createCacheLoader(cacheRefresher, cacheName), settings);
                 ((CaffeineCacheManager) cacheManager).registerCustomCache(cacheName, customCache);
-                return customCache;
+                caches.put(cacheName, customCache);
             } else {
                 throw new RuntimeException("Cache '%s' is not of type '%s'!".formatted(cacheName, CaffeineCache.class.getSimpleName()));
             }
-        }));
+        }
+        return cacheRefresher;
+    }
+
+    /**
+     * Build the {@link CacheLoader} invoking the cached method. Reloads of existing entries are delegated to
+     * {@link CacheRefresher#refreshEntry(ParametersKey, String)}, so that they are recorded as refreshes.
+     * Reloads of asynchronous methods do not block a thread of Caffeine's executor, see {@link CacheRefresher#refreshEntryAsync(ParametersKey, String)}.
+     * Multiple entries are loaded at once via {@link CacheLoader#loadAll(Set)} if a {@link CacheRefreshSettings#getBatchMethod()} is set.
+     */
+    private static CacheLoader<Object, Object> createCacheLoader(CacheRefresher<?> cacheRefresher, String cacheName) {
+        CachedMethodInvoker invoker = cacheRefresher.getInvoker();
+        BatchLoader batchLoader = cacheRefresher.getBatchLoader();
+        if (batchLoader == null) {
+            return new CacheLoader<>() {
+                @Override
+                public Object load(Object key) throws Exception {
+                    return cacheRefresher.toStoreValue(invoker.invoke(((ParametersKey) key).getParams()));
+                }
+
+                @Override
+                public Object reload(Object key, Object oldValue) throws Exception {
+                    ParametersKey parametersKey = (ParametersKey) key;
+                    return cacheRefresher.reloaded(cacheName, parametersKey, oldValue, cacheRefresher.refreshEntry(parametersKey, cacheName));
+                }
+
+                @Override
+                public CompletableFuture<?> asyncReload(Object key, Object oldValue, Executor executor) throws Exception {
+                    if (cacheRefresher.isAsync()) {
+                        ParametersKey parametersKey = (ParametersKey) key;
+                        return cacheRefresher.refreshEntryAsync(parametersKey, cacheName)
+                                .thenApply(value -> cacheRefresher.reloaded(cacheName, parametersKey, oldValue, value));
+                    }
+                    return CacheLoader.super.asyncReload(key, oldValue, executor);
+                }
+            };
+        }
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) throws Exception {
+                return cacheRefresher.toStoreValue(invoker.invoke(((ParametersKey) key).getParams()));
+            }
 
-        return new CacheRefresher<>(caches, bean, method) {
             @Override
-            public void refreshCache(LoadingCache<Object, Object> cache, String cacheName) {
-                cache.refreshAll(cache.asMap().keySet()).thenAccept(updatedCache -> {
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("Refreshed all (%d) entries in cache '%s'.".formatted(updatedCache.size(), cacheName));
+            public Object reload(Object key, Object oldValue) throws Exception {
+                ParametersKey parametersKey = (ParametersKey) key;
+                return cacheRefresher.reloaded(cacheName, parametersKey, oldValue, cacheRefresher.refreshEntry(parametersKey, cacheName));
+            }
+
+            @Override
+            public Map<Object, Object> loadAll(Set<?> keys) throws Exception {
+                List<ParametersKey> parametersKeys = new ArrayList<>(keys.size());
+                for (Object key : keys) {
+                    parametersKeys.add((ParametersKey) key);
+                }
+                Map<Object, Object> values = new HashMap<>(keys.size());
+                batchLoader.loadAll(parametersKeys).forEach((key, value) -> {
+                    Object storeValue = cacheRefresher.toStoreValue(value);
+                    if (storeValue != null) {
+                        values.put(key, storeValue);
                     }
                 });
+                return values;
             }
         };
     }
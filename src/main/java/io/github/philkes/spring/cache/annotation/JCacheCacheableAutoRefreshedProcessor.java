@@ -0,0 +1,228 @@
+package io.github.philkes.spring.cache.annotation;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefreshSettings;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+import javax.cache.Cache;
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CacheableAutoRefreshedProcessor} when a {@link JCacheCacheManager} is used for caching, e.g. with Ehcache 3
+ *
+ * @see CacheableAutoRefreshedProcessor
+ */
+public class JCacheCacheableAutoRefreshedProcessor extends CacheableAutoRefreshedProcessor<Cache<Object, Object>> {
+
+    public JCacheCacheableAutoRefreshedProcessor(CacheManager cacheManager) {
+        super(cacheManager);
+    }
+
+    /**
+     * Build {@link CacheRefresher} for JCache caches.
+     * The keys are streamed from {@link Cache#iterator()} instead of collecting all keys on heap (see
+     * {@link CacheRefresher#streamKeysToRefresh(Iterable, java.util.function.Consumer, java.util.function.Predicate, String)}),
+     * which matters for off-heap or disk tiers. The entries are refreshed in batches of {@link CacheRefreshSettings#getBatchSize()} keys,
+     * each batch reads the cached values via {@link Cache#getAll(Set)} and writes the changed values via {@link Cache#putAll(Map)}.
+     * Batches are refreshed concurrently if {@link CacheRefreshSettings#getParallelism()} is greater than {@code 1}.
+     * Multiple caches of the same method are refreshed together, see {@link CacheRefresher#refreshCachesMerged(Map)}.
+     */
+    @Override
+    protected CacheRefresher<Cache<Object, Object>> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method, CacheRefreshSettings settings) {
+        Map<String, Cache<Object, Object>> caches = new LinkedHashMap<>();
+        for (String cacheName : cacheNames) {
+            if (cacheManager.getCache(cacheName) instanceof JCacheCache jCacheCache) {
+                caches.put(cacheName, jCacheCache.getNativeCache());
+            } else {
+                throw new RuntimeException("Cache '%s' is not of type '%s'!".formatted(cacheName, JCacheCache.class.getSimpleName()));
+            }
+        }
+        return new CacheRefresher<>(caches, bean, method, settings) {
+            @Override
+            protected Iterable<ParametersKey> selectKeysToRefresh(Cache<Object, Object> cache, String cacheName) {
+                return streamKeysToRefresh(keysOf(cache), cache::remove, cache::containsKey, cacheName);
+            }
+
+            @Override
+            protected void put(Cache<Object, Object> cache, ParametersKey key, Object value) {
+                cache.put(key, value);
+            }
+
+            @Override
+            protected Map<Object, Object> asMap(Cache<Object, Object> cache) {
+                return new CacheMapView(cache);
+            }
+
+            @Override
+            public void putAll(String cacheName, Map<ParametersKey, Object> entries) {
+                Cache<Object, Object> cache = caches.get(cacheName);
+                if (cache != null) {
+                    cache.putAll(entries);
+                }
+            }
+
+            @Override
+            public void refreshCache(Cache<Object, Object> cache, String cacheName) {
+                refreshBatches(selectKeysToRefresh(cache, cacheName), batch -> refreshChunk(cache, cacheName, batch));
+            }
+
+            private void refreshChunk(Cache<Object, Object> cache, String cacheName, List<ParametersKey> batch) {
+                Map<Object, Object> cachedValues = cache.getAll(new LinkedHashSet<>(batch));
+                Map<ParametersKey, Object> values = loadBatch(cacheName, batch);
+                Map<ParametersKey, Object> changedValues = new HashMap<>(values.size());
+                Map<ParametersKey, Object> storeValues = new HashMap<>(values.size());
+                values.forEach((key, value) -> {
+                    if (!retainCachedValue(cacheName, fromStoreValue(cachedValues.get(key)), value)) {
+                        changedValues.put(key, value);
+                        // Cache#putAll does not accept null values
+                        storeValues.put(key, toStoreValue(value));
+                    }
+                });
+                if (changedValues.isEmpty()) {
+                    return;
+                }
+                cache.putAll(storeValues);
+                changedValues.forEach((key, value) -> entryWritten(cacheName, key, fromStoreValue(cachedValues.get(key)), value));
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Refreshed batch of %d cache-entries for cache '%s', %d changed.".formatted(batch.size(), cacheName, changedValues.size()));
+                }
+            }
+
+            /**
+             * @return refreshed values of the given keys, keys whose invocation failed are missing
+             */
+            private Map<ParametersKey, Object> loadBatch(String cacheName, List<ParametersKey> batch) {
+                if (getBatchLoader() != null) {
+                    try {
+                        return refreshBatch(batch, cacheName);
+                    } catch (Exception e) {
+                        logRefreshFailure(batch, List.of(cacheName), e);
+                        return Map.of();
+                    }
+                }
+                Map<ParametersKey, Object> values = new HashMap<>(batch.size());
+                if (isAsync()) {
+                    // Resolve the values of the whole batch concurrently
+                    Map<ParametersKey, CompletableFuture<Object>> futures = new LinkedHashMap<>(batch.size());
+                    batch.forEach(key -> futures.put(key, refreshEntryAsync(key, cacheName)));
+                    awaitRefresh(CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)));
+                    futures.forEach((key, future) -> {
+                        if (future.isDone() && !future.isCompletedExceptionally()) {
+                            values.put(key, future.join());
+                        }
+                    });
+                    return values;
+                }
+                for (ParametersKey key : batch) {
+                    try {
+                        values.put(key, refreshEntry(key, cacheName));
+                    } catch (Exception e) {
+                        logRefreshFailure(List.of(key), List.of(cacheName), e);
+                    }
+                }
+                return values;
+            }
+        };
+    }
+
+    /**
+     * @return keys of the given cache, iterated lazily via {@link Cache#iterator()}
+     */
+    private static Iterable<Object> keysOf(Cache<Object, Object> cache) {
+        return () -> {
+            Iterator<Cache.Entry<Object, Object>> entries = cache.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return entries.next().getKey();
+                }
+            };
+        };
+    }
+
+    /**
+     * Live {@link Map} view of a JCache {@link Cache}. Iterating the entries (or {@link #size()}) iterates the whole cache.
+     */
+    private static class CacheMapView extends AbstractMap<Object, Object> {
+
+        private final Cache<Object, Object> cache;
+
+        CacheMapView(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return cache.containsKey(key);
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            return cache.getAndPut(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return cache.getAndRemove(key);
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Object, Object>> iterator() {
+                    Iterator<Cache.Entry<Object, Object>> entries = cache.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Object, Object> next() {
+                            Cache.Entry<Object, Object> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+                        }
+
+                        @Override
+                        public void remove() {
+                            entries.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Iterator<?> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                        size++;
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.philkes.spring.cache.annotation;
 
+import io.github.philkes.spring.cache.interceptor.CacheRefreshSettings;
 import io.github.philkes.spring.cache.interceptor.CacheRefresher;
 import io.github.philkes.spring.cache.interceptor.ParametersKey;
 import org.springframework.cache.Cache;
@@ -7,6 +8,7 @@ import org.springframework.cache.CacheManager;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -22,10 +24,13 @@ public class MapCacheableAutoRefreshedProcessor extends CacheableAutoRefreshedPr
 
     /**
      * Build {@link CacheRefresher} for {@link Map} cache.
-     * The cache refresh is executed synchronously for each cache-entry.
+     * The cache refresh is executed synchronously for each cache-entry (or each batch of entries if a
+     * {@link CacheRefreshSettings#getBatchMethod()} is set), or concurrently if {@link CacheRefreshSettings#getParallelism()} is greater than {@code 1}.
+     * Entries of asynchronous methods are refreshed without blocking, see {@link CacheRefresher#refreshEntriesAsync(Iterable, java.util.function.Function, java.util.function.BiConsumer)}.
+     * Multiple caches of the same method are refreshed together, see {@link CacheRefresher#refreshCachesMerged(Map)}.
      */
     @Override
-    protected CacheRefresher<Map<Object, Object>> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method) {
+    protected CacheRefresher<Map<Object, Object>> createCacheRefresher(CacheManager cacheManager, String[] cacheNames, Object bean, Method method, CacheRefreshSettings settings) {
         Map<String, Map<Object, Object>> caches  = Arrays.stream(cacheNames).collect(Collectors.toMap(cacheName -> cacheName, cacheName -> {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null && cache.getNativeCache() instanceof Map<?, ?> mapCache) {
@@ -34,37 +39,54 @@ public class MapCacheableAutoRefreshedProcessor extends CacheableAutoRefreshedPr
                 throw new RuntimeException("Cache '%s' is not of type '%s'!".formatted(cacheName, Map.class.getSimpleName()));
             }
         }));
-        return new CacheRefresher<>(caches, bean, method){
+        return new CacheRefresher<>(caches, bean, method, settings) {
+            @Override
+            protected Iterable<ParametersKey> selectKeysToRefresh(Map<Object, Object> cache, String cacheName) {
+                return selectKeysToRefresh(cache.keySet(), cache::remove, cache::containsKey, cacheName);
+            }
+
+            @Override
+            protected void put(Map<Object, Object> cache, ParametersKey key, Object value) {
+                cache.put(key, value);
+            }
+
+            @Override
+            protected Map<Object, Object> asMap(Map<Object, Object> cache) {
+                return cache;
+            }
+
             @Override
             public void refreshCache(Map<Object, Object> cache, String cacheName) {
-                // TODO parallelize?
-                for (Object keyObject : cache.keySet()) {
-                    if (!(keyObject instanceof ParametersKey)) {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("Found cache-key in cache '%s' that is not of type 'ParametersKey': '%s', skipping refresh."
-                                    .formatted(cacheName, keyObject.toString()));
+                Iterable<ParametersKey> keys = selectKeysToRefresh(cache, cacheName);
+                if (getBatchLoader() != null) {
+                    refreshBatches(keys, batch -> {
+                        try {
+                            refreshBatch(batch, cacheName).forEach((key, value) -> store(cache, cacheName, key, value));
+                        } catch (Exception e) {
+                            logRefreshFailure(batch, List.of(cacheName), e);
+                            return;
+                        }
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("Refreshed batch of %d cache-entries for cache '%s'.".formatted(batch.size(), cacheName));
                         }
-                        continue;
-                    }
-                    ParametersKey key = (ParametersKey) keyObject;
-                    try {
-                        cache.put(key, method.invoke(bean, key.getParams()));
-                    } catch (Exception e) {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("Refresh for cache-entry with key '%s' for cache '%s' threw an exception while invoking bean-method '%s#%s'. The old cached value is retained for this entry."
-                                    .formatted(key, cacheName, bean.getClass().getSimpleName(), method.toGenericString()), e);
+                    });
+                } else if (isAsync()) {
+                    refreshEntriesAsync(keys, key -> cacheName, (key, value) -> store(cache, cacheName, key, value));
+                } else {
+                    refreshEntries(keys, keyObject -> {
+                        ParametersKey key = (ParametersKey) keyObject;
+                        try {
+                            store(cache, cacheName, key, refreshEntry(key, cacheName));
+                        } catch (Exception e) {
+                            logRefreshFailure(List.of(key), List.of(cacheName), e);
+                            return;
                         }
-                        continue;
-                    }
 
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("Refreshed cache-entry with key '%s' for cache '%s'.".formatted(key.toString(), cacheName));
-                    }
-                }
-                if (logger.isTraceEnabled()) {
-                    logger.trace("Refreshed all (%d) entries in cache '%s'.".formatted(cache.keySet().size(), cacheName));
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("Refreshed cache-entry with key '%s' for cache '%s'.".formatted(key.toString(), cacheName));
+                        }
+                    });
                 }
-
             }
         };
     }
@@ -0,0 +1,22 @@
+package io.github.philkes.spring.cache.annotation;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Customizes the {@link Caffeine} builder of the {@link com.github.benmanes.caffeine.cache.LoadingCache} replacing a cache of a
+ * {@link CacheableAutoRefreshed} method, see {@link CaffeineCacheableAutoRefreshedProcessor}.
+ * <p>The builder is created from the policy of the replaced cache, which covers its size bound, expiry and statistics.
+ * Everything else (e.g. the executor, the scheduler or listeners) has to be set by a customizer. The weigher of a weighted cache
+ * has to be set by a customizer, unless the size bound is overridden by {@link CacheableAutoRefreshed#maximumWeight()}, otherwise
+ * the cache can not be replaced.
+ * All beans of this type are applied in their order.
+ */
+@FunctionalInterface
+public interface RefreshedCaffeineCacheCustomizer {
+
+    /**
+     * @param cacheName name of the replaced cache
+     * @param builder   builder of the replacing cache
+     */
+    void customize(String cacheName, Caffeine<Object, Object> builder);
+}
@@ -0,0 +1,54 @@
+package io.github.philkes.spring.cache.cluster;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link RefreshLockProvider} holding the locks in memory, i.e. coordinating only the nodes within the same JVM,
+ * e.g. multiple application contexts or tests. Further nodes sharing the locks are created via {@link #forNode(String)}.
+ */
+public class InMemoryRefreshLockProvider implements RefreshLockProvider {
+
+    private final ConcurrentMap<String, HeldLock> locks;
+
+    private final String nodeId;
+
+    public InMemoryRefreshLockProvider() {
+        this(new ConcurrentHashMap<>(), UUID.randomUUID().toString());
+    }
+
+    private InMemoryRefreshLockProvider(ConcurrentMap<String, HeldLock> locks, String nodeId) {
+        this.locks = locks;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * @return provider of another node, sharing the locks of this provider
+     */
+    public InMemoryRefreshLockProvider forNode(String nodeId) {
+        return new InMemoryRefreshLockProvider(locks, nodeId);
+    }
+
+    @Override
+    public boolean tryLock(String name, Instant lockUntil) {
+        Instant now = Instant.now();
+        HeldLock lock = locks.compute(name, (lockName, heldLock) ->
+                heldLock == null || heldLock.nodeId().equals(nodeId) || !heldLock.lockUntil().isAfter(now) ? new HeldLock(nodeId, lockUntil) : heldLock);
+        return lock.nodeId().equals(nodeId);
+    }
+
+    @Override
+    public void unlock(String name, Instant lockUntil) {
+        locks.computeIfPresent(name, (lockName, heldLock) ->
+                heldLock.nodeId().equals(nodeId) && heldLock.lockUntil().isAfter(lockUntil) ? new HeldLock(nodeId, lockUntil) : heldLock);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private record HeldLock(String nodeId, Instant lockUntil) {
+    }
+}
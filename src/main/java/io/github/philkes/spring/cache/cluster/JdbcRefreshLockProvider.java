@@ -0,0 +1,80 @@
+package io.github.philkes.spring.cache.cluster;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * {@link RefreshLockProvider} holding the locks in a database table shared by all nodes:
+ * <pre class="code">
+ * CREATE TABLE CACHE_REFRESH_LOCK (
+ *     NAME       VARCHAR(255) NOT NULL PRIMARY KEY,
+ *     LOCK_UNTIL TIMESTAMP    NOT NULL,
+ *     LOCKED_AT  TIMESTAMP    NOT NULL,
+ *     LOCKED_BY  VARCHAR(255) NOT NULL
+ * );
+ * </pre>
+ * A lock is acquired by updating its expired row (or the row held by this node), or by inserting the row if it does not exist yet.
+ * The lock instants are based on the clock of the nodes, which therefore have to be synchronized.
+ */
+public class JdbcRefreshLockProvider implements RefreshLockProvider {
+
+    public static final String DEFAULT_TABLE_NAME = "CACHE_REFRESH_LOCK";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nodeId;
+
+    private final String updateSql;
+
+    private final String insertSql;
+
+    private final String unlockSql;
+
+    public JdbcRefreshLockProvider(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource), DEFAULT_TABLE_NAME, UUID.randomUUID().toString());
+    }
+
+    /**
+     * @param nodeId unique id of this node, e.g. the host name
+     */
+    public JdbcRefreshLockProvider(JdbcTemplate jdbcTemplate, String tableName, String nodeId) {
+        Assert.hasText(tableName, "'tableName' must not be empty");
+        Assert.hasText(nodeId, "'nodeId' must not be empty");
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.updateSql = "UPDATE %s SET LOCK_UNTIL = ?, LOCKED_AT = ?, LOCKED_BY = ? WHERE NAME = ? AND (LOCK_UNTIL <= ? OR LOCKED_BY = ?)".formatted(tableName);
+        this.insertSql = "INSERT INTO %s (NAME, LOCK_UNTIL, LOCKED_AT, LOCKED_BY) VALUES (?, ?, ?, ?)".formatted(tableName);
+        this.unlockSql = "UPDATE %s SET LOCK_UNTIL = ? WHERE NAME = ? AND LOCKED_BY = ? AND LOCK_UNTIL > ?".formatted(tableName);
+    }
+
+    @Override
+    public boolean tryLock(String name, Instant lockUntil) {
+        Timestamp now = Timestamp.from(Instant.now());
+        Timestamp until = Timestamp.from(lockUntil);
+        if (jdbcTemplate.update(updateSql, until, now, nodeId, name, now, nodeId) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(insertSql, name, until, now, nodeId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Inserted concurrently by another node
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock(String name, Instant lockUntil) {
+        Timestamp until = Timestamp.from(lockUntil);
+        jdbcTemplate.update(unlockSql, until, name, nodeId, until);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.philkes.spring.cache.cluster;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide locks coordinating the refreshes of multiple nodes (e.g. replicas of a service), so that each scheduled
+ * refresh hits the source of the cached method only once per cluster instead of once per node.
+ *
+ * <p>A lock is held until an instant instead of being bound to a thread: the refreshing node keeps the lock after finishing
+ * its refresh until the next tick, so that the other nodes skip their refreshes of the same tick. Locks of crashed nodes
+ * expire on their own. The locks of a {@link io.github.philkes.spring.cache.interceptor.CacheRefresher} are named
+ * {@code cache-refresh:<cache names>:<partition>}, see {@link io.github.philkes.spring.cache.interceptor.CacheRefreshSettings#getClusterPartitions()}.
+ *
+ * <p>Implementations identify the local node themselves, e.g. by a unique node id.
+ *
+ * @see InMemoryRefreshLockProvider
+ * @see JdbcRefreshLockProvider
+ */
+public interface RefreshLockProvider {
+
+    /**
+     * Acquires the lock with the given name until the given instant, unless it is held by another node.
+     * Acquiring a lock already held by this node extends it.
+     *
+     * @return {@code true} if the lock was acquired
+     */
+    boolean tryLock(String name, Instant lockUntil);
+
+    /**
+     * Shortens the lock with the given name to the given instant (at most), if it is still held by this node.
+     */
+    void unlock(String name, Instant lockUntil);
+}
@@ -0,0 +1,26 @@
+package io.github.philkes.spring.cache.cluster;
+
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.springframework.lang.Nullable;
+
+/**
+ * Publishes the entries refreshed by this node to the other nodes of the cluster, if the refreshes are coordinated via a
+ * {@link RefreshLockProvider} and the caches are local to each node. Not needed if the nodes share the cache tier
+ * (e.g. a distributed JCache provider), since the refreshed entries are then visible to all nodes anyway.
+ *
+ * <p>The receiving nodes write the entries into their caches via
+ * {@link io.github.philkes.spring.cache.annotation.CacheRefreshOperations#putAll(String, java.util.Map)}.
+ * The transport (e.g. a message broker) is up to the implementation, the keys and values have to be serializable for it.
+ *
+ * <p>Since every node only refreshes the keys cached on itself, a node also refreshes the keys of partitions locked by
+ * other nodes which these nodes did not publish since its previous refresh, e.g. keys only cached on this node.
+ * Keys cached on several nodes can therefore be refreshed more than once per tick.
+ */
+@FunctionalInterface
+public interface RefreshedEntryPublisher {
+
+    /**
+     * Publishes the given refreshed entry, invoked on the refreshing thread for every entry written to the cache.
+     */
+    void publish(String cacheName, ParametersKey key, @Nullable Object value);
+}
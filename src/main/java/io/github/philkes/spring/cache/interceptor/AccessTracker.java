@@ -0,0 +1,68 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the last access time of the cache-keys of a single {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed}
+ * annotated method.
+ *
+ * <p>Recording an access of an already tracked key is a plain volatile write, so the read path of the cache never blocks.
+ * Keys without a recorded access (e.g. because they were pruned) are treated as idle forever.
+ */
+public class AccessTracker {
+
+    private final Map<Object, Stamp> stamps = new ConcurrentHashMap<>();
+
+    /**
+     * Records an access of the given cache-key at the current time.
+     */
+    public void recordAccess(Object key) {
+        long now = System.nanoTime();
+        Stamp stamp = stamps.get(key);
+        if (stamp == null) {
+            stamps.putIfAbsent(key, new Stamp(now));
+        } else {
+            stamp.lastAccess = now;
+        }
+    }
+
+    /**
+     * @return {@code true} if the given cache-key was accessed within the given duration
+     */
+    public boolean wasAccessedWithin(Object key, Duration duration) {
+        Stamp stamp = stamps.get(key);
+        return stamp != null && System.nanoTime() - stamp.lastAccess <= duration.toNanos();
+    }
+
+    /**
+     * Stops tracking the given cache-key.
+     */
+    public void remove(Object key) {
+        stamps.remove(key);
+    }
+
+    /**
+     * Removes all keys that have not been accessed within the given duration.
+     * Since untracked keys are considered idle forever, this does not change the result of {@link #wasAccessedWithin(Object, Duration)}
+     * for any duration shorter than the given one.
+     */
+    public void prune(Duration idleLongerThan) {
+        long now = System.nanoTime();
+        long idleNanos = idleLongerThan.toNanos();
+        stamps.values().removeIf(stamp -> now - stamp.lastAccess > idleNanos);
+    }
+
+    public int size() {
+        return stamps.size();
+    }
+
+    private static final class Stamp {
+        private volatile long lastAccess;
+
+        private Stamp(long lastAccess) {
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Adapts the asynchronous return value of a cached method, i.e. a {@link CompletionStage} or a reactive type like
+ * Reactor's {@code Mono} and {@code Flux}, so that its entries can be refreshed without blocking a thread per entry.
+ *
+ * <p>The cache stores what the method returns, therefore the refreshed values are wrapped in a completed instance of
+ * the return type again, e.g. {@code Mono.just(value)}. Multi-value types (e.g. {@code Flux}) are collected into a {@link List}.
+ */
+public abstract class AsyncResultAdapter {
+
+    /**
+     * Returned by {@link #getNow(Object)} if the value is not available yet
+     */
+    public static final Object UNRESOLVED = new Object();
+
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono", AsyncResultAdapter.class.getClassLoader());
+
+    /**
+     * @return adapter for the given return type of a cached method, {@code null} if the method is synchronous
+     */
+    @Nullable
+    public static AsyncResultAdapter forReturnType(Class<?> returnType) {
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            return new CompletionStageAdapter();
+        }
+        if (REACTOR_PRESENT) {
+            return ReactiveAdapterRegistryAdapter.of(returnType);
+        }
+        return null;
+    }
+
+    /**
+     * @return future of the resolved value of the given return value of the cached method
+     */
+    public abstract CompletableFuture<Object> toFuture(@Nullable Object result);
+
+    /**
+     * @return completed instance of the return type resolving to the given value, stored in the cache
+     */
+    public abstract Object fromValue(@Nullable Object value);
+
+    /**
+     * @return resolved value of the given return value of the cached method if it is available without blocking or
+     * subscribing, e.g. of a completed {@link CompletableFuture}, otherwise {@link #UNRESOLVED}
+     */
+    @Nullable
+    public abstract Object getNow(Object result);
+
+    private static final class CompletionStageAdapter extends AsyncResultAdapter {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Object> toFuture(@Nullable Object result) {
+            return result != null ? ((CompletionStage<Object>) result).toCompletableFuture() : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public Object fromValue(@Nullable Object value) {
+            return CompletableFuture.completedFuture(value);
+        }
+
+        @Override
+        @Nullable
+        public Object getNow(Object result) {
+            CompletableFuture<?> future = ((CompletionStage<?>) result).toCompletableFuture();
+            return future.isDone() && !future.isCompletedExceptionally() ? future.join() : UNRESOLVED;
+        }
+    }
+
+    /**
+     * Supports all types known to the {@link ReactiveAdapterRegistry}, only loaded if Reactor is present.
+     */
+    private static final class ReactiveAdapterRegistryAdapter extends AsyncResultAdapter {
+
+        private final ReactiveAdapter adapter;
+
+        private ReactiveAdapterRegistryAdapter(ReactiveAdapter adapter) {
+            this.adapter = adapter;
+        }
+
+        @Nullable
+        static AsyncResultAdapter of(Class<?> returnType) {
+            ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+            return adapter != null && !adapter.isNoValue() ? new ReactiveAdapterRegistryAdapter(adapter) : null;
+        }
+
+        @Override
+        public CompletableFuture<Object> toFuture(@Nullable Object result) {
+            if (result == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Publisher<Object> publisher = adapter.toPublisher(result);
+            if (adapter.isMultiValue()) {
+                return Flux.from(publisher).collectList().<Object>map(values -> values).toFuture();
+            }
+            return Mono.from(publisher).toFuture();
+        }
+
+        @Override
+        public Object fromValue(@Nullable Object value) {
+            if (adapter.isMultiValue()) {
+                return adapter.fromPublisher(value != null ? Flux.fromIterable((List<?>) value) : Flux.empty());
+            }
+            return adapter.fromPublisher(Mono.justOrEmpty(value));
+        }
+
+        @Override
+        @Nullable
+        public Object getNow(Object result) {
+            // Only scalar publishers like Mono.just(...) hold their value, calling them does not subscribe
+            if (result instanceof Fuseable.ScalarCallable<?> scalar) {
+                try {
+                    return scalar.call();
+                } catch (Exception e) {
+                    return UNRESOLVED;
+                }
+            }
+            return UNRESOLVED;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the values of multiple cache-keys with a single invocation of the
+ * {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed#batchMethod()} of the cached method.
+ *
+ * <p>The batch method receives a {@link List} of elements and has to return a {@link Map} with the same elements as keys.
+ * If the cached method has exactly one parameter the elements are its arguments, otherwise the elements are the {@link ParametersKey}s.
+ * Elements missing in the returned map are not updated, elements are matched by their content (also array arguments).
+ * If the cached method is asynchronous (see {@link AsyncResultAdapter}), the batch method returns the resolved values,
+ * which are wrapped in the method's return type.
+ */
+public class BatchLoader {
+
+    private final Method batchMethod;
+
+    private final CachedMethodInvoker batchInvoker;
+
+    private final boolean singleParameter;
+
+    @Nullable
+    private final AsyncResultAdapter asyncAdapter;
+
+    public BatchLoader(Object bean, Method method, Method batchMethod) {
+        this.batchMethod = batchMethod;
+        this.batchInvoker = CachedMethodInvoker.of(bean, batchMethod);
+        this.singleParameter = method.getParameterCount() == 1;
+        this.asyncAdapter = AsyncResultAdapter.forReturnType(method.getReturnType());
+    }
+
+    /**
+     * Invokes the batch method for the given keys.
+     *
+     * @return the loaded values by their cache-key
+     */
+    public Map<ParametersKey, Object> loadAll(Collection<ParametersKey> keys) throws Exception {
+        List<Object> elements = new ArrayList<>(keys.size());
+        for (ParametersKey key : keys) {
+            elements.add(singleParameter ? key.getParam(0) : key);
+        }
+        Map<?, ?> result = (Map<?, ?>) batchInvoker.invoke(elements);
+        if (result == null) {
+            return Map.of();
+        }
+        // Returned elements are matched by their ParametersKey, which compares array arguments by their content
+        Set<ParametersKey> requestedKeys = singleParameter ? new HashSet<>(keys) : null;
+        Map<ParametersKey, Object> values = new HashMap<>(result.size());
+        result.forEach((element, value) -> {
+            ParametersKey key = singleParameter ? ParametersKey.of(element) : (ParametersKey) element;
+            if (!singleParameter || requestedKeys.contains(key)) {
+                values.put(key, asyncAdapter != null ? asyncAdapter.fromValue(value) : value);
+            }
+        });
+        return values;
+    }
+
+    public Method getBatchMethod() {
+        return batchMethod;
+    }
+}
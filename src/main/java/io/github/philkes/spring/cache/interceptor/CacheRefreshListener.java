@@ -0,0 +1,91 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Callback interface that is notified about the refreshes of a {@link CacheRefresher}, e.g. to publish metrics.
+ * All beans implementing this interface are registered with every {@link CacheRefresher} automatically.
+ *
+ * <p>Implementations have to be thread-safe, since refreshes may run concurrently.
+ */
+public interface CacheRefreshListener {
+
+    /**
+     * Called once for every cache of a {@link CacheRefresher}, before its first refresh.
+     * The given refresher can be used to query its {@link CacheRefresher#getStatistics(String)}.
+     */
+    default void onCacheRegistered(String cacheName, CacheRefresher<?> refresher) {
+    }
+
+    /**
+     * Called after every invocation of the cached method (or the batch method) during a refresh.
+     *
+     * @param durationNanos duration of the invocation
+     * @param entryCount    number of cache-entries that were loaded by the invocation
+     * @param failure       exception thrown by the invocation, {@code null} if successful
+     */
+    default void onInvocation(String cacheName, long durationNanos, int entryCount, @Nullable Throwable failure) {
+    }
+
+    /**
+     * Called after a refresh of a cache finished.
+     *
+     * @param durationNanos  duration of the whole refresh
+     * @param refreshedCount number of successfully refreshed cache-entries
+     */
+    default void onRefreshFinished(String cacheName, long durationNanos, int refreshedCount) {
+    }
+
+    /**
+     * Called if a refresh of a cache was skipped, because the previous refresh was still running or the cache is backing off after failed refreshes.
+     */
+    default void onRefreshSkipped(String cacheName) {
+    }
+
+    /**
+     * Called after a refreshed value was written to a cache, only if {@link CacheRefreshSettings#isSkipUnchanged()} is enabled
+     * and the value differs from the cached value. Allows e.g. derived views to be updated incrementally.
+     *
+     * @param oldValue value cached before the refresh, {@code null} if the entry was not cached anymore
+     * @param newValue refreshed value written to the cache
+     */
+    default void onEntryChanged(String cacheName, ParametersKey key, @Nullable Object oldValue, @Nullable Object newValue) {
+    }
+
+    /**
+     * @return listener notifying all given listeners
+     */
+    static CacheRefreshListener composite(List<? extends CacheRefreshListener> listeners) {
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        return new CacheRefreshListener() {
+            @Override
+            public void onCacheRegistered(String cacheName, CacheRefresher<?> refresher) {
+                listeners.forEach(listener -> listener.onCacheRegistered(cacheName, refresher));
+            }
+
+            @Override
+            public void onInvocation(String cacheName, long durationNanos, int entryCount, @Nullable Throwable failure) {
+                listeners.forEach(listener -> listener.onInvocation(cacheName, durationNanos, entryCount, failure));
+            }
+
+            @Override
+            public void onRefreshFinished(String cacheName, long durationNanos, int refreshedCount) {
+                listeners.forEach(listener -> listener.onRefreshFinished(cacheName, durationNanos, refreshedCount));
+            }
+
+            @Override
+            public void onRefreshSkipped(String cacheName) {
+                listeners.forEach(listener -> listener.onRefreshSkipped(cacheName));
+            }
+
+            @Override
+            public void onEntryChanged(String cacheName, ParametersKey key, @Nullable Object oldValue, @Nullable Object newValue) {
+                listeners.forEach(listener -> listener.onEntryChanged(cacheName, key, oldValue, newValue));
+            }
+        };
+    }
+}
@@ -0,0 +1,633 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import io.github.philkes.spring.cache.cluster.RefreshLockProvider;
+import io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resolved refresh settings of a single {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed} annotated method,
+ * used by a {@link CacheRefresher} to decide how the cache-entries are refreshed.
+ */
+public class CacheRefreshSettings {
+
+    private final int parallelism;
+
+    @Nullable
+    private final Executor executor;
+
+    @Nullable
+    private final Duration refreshOnlyIfAccessedWithin;
+
+    @Nullable
+    private final Duration evictIfIdleFor;
+
+    @Nullable
+    private final Method batchMethod;
+
+    private final int batchSize;
+
+    private final int spreadSlots;
+
+    private final boolean spreadJitter;
+
+    private final int maxKeysPerTick;
+
+    @Nullable
+    private final Duration maxTimePerTick;
+
+    private final long maximumSize;
+
+    private final long maximumWeight;
+
+    @Nullable
+    private final String weigher;
+
+    @Nullable
+    private final Supplier<? extends Iterable<?>> warmUpKeyProvider;
+
+    private final boolean adaptiveConcurrency;
+
+    @Nullable
+    private final Duration failureBackoff;
+
+    private final Duration maxFailureBackoff;
+
+    @Nullable
+    private final Duration refreshTimeout;
+
+    @Nullable
+    private final Executor timeoutExecutor;
+
+    @Nullable
+    private final Duration refreshDeadline;
+
+    private final boolean skipUnchanged;
+
+    @Nullable
+    private final Function<Object, ?> fingerprint;
+
+    @Nullable
+    private final RefreshLockProvider lockProvider;
+
+    private final int clusterPartitions;
+
+    private final Duration lockAtLeastFor;
+
+    private final Duration lockAtMostFor;
+
+    @Nullable
+    private final RefreshedEntryPublisher entryPublisher;
+
+    @Nullable
+    private final Duration earlyRefreshAfter;
+
+    private final double earlyRefreshBeta;
+
+    protected CacheRefreshSettings(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.executor = builder.executor;
+        this.refreshOnlyIfAccessedWithin = builder.refreshOnlyIfAccessedWithin;
+        this.evictIfIdleFor = builder.evictIfIdleFor;
+        this.batchMethod = builder.batchMethod;
+        this.batchSize = builder.batchSize;
+        this.spreadSlots = builder.spreadSlots;
+        this.spreadJitter = builder.spreadJitter;
+        this.maxKeysPerTick = builder.maxKeysPerTick;
+        this.maxTimePerTick = builder.maxTimePerTick;
+        this.maximumSize = builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.warmUpKeyProvider = builder.warmUpKeyProvider;
+        this.adaptiveConcurrency = builder.adaptiveConcurrency;
+        this.failureBackoff = builder.failureBackoff;
+        this.maxFailureBackoff = builder.maxFailureBackoff;
+        this.refreshTimeout = builder.refreshTimeout;
+        this.timeoutExecutor = builder.timeoutExecutor;
+        this.refreshDeadline = builder.refreshDeadline;
+        this.skipUnchanged = builder.skipUnchanged;
+        this.fingerprint = builder.fingerprint;
+        this.lockProvider = builder.lockProvider;
+        this.clusterPartitions = builder.clusterPartitions;
+        this.lockAtLeastFor = builder.lockAtLeastFor;
+        this.lockAtMostFor = builder.lockAtMostFor;
+        this.entryPublisher = builder.entryPublisher;
+        this.earlyRefreshAfter = builder.earlyRefreshAfter;
+        this.earlyRefreshBeta = builder.earlyRefreshBeta;
+    }
+
+    /**
+     * Maximum number of cache-entries of a single cache that are refreshed concurrently.
+     * {@code 1} means the entries are refreshed sequentially on the calling thread.
+     * For asynchronous methods (see {@link CacheRefresher#isAsync()}) this is the maximum number of invocations in flight.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * {@link Executor} used to refresh cache-entries concurrently, only present if {@link #getParallelism()} is greater than {@code 1}.
+     * Not needed for asynchronous methods, which are refreshed without blocking a thread (see {@link CacheRefresher#isAsync()}),
+     * unless a {@link #getBatchMethod()} is set.
+     */
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Cache-entries that were not accessed within this duration are not refreshed, but kept in the cache.
+     */
+    @Nullable
+    public Duration getRefreshOnlyIfAccessedWithin() {
+        return refreshOnlyIfAccessedWithin;
+    }
+
+    /**
+     * Cache-entries that were not accessed within this duration are evicted instead of refreshed.
+     */
+    @Nullable
+    public Duration getEvictIfIdleFor() {
+        return evictIfIdleFor;
+    }
+
+    /**
+     * Method of the same bean that loads multiple cache-entries at once, see {@link BatchLoader}.
+     */
+    @Nullable
+    public Method getBatchMethod() {
+        return batchMethod;
+    }
+
+    /**
+     * Maximum number of cache-entries loaded by a single invocation of the {@link #getBatchMethod()}.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Number of slots a refresh interval is split into, every cache-entry is only refreshed in its own slot.
+     * {@code 1} means all entries are refreshed at once.
+     */
+    public int getSpreadSlots() {
+        return spreadSlots;
+    }
+
+    /**
+     * Whether the slots of the cache-entries are shifted by a random offset, see {@link #getSpreadSlots()}.
+     */
+    public boolean isSpreadJitter() {
+        return spreadJitter;
+    }
+
+    /**
+     * Maximum number of cache-entries of a single cache refreshed per tick, {@code -1} if unlimited.
+     */
+    public int getMaxKeysPerTick() {
+        return maxKeysPerTick;
+    }
+
+    /**
+     * Maximum duration of the refresh of a single cache per tick.
+     */
+    @Nullable
+    public Duration getMaxTimePerTick() {
+        return maxTimePerTick;
+    }
+
+    /**
+     * @return {@code true} if the refresh of a cache is limited per tick and continued in the next tick, see {@link RefreshCursor}
+     */
+    public boolean isBudgeted() {
+        return maxKeysPerTick > 0 || maxTimePerTick != null;
+    }
+
+    /**
+     * Maximum number of entries of the cache, {@code -1} if the cache's own configuration should be used.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Maximum weight of the entries of the cache (see {@link #getWeigher()}), {@code -1} if the cache's own configuration should be used.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Name of the bean that weighs the cache-entries, only present together with {@link #getMaximumWeight()}.
+     */
+    @Nullable
+    public String getWeigher() {
+        return weigher;
+    }
+
+    /**
+     * Provides the keys the caches are loaded with on startup, see {@link CacheRefresher#warmUp(int, Executor)}.
+     */
+    @Nullable
+    public Supplier<? extends Iterable<?>> getWarmUpKeyProvider() {
+        return warmUpKeyProvider;
+    }
+
+    /**
+     * Whether the number of concurrently refreshed entries adapts to the latency and failures of the invocations,
+     * with {@link #getParallelism()} as upper bound, see {@link ConcurrencyLimit#adaptive(int)}.
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * Initial duration the refreshes of a cache are skipped after a refresh in which all invocations failed,
+     * doubled with every further failed refresh, see {@link FailureBackoff}. {@code null} if disabled.
+     */
+    @Nullable
+    public Duration getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    /**
+     * Upper bound of the {@link #getFailureBackoff()}.
+     */
+    public Duration getMaxFailureBackoff() {
+        return maxFailureBackoff;
+    }
+
+    /**
+     * Maximum duration of a single invocation of the cached method (or batch method) during a refresh, slower invocations
+     * are abandoned, see {@link RefreshTimeoutException}. {@code null} if unlimited.
+     */
+    @Nullable
+    public Duration getRefreshTimeout() {
+        return refreshTimeout;
+    }
+
+    /**
+     * Executor running the invocations if a {@link #getRefreshTimeout()} is set, so that the waiting thread can abandon them.
+     * Has to provide a thread for every concurrent invocation, e.g. a cached thread pool.
+     */
+    @Nullable
+    public Executor getTimeoutExecutor() {
+        return timeoutExecutor;
+    }
+
+    /**
+     * Maximum duration of a scheduled refresh of the caches. Once exceeded no further entries are refreshed and the refresh
+     * stops waiting for the running invocations, the remaining entries keep their old values. {@code null} if unlimited.
+     */
+    @Nullable
+    public Duration getRefreshDeadline() {
+        return refreshDeadline;
+    }
+
+    /**
+     * Whether a refreshed value is compared to the cached value and only written to the cache if it changed,
+     * see {@link CacheRefresher#store(Object, String, ParametersKey, Object)}.
+     */
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    /**
+     * Function mapping a value to the fingerprint it is compared by if {@link #isSkipUnchanged()}, e.g. a version or hash.
+     * {@code null} if the values themselves are compared via {@link Object#equals(Object)}.
+     */
+    @Nullable
+    public Function<Object, ?> getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Provider of the cluster-wide locks coordinating the scheduled refreshes of multiple nodes, {@code null} if every node refreshes
+     * its caches on its own.
+     */
+    @Nullable
+    public RefreshLockProvider getLockProvider() {
+        return lockProvider;
+    }
+
+    /**
+     * Number of partitions the keys are split into (by their hash code) if {@link #isClusterCoordinated()}. Every partition is
+     * locked separately, so that multiple nodes can refresh the partitions of the same tick concurrently.
+     */
+    public int getClusterPartitions() {
+        return clusterPartitions;
+    }
+
+    /**
+     * Minimum duration a partition stays locked after its refresh started, so that other nodes skip the partition in the same tick.
+     * Usually the interval of the scheduled refreshes.
+     */
+    public Duration getLockAtLeastFor() {
+        return lockAtLeastFor;
+    }
+
+    /**
+     * Maximum duration a partition stays locked while being refreshed, i.e. until other nodes take over if this node crashed.
+     */
+    public Duration getLockAtMostFor() {
+        return lockAtMostFor;
+    }
+
+    /**
+     * Publisher of the refreshed entries to the other nodes if {@link #isClusterCoordinated()}, {@code null} if the nodes share the cache tier.
+     */
+    @Nullable
+    public RefreshedEntryPublisher getEntryPublisher() {
+        return entryPublisher;
+    }
+
+    /**
+     * Age after which a read cache-entry is refreshed in any case, see {@link EarlyRefreshTracker}.
+     * Younger entries are refreshed early with a probability rising with their age. {@code null} if reads do not trigger refreshes.
+     */
+    @Nullable
+    public Duration getEarlyRefreshAfter() {
+        return earlyRefreshAfter;
+    }
+
+    /**
+     * Scales how early entries are refreshed on read, values greater than {@code 1} favor earlier refreshes.
+     */
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    /**
+     * @return {@code true} if reading a cache-entry may trigger its refresh, see {@link #getEarlyRefreshAfter()}
+     */
+    public boolean isEarlyRefresh() {
+        return earlyRefreshAfter != null;
+    }
+
+    /**
+     * @return {@code true} if the scheduled refreshes are coordinated across the nodes of a cluster via the {@link #getLockProvider()}
+     */
+    public boolean isClusterCoordinated() {
+        return lockProvider != null;
+    }
+
+    /**
+     * @return {@code true} if the size bound of the cache is overridden by {@link #getMaximumSize()} or {@link #getMaximumWeight()}
+     */
+    public boolean isMaximumOverridden() {
+        return maximumSize >= 0 || maximumWeight >= 0;
+    }
+
+    /**
+     * @return {@code true} if the accesses of the cache-entries have to be tracked
+     */
+    public boolean isAccessTracking() {
+        return refreshOnlyIfAccessedWithin != null || evictIfIdleFor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRefreshSettings[parallelism=%d, executor=%s, refreshOnlyIfAccessedWithin=%s, evictIfIdleFor=%s, batchMethod=%s, batchSize=%d, spreadSlots=%d, spreadJitter=%s, maxKeysPerTick=%d, maxTimePerTick=%s, maximumSize=%d, maximumWeight=%d, weigher=%s, warmUpKeyProvider=%s, adaptiveConcurrency=%s, failureBackoff=%s, maxFailureBackoff=%s, refreshTimeout=%s, refreshDeadline=%s, skipUnchanged=%s, fingerprint=%s, lockProvider=%s, clusterPartitions=%d, lockAtLeastFor=%s, lockAtMostFor=%s, entryPublisher=%s, earlyRefreshAfter=%s, earlyRefreshBeta=%s]"
+                .formatted(parallelism, executor, refreshOnlyIfAccessedWithin, evictIfIdleFor, batchMethod, batchSize, spreadSlots, spreadJitter,
+                        maxKeysPerTick, maxTimePerTick, maximumSize, maximumWeight, weigher, warmUpKeyProvider, adaptiveConcurrency, failureBackoff, maxFailureBackoff,
+                        refreshTimeout, refreshDeadline, skipUnchanged, fingerprint, lockProvider, clusterPartitions, lockAtLeastFor, lockAtMostFor, entryPublisher,
+                        earlyRefreshAfter, earlyRefreshBeta);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link CacheRefreshSettings}
+     */
+    public static class Builder {
+
+        private int parallelism = 1;
+
+        @Nullable
+        private Executor executor;
+
+        @Nullable
+        private Duration refreshOnlyIfAccessedWithin;
+
+        @Nullable
+        private Duration evictIfIdleFor;
+
+        @Nullable
+        private Method batchMethod;
+
+        private int batchSize = 100;
+
+        private int spreadSlots = 1;
+
+        private boolean spreadJitter;
+
+        private int maxKeysPerTick = -1;
+
+        @Nullable
+        private Duration maxTimePerTick;
+
+        private long maximumSize = -1;
+
+        private long maximumWeight = -1;
+
+        @Nullable
+        private String weigher;
+
+        @Nullable
+        private Supplier<? extends Iterable<?>> warmUpKeyProvider;
+
+        private boolean adaptiveConcurrency;
+
+        @Nullable
+        private Duration failureBackoff;
+
+        private Duration maxFailureBackoff = Duration.ofMinutes(10);
+
+        @Nullable
+        private Duration refreshTimeout;
+
+        @Nullable
+        private Executor timeoutExecutor;
+
+        @Nullable
+        private Duration refreshDeadline;
+
+        private boolean skipUnchanged;
+
+        @Nullable
+        private Function<Object, ?> fingerprint;
+
+        @Nullable
+        private RefreshLockProvider lockProvider;
+
+        private int clusterPartitions = 1;
+
+        private Duration lockAtLeastFor = Duration.ZERO;
+
+        private Duration lockAtMostFor = Duration.ofMinutes(10);
+
+        @Nullable
+        private RefreshedEntryPublisher entryPublisher;
+
+        @Nullable
+        private Duration earlyRefreshAfter;
+
+        private double earlyRefreshBeta = 1.0;
+
+        public Builder setParallelism(int parallelism) {
+            Assert.isTrue(parallelism > 0, "'parallelism' must be greater than 0");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder setExecutor(@Nullable Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder setRefreshOnlyIfAccessedWithin(@Nullable Duration refreshOnlyIfAccessedWithin) {
+            this.refreshOnlyIfAccessedWithin = refreshOnlyIfAccessedWithin;
+            return this;
+        }
+
+        public Builder setEvictIfIdleFor(@Nullable Duration evictIfIdleFor) {
+            this.evictIfIdleFor = evictIfIdleFor;
+            return this;
+        }
+
+        public Builder setBatchMethod(@Nullable Method batchMethod) {
+            this.batchMethod = batchMethod;
+            return this;
+        }
+
+        public Builder setBatchSize(int batchSize) {
+            Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder setSpreadSlots(int spreadSlots) {
+            Assert.isTrue(spreadSlots > 0, "'spreadSlots' must be greater than 0");
+            this.spreadSlots = spreadSlots;
+            return this;
+        }
+
+        public Builder setSpreadJitter(boolean spreadJitter) {
+            this.spreadJitter = spreadJitter;
+            return this;
+        }
+
+        public Builder setMaxKeysPerTick(int maxKeysPerTick) {
+            this.maxKeysPerTick = maxKeysPerTick;
+            return this;
+        }
+
+        public Builder setMaxTimePerTick(@Nullable Duration maxTimePerTick) {
+            this.maxTimePerTick = maxTimePerTick;
+            return this;
+        }
+
+        public Builder setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder setMaximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        public Builder setWeigher(@Nullable String weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder setWarmUpKeyProvider(@Nullable Supplier<? extends Iterable<?>> warmUpKeyProvider) {
+            this.warmUpKeyProvider = warmUpKeyProvider;
+            return this;
+        }
+
+        public Builder setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+            this.adaptiveConcurrency = adaptiveConcurrency;
+            return this;
+        }
+
+        public Builder setFailureBackoff(@Nullable Duration failureBackoff) {
+            this.failureBackoff = failureBackoff;
+            return this;
+        }
+
+        public Builder setMaxFailureBackoff(Duration maxFailureBackoff) {
+            Assert.notNull(maxFailureBackoff, "'maxFailureBackoff' must not be null");
+            this.maxFailureBackoff = maxFailureBackoff;
+            return this;
+        }
+
+        public Builder setRefreshTimeout(@Nullable Duration refreshTimeout, @Nullable Executor timeoutExecutor) {
+            this.refreshTimeout = refreshTimeout;
+            this.timeoutExecutor = timeoutExecutor;
+            return this;
+        }
+
+        public Builder setRefreshDeadline(@Nullable Duration refreshDeadline) {
+            this.refreshDeadline = refreshDeadline;
+            return this;
+        }
+
+        public Builder setSkipUnchanged(boolean skipUnchanged) {
+            this.skipUnchanged = skipUnchanged;
+            return this;
+        }
+
+        public Builder setFingerprint(@Nullable Function<Object, ?> fingerprint) {
+            this.fingerprint = fingerprint;
+            return this;
+        }
+
+        public Builder setClusterCoordination(@Nullable RefreshLockProvider lockProvider, int clusterPartitions, Duration lockAtLeastFor, Duration lockAtMostFor) {
+            Assert.isTrue(clusterPartitions > 0, "'clusterPartitions' must be greater than 0");
+            Assert.isTrue(!lockAtLeastFor.isNegative() && lockAtLeastFor.compareTo(lockAtMostFor) <= 0,
+                    "'lockAtLeastFor' must not be negative or greater than 'lockAtMostFor'");
+            this.lockProvider = lockProvider;
+            this.clusterPartitions = clusterPartitions;
+            this.lockAtLeastFor = lockAtLeastFor;
+            this.lockAtMostFor = lockAtMostFor;
+            return this;
+        }
+
+        public Builder setEntryPublisher(@Nullable RefreshedEntryPublisher entryPublisher) {
+            this.entryPublisher = entryPublisher;
+            return this;
+        }
+
+        public Builder setEarlyRefresh(@Nullable Duration earlyRefreshAfter, double earlyRefreshBeta) {
+            Assert.isTrue(earlyRefreshAfter == null || (!earlyRefreshAfter.isNegative() && !earlyRefreshAfter.isZero()),
+                    "'earlyRefreshAfter' must be positive");
+            Assert.isTrue(earlyRefreshBeta > 0, "'earlyRefreshBeta' must be greater than 0");
+            this.earlyRefreshAfter = earlyRefreshAfter;
+            this.earlyRefreshBeta = earlyRefreshBeta;
+            return this;
+        }
+
+        public CacheRefreshSettings build() {
+            Assert.isTrue(fingerprint == null || skipUnchanged, "A 'fingerprint' requires 'skipUnchanged'");
+            Assert.isTrue(refreshTimeout == null || timeoutExecutor != null, "A 'timeoutExecutor' is required for a 'refreshTimeout'");
+            Assert.isTrue(spreadSlots == 1 || (maxKeysPerTick <= 0 && maxTimePerTick == null),
+                    "'spreadSlots' can not be combined with 'maxKeysPerTick' or 'maxTimePerTick'");
+            Assert.isTrue(lockProvider == null || (maxKeysPerTick <= 0 && maxTimePerTick == null),
+                    "Cluster coordination can not be combined with 'maxKeysPerTick' or 'maxTimePerTick'");
+            Assert.isTrue(entryPublisher == null || lockProvider != null, "An 'entryPublisher' requires cluster coordination");
+            Assert.isTrue(maximumSize < 0 || maximumWeight < 0, "'maximumSize' can not be combined with 'maximumWeight'");
+            Assert.isTrue((maximumWeight < 0) == (weigher == null), "'maximumWeight' and 'weigher' have to be specified together");
+            return new CacheRefreshSettings(this);
+        }
+    }
+}
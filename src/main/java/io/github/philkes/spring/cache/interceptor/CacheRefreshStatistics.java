@@ -0,0 +1,182 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics about the refreshes of a single cache of a {@link CacheRefresher}.
+ *
+ * <p>The {@link #getOldestEntryAge()} is only tracked if {@code trackEntryAges} is enabled. Instead of tracking every
+ * cache-entry, the start of the last refresh cycle that refreshed all entries without a failure is recorded: a cycle
+ * is a single refresh, all {@link CacheRefreshSettings#getSpreadSlots() spread slots} or a complete sweep of a
+ * {@link CacheRefreshSettings#isBudgeted() budgeted} refresh. Every entry present at the start of such a cycle was
+ * refreshed since then. Entries that were never refreshed are considered as loaded at the start of the first refresh.
+ */
+public class CacheRefreshStatistics {
+
+    private final boolean trackEntryAges;
+
+    private final AtomicInteger currentRefreshedCount = new AtomicInteger();
+
+    private final AtomicInteger currentFailedCount = new AtomicInteger();
+
+    private final AtomicLong skippedRefreshes = new AtomicLong();
+
+    private final AtomicLong timedOutInvocations = new AtomicLong();
+
+    private final AtomicLong unchangedEntries = new AtomicLong();
+
+    private volatile int lastRefreshedCount;
+
+    private volatile int lastFailedCount;
+
+    @Nullable
+    private volatile Duration lastRefreshDuration;
+
+    @Nullable
+    private volatile Throwable lastFailure;
+
+    private volatile boolean cycleStarted;
+
+    private volatile boolean cycleFailed;
+
+    private volatile long cycleStartNanos;
+
+    private volatile int cycleRefreshes;
+
+    private volatile boolean refreshedOnce;
+
+    private volatile long lastCompleteCycleStartNanos;
+
+    CacheRefreshStatistics(boolean trackEntryAges) {
+        this.trackEntryAges = trackEntryAges;
+    }
+
+    void refreshStarted() {
+        currentRefreshedCount.set(0);
+        currentFailedCount.set(0);
+        cycleRefreshes++;
+        if (!refreshedOnce) {
+            lastCompleteCycleStartNanos = System.nanoTime();
+            refreshedOnce = true;
+        }
+    }
+
+    /**
+     * Starts a new refresh cycle over all entries of the cache, abandoning the current one.
+     */
+    void cycleStarted() {
+        cycleStartNanos = System.nanoTime();
+        cycleFailed = false;
+        cycleRefreshes = 0;
+        cycleStarted = true;
+    }
+
+    /**
+     * Finishes the current refresh cycle. It only counts as complete if it was started, none of its refreshes failed and
+     * at least {@code expectedRefreshes} refreshes were run during the cycle, i.e. none of its ticks was skipped.
+     */
+    void cycleFinished(int expectedRefreshes) {
+        if (cycleStarted && !cycleFailed && cycleRefreshes >= expectedRefreshes) {
+            lastCompleteCycleStartNanos = cycleStartNanos;
+        }
+        cycleStarted = false;
+    }
+
+    void refreshFinished(long durationNanos) {
+        lastRefreshedCount = currentRefreshedCount.get();
+        lastFailedCount = currentFailedCount.get();
+        lastRefreshDuration = Duration.ofNanos(durationNanos);
+    }
+
+    void refreshSkipped() {
+        skippedRefreshes.incrementAndGet();
+    }
+
+    void entryUnchanged() {
+        unchangedEntries.incrementAndGet();
+    }
+
+    void entryRefreshed() {
+        currentRefreshedCount.incrementAndGet();
+    }
+
+    void entriesRefreshed(int count) {
+        currentRefreshedCount.addAndGet(count);
+    }
+
+    void entryFailed(Throwable failure) {
+        currentFailedCount.incrementAndGet();
+        cycleFailed = true;
+        if (failure instanceof RefreshTimeoutException) {
+            timedOutInvocations.incrementAndGet();
+        }
+        lastFailure = failure;
+    }
+
+    /**
+     * @return number of successfully refreshed entries of the last finished refresh
+     */
+    public int getLastRefreshedCount() {
+        return lastRefreshedCount;
+    }
+
+    /**
+     * @return number of failed invocations of the last finished refresh
+     */
+    public int getLastFailedCount() {
+        return lastFailedCount;
+    }
+
+    /**
+     * @return duration of the last finished refresh, {@code null} if no refresh finished yet
+     */
+    @Nullable
+    public Duration getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * @return last exception thrown while refreshing an entry, {@code null} if none was thrown yet
+     */
+    @Nullable
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * @return number of refreshes skipped since the previous refresh was still running or the cache was backing off after failed refreshes
+     */
+    public long getSkippedRefreshes() {
+        return skippedRefreshes.get();
+    }
+
+    /**
+     * @return number of invocations abandoned since they exceeded the refresh timeout, see {@link RefreshTimeoutException}
+     */
+    public long getTimedOutInvocations() {
+        return timedOutInvocations.get();
+    }
+
+    /**
+     * @return number of refreshed entries not written to the cache since their value did not change, see {@link CacheRefreshSettings#isSkipUnchanged()}
+     * and {@link RefreshContext#notModified()}
+     */
+    public long getUnchangedEntries() {
+        return unchangedEntries.get();
+    }
+
+    /**
+     * @return upper bound of the time since the least recently refreshed entry of the cache was refreshed, i.e. the time since
+     * the start of the last complete refresh cycle, {@link Duration#ZERO} if no refresh started yet or entry ages are not tracked
+     */
+    public Duration getOldestEntryAge() {
+        if (!trackEntryAges || !refreshedOnce) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(System.nanoTime() - lastCompleteCycleStartNanos);
+    }
+}
@@ -1,10 +1,45 @@
 package io.github.philkes.spring.cache.interceptor;
 
+import io.github.philkes.spring.cache.cluster.RefreshLockProvider;
+import io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Bean that defines non-args method {@link #refreshCaches()} that can be scheduled by Spring to refresh all entries of
@@ -15,6 +50,17 @@ public abstract class CacheRefresher<C> {
 
     public static final String CACHE_REFRESH_METHOD = "refreshCaches";
 
+    public static final String TRIGGER_CACHE_REFRESH_METHOD = "triggerRefreshCaches";
+
+    private static final int ALL_PARTITIONS = -1;
+
+    private static final int UNPUBLISHED_PARTITIONS = -2;
+
+    /**
+     * Constant (i.e. the same on all nodes) seed of the hashes determining the partitions of the keys
+     */
+    private static final int PARTITION_SEED = 0x9e3779b9;
+
     private final Log logger = LogFactory.getLog(getClass());
 
     private final Map<String, C> caches;
@@ -27,36 +73,1393 @@ public abstract class CacheRefresher<C> {
      */
     private final Method method;
 
-    protected CacheRefresher(Map<String, C> caches, Object bean, Method method) {
+    private final CacheRefreshSettings settings;
+
+    /**
+     * Tracks the accesses of the cache-entries, only present if {@link CacheRefreshSettings#isAccessTracking()}
+     */
+    @Nullable
+    private final AccessTracker accessTracker;
+
+    /**
+     * Decides which read cache-entries are refreshed early, only present if {@link CacheRefreshSettings#isEarlyRefresh()}
+     */
+    @Nullable
+    private final EarlyRefreshTracker earlyRefreshTracker;
+
+    /**
+     * Invokes {@link #method} on {@link #bean}
+     */
+    private final CachedMethodInvoker invoker;
+
+    /**
+     * Loads multiple cache-entries at once, only present if {@link CacheRefreshSettings#getBatchMethod()} is set
+     */
+    @Nullable
+    private final BatchLoader batchLoader;
+
+    /**
+     * Resolves the values of an asynchronous {@link #method}, only present if it returns e.g. a {@link CompletionStage} or {@code Mono}
+     */
+    @Nullable
+    private final AsyncResultAdapter asyncAdapter;
+
+    /**
+     * Offset added to the slots of all cache-entries, random if {@link CacheRefreshSettings#isSpreadJitter()}
+     */
+    private final int slotOffset;
+
+    /**
+     * Number of ticks (i.e. invocations of {@link #refreshCaches()}) so far, used to determine the current slot
+     */
+    private long ticks;
+
+    /**
+     * Cursors of the current sweeps per cache, only used if {@link CacheRefreshSettings#isBudgeted()}
+     */
+    private final Map<String, RefreshCursor> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * Slot whose cache-entries are refreshed in the current tick
+     */
+    private volatile int currentSlot;
+
+    /**
+     * Statistics of the refreshes per cache
+     */
+    private final Map<String, CacheRefreshStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the refreshes of multiple entries, see {@link #refreshEntries(Iterable, Consumer)}
+     */
+    private final RefreshDispatcher dispatcher;
+
+    /**
+     * Refreshes specific keys, see {@link #refreshKeys(Collection)} and {@link #entryRead(Object)}
+     */
+    private final OnDemandRefresher onDemandRefresher;
+
+    /**
+     * Backoffs of the refreshes per cache, only used if {@link CacheRefreshSettings#getFailureBackoff()} is set
+     */
+    private final Map<String, FailureBackoff> failureBackoffs = new ConcurrentHashMap<>();
+
+    /**
+     * Partition of the keys refreshed by the running coordinated refresh, see {@link CacheRefreshSettings#getClusterPartitions()}
+     */
+    private volatile int currentPartition = ALL_PARTITIONS;
+
+    /**
+     * Keys written via {@link #storeAll(String, Map)} since the previous coordinated refresh, i.e. refreshed and published by other nodes.
+     * Only tracked if the caches are local to each node, see {@link CacheRefreshSettings#getEntryPublisher()}
+     */
+    private volatile Set<ParametersKey> receivedKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Selects the keys refreshed by the running refresh of unpublished keys, see {@link #refreshUnpublished(BitSet, Set, Runnable)}
+     */
+    @Nullable
+    private volatile Predicate<Object> unpublishedKeys;
+
+    /**
+     * Caches whose refreshes are paused, see {@link #pause(String)}
+     */
+    private final Set<String> pausedCaches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether {@link #refreshCaches()} is currently running, to skip overlapping refreshes
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Notified about the refreshes, no-op until {@link #setListener(CacheRefreshListener)} is called
+     */
+    private volatile CacheRefreshListener listener = new CacheRefreshListener() {
+    };
+
+    private volatile boolean listening;
+
+    /**
+     * Whether the caches store {@code null} values, see {@link #setAllowNullValues(boolean)}
+     */
+    private volatile boolean allowNullValues = true;
+
+    /**
+     * Scheduler running the refreshes triggered by {@link #triggerRefreshCaches()}, refreshes run on the calling thread if not set
+     */
+    @Nullable
+    private volatile TaskScheduler refreshScheduler;
+
+    protected CacheRefresher(Map<String, C> caches, Object bean, Method method, CacheRefreshSettings settings) {
         this.caches = caches;
         this.bean = bean;
         this.method = method;
+        this.settings = settings;
+        this.invoker = CachedMethodInvoker.of(bean, method);
+        this.accessTracker = settings.isAccessTracking() ? new AccessTracker() : null;
+        this.earlyRefreshTracker = settings.isEarlyRefresh() ? new EarlyRefreshTracker(settings.getEarlyRefreshAfter(), settings.getEarlyRefreshBeta()) : null;
+        this.batchLoader = settings.getBatchMethod() != null ? new BatchLoader(bean, method, settings.getBatchMethod()) : null;
+        this.asyncAdapter = AsyncResultAdapter.forReturnType(method.getReturnType());
+        this.dispatcher = new RefreshDispatcher(settings, caches.keySet());
+        this.onDemandRefresher = new OnDemandRefresher(this, dispatcher);
+        this.slotOffset = settings.isSpreadJitter() ? ThreadLocalRandom.current().nextInt(settings.getSpreadSlots()) : 0;
     }
 
     /**
      * Invokes the cached method with the same parameters again and stores the new return value in the cache again.
      * The cache stays stable during executing of this method.
+     * If {@link CacheRefreshSettings#getSpreadSlots()} is greater than {@code 1}, only the entries of the current slot are refreshed.
+     * If the method is cached in multiple caches, each distinct key is refreshed only once for all caches.
      */
     public void refreshCaches() {
+        if (!refreshing.compareAndSet(false, true)) {
+            skipRefresh();
+            return;
+        }
+        try {
+            doRefreshCaches();
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Starts {@link #refreshCaches()} on the refresh scheduler (see {@link #setRefreshScheduler(TaskScheduler)}) and returns immediately.
+     * Used for fixed-rate refreshes, so that a tick arriving while the previous refresh is still running is skipped
+     * instead of being executed late.
+     */
+    public void triggerRefreshCaches() {
+        TaskScheduler scheduler = refreshScheduler;
+        if (scheduler == null) {
+            refreshCaches();
+            return;
+        }
+        if (refreshing.get()) {
+            skipRefresh();
+            return;
+        }
+        scheduler.schedule(this::refreshCaches, Instant.now());
+    }
+
+    private void skipRefresh() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Skipping refresh of cache of bean method '%s#%s' since the previous refresh is still running.".formatted(bean.getClass().getSimpleName(), method.toGenericString()));
+        }
+        for (String cacheName : caches.keySet()) {
+            getStatistics(cacheName).refreshSkipped();
+            listener.onRefreshSkipped(cacheName);
+        }
+    }
+
+    private void doRefreshCaches() {
+        dispatcher.runCycle(this::doRefreshCachesWithinDeadline);
+    }
+
+    private void doRefreshCachesWithinDeadline() {
+        currentSlot = (int) (ticks++ % settings.getSpreadSlots());
         if (caches.keySet().isEmpty()) {
             if (logger.isTraceEnabled()) {
                 logger.trace("Not refreshing cache of bean method '%s#%s' since it is empty.".formatted(bean.getClass().getSimpleName(), method.toGenericString()));
             }
             return;
         }
+        Map<String, C> presentCaches = new LinkedHashMap<>(caches.size());
         for (Map.Entry<String, C> cacheEntry : caches.entrySet()) {
-            String cacheName = cacheEntry.getKey();
-            C c = cacheEntry.getValue();
-            if (c == null) {
+            if (cacheEntry.getValue() == null) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Cache '%s' does not exist, skipping refresh.".formatted(cacheEntry.getKey()));
+                }
+                continue;
+            }
+            if (pausedCaches.contains(cacheEntry.getKey())) {
                 if (logger.isTraceEnabled()) {
-                    logger.trace("Cache '%s' does not exist, skipping refresh.".formatted(cacheName));
+                    logger.trace("Refresh of cache '%s' is paused, skipping refresh.".formatted(cacheEntry.getKey()));
                 }
                 continue;
             }
-            refreshCache(c, cacheName);
+            if (isBackingOff(cacheEntry.getKey())) {
+                continue;
+            }
+            presentCaches.put(cacheEntry.getKey(), cacheEntry.getValue());
+        }
+        if (presentCaches.size() == 1) {
+            Map.Entry<String, C> cacheEntry = presentCaches.entrySet().iterator().next();
+            refreshCoordinated(List.of(cacheEntry.getKey()), () -> refreshCache(cacheEntry.getValue(), cacheEntry.getKey()));
+        } else if (!presentCaches.isEmpty()) {
+            refreshCoordinated(presentCaches.keySet(), () -> refreshCachesMerged(presentCaches));
+        }
+        if (accessTracker != null) {
+            accessTracker.prune(maxIdleDuration());
+        }
+    }
+
+    /**
+     * @return {@code true} if the refresh of the given cache is skipped since its previous refreshes failed, see {@link FailureBackoff}
+     */
+    private boolean isBackingOff(String cacheName) {
+        if (settings.getFailureBackoff() == null) {
+            return false;
+        }
+        FailureBackoff failureBackoff = getFailureBackoff(cacheName);
+        if (!failureBackoff.isBackingOff()) {
+            return false;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Skipping refresh of cache '%s' for %s after %d failed refreshes."
+                    .formatted(cacheName, failureBackoff.getBackoff(), failureBackoff.getConsecutiveFailures()));
+        }
+        getStatistics(cacheName).refreshSkipped();
+        listener.onRefreshSkipped(cacheName);
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the refreshes of the given cache are paused or backing off, without recording a skipped refresh
+     */
+    boolean isSuspended(String cacheName) {
+        return pausedCaches.contains(cacheName) || (settings.getFailureBackoff() != null && getFailureBackoff(cacheName).isBackingOff());
+    }
+
+    private FailureBackoff getFailureBackoff(String cacheName) {
+        return failureBackoffs.computeIfAbsent(cacheName, name -> new FailureBackoff(settings.getFailureBackoff(), settings.getMaxFailureBackoff()));
+    }
+
+    /**
+     * Runs the given refresh of the given caches, coordinated with the other nodes of the cluster if {@link CacheRefreshSettings#isClusterCoordinated()}:
+     * the partitions of the keys are locked one after another, starting at a random partition, and the refresh is run for every
+     * locked partition. Partitions locked by other nodes are skipped, so that nodes refreshing the same tick split the partitions
+     * among themselves. A refreshed partition stays locked for {@link CacheRefreshSettings#getLockAtLeastFor()}, so that nodes
+     * ticking later skip it. The refresh is not recorded at all if every partition is locked by other nodes, unless the caches
+     * are local to each node (see {@link #refreshUnpublished(BitSet, Set, Runnable)}).
+     */
+    private void refreshCoordinated(Collection<String> cacheNames, Runnable refresh) {
+        RefreshLockProvider lockProvider = settings.getLockProvider();
+        if (lockProvider == null) {
+            refreshAndRecord(cacheNames, refresh);
+            return;
+        }
+        boolean localCaches = settings.getEntryPublisher() != null;
+        Set<ParametersKey> publishedKeys = Set.of();
+        if (localCaches) {
+            publishedKeys = receivedKeys;
+            receivedKeys = ConcurrentHashMap.newKeySet();
+        }
+        Instant tickStart = Instant.now();
+        int partitions = settings.getClusterPartitions();
+        int firstPartition = ThreadLocalRandom.current().nextInt(partitions);
+        int index = nextLockedPartition(lockProvider, 0, firstPartition, tickStart);
+        if (index >= partitions && !localCaches) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Skipping refresh of caches %s since they are refreshed by other nodes.".formatted(cacheNames));
+            }
+            return;
+        }
+        Set<ParametersKey> unpublishedFilter = publishedKeys;
+        refreshAndRecord(cacheNames, () -> {
+            BitSet lockedPartitions = new BitSet(partitions);
+            for (int i = index; i < partitions; i = nextLockedPartition(lockProvider, i + 1, firstPartition, tickStart)) {
+                int partition = (firstPartition + i) % partitions;
+                lockedPartitions.set(partition);
+                currentPartition = partitions > 1 ? partition : ALL_PARTITIONS;
+                try {
+                    refresh.run();
+                } finally {
+                    currentPartition = ALL_PARTITIONS;
+                    Instant lockUntil = tickStart.plus(settings.getLockAtLeastFor());
+                    Instant now = Instant.now();
+                    unlock(lockProvider, partition, lockUntil.isAfter(now) ? lockUntil : now);
+                }
+            }
+            if (localCaches && lockedPartitions.cardinality() < partitions) {
+                refreshUnpublished(lockedPartitions, unpublishedFilter, refresh);
+            }
+        });
+    }
+
+    /**
+     * Runs the given refresh for the keys of the partitions locked by other nodes that these nodes did not publish since the
+     * previous refresh. Only needed if the caches are local to each node: the nodes only refresh (and publish) the keys cached
+     * on themselves, keys cached on this node only would otherwise never be refreshed.
+     *
+     * @param lockedPartitions partitions locked and already refreshed by this node
+     * @param publishedKeys    keys received from other nodes since the previous refresh
+     */
+    private void refreshUnpublished(BitSet lockedPartitions, Set<ParametersKey> publishedKeys, Runnable refresh) {
+        int partitions = settings.getClusterPartitions();
+        unpublishedKeys = key -> !lockedPartitions.get(partitionOf(key, partitions)) && !publishedKeys.contains(key);
+        currentPartition = UNPUBLISHED_PARTITIONS;
+        try {
+            refresh.run();
+        } finally {
+            currentPartition = ALL_PARTITIONS;
+            unpublishedKeys = null;
+        }
+    }
+
+    /**
+     * Locks the next partition not locked by another node, starting with the partition at the given index.
+     * No further partitions are locked once the {@link CacheRefreshSettings#getRefreshDeadline()} is exceeded.
+     *
+     * @return index of the locked partition, relative to {@code firstPartition}, the number of partitions if none was locked
+     */
+    private int nextLockedPartition(RefreshLockProvider lockProvider, int index, int firstPartition, Instant tickStart) {
+        int partitions = settings.getClusterPartitions();
+        for (; index < partitions; index++) {
+            if (dispatcher.isPastCycleDeadline()) {
+                return partitions;
+            }
+            String lockName = getLockName((firstPartition + index) % partitions);
+            try {
+                if (lockProvider.tryLock(lockName, tickStart.plus(settings.getLockAtMostFor()))) {
+                    return index;
+                }
+            } catch (RuntimeException e) {
+                // Rather skip the refresh than let every node refresh at once
+                logger.warn("Failed to acquire lock '%s', skipping its refresh.".formatted(lockName), e);
+            }
+        }
+        return partitions;
+    }
+
+    private void unlock(RefreshLockProvider lockProvider, int partition, Instant lockUntil) {
+        String lockName = getLockName(partition);
+        try {
+            lockProvider.unlock(lockName, lockUntil);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release lock '%s', it expires after %s.".formatted(lockName, settings.getLockAtMostFor()), e);
+        }
+    }
+
+    /**
+     * @return name of the cluster-wide lock of the given partition of the keys of this refresher, see {@link RefreshLockProvider}
+     */
+    public String getLockName(int partition) {
+        return "cache-refresh:" + String.join(",", caches.keySet()) + ":" + partition;
+    }
+
+    /**
+     * Runs the given refresh of the given caches and records its duration in their statistics.
+     */
+    private void refreshAndRecord(Collection<String> cacheNames, Runnable refresh) {
+        int spreadSlots = settings.getSpreadSlots();
+        for (String cacheName : cacheNames) {
+            CacheRefreshStatistics cacheStatistics = getStatistics(cacheName);
+            if (!settings.isBudgeted() && currentSlot == 0) {
+                cacheStatistics.cycleStarted();
+            }
+            cacheStatistics.refreshStarted();
+        }
+        long startNanos = System.nanoTime();
+        refresh.run();
+        long durationNanos = System.nanoTime() - startNanos;
+        for (String cacheName : cacheNames) {
+            CacheRefreshStatistics cacheStatistics = getStatistics(cacheName);
+            cacheStatistics.refreshFinished(durationNanos);
+            if (settings.isBudgeted()) {
+                RefreshCursor cursor = cursors.get(cacheName);
+                if (cursor != null && cursor.isSweepFinished()) {
+                    cacheStatistics.cycleFinished(0);
+                }
+            } else if (currentSlot == spreadSlots - 1) {
+                // A skipped tick leaves the entries of its slot unrefreshed
+                cacheStatistics.cycleFinished(spreadSlots);
+            }
+            if (settings.getFailureBackoff() != null) {
+                getFailureBackoff(cacheName).refreshFinished(cacheStatistics.getLastRefreshedCount(), cacheStatistics.getLastFailedCount());
+            }
+            listener.onRefreshFinished(cacheName, durationNanos, cacheStatistics.getLastRefreshedCount());
+            if (logger.isTraceEnabled()) {
+                logger.trace("Refreshed %d entries in cache '%s'.".formatted(cacheStatistics.getLastRefreshedCount(), cacheName));
+            }
+        }
+    }
+
+    /**
+     * Refreshes multiple caches of the method at once. The keys of all caches are merged, so that the cached method
+     * (or the batch method) is invoked only once per distinct key and the result is written to every cache holding the key.
+     * The invocation is recorded for the first cache holding the key.
+     */
+    protected void refreshCachesMerged(Map<String, C> caches) {
+        Map<ParametersKey, List<String>> cacheNamesByKey = new LinkedHashMap<>();
+        caches.forEach((cacheName, c) -> selectKeysToRefresh(c, cacheName)
+                .forEach(key -> cacheNamesByKey.computeIfAbsent(key, k -> new ArrayList<>(caches.size())).add(cacheName)));
+        if (batchLoader == null && asyncAdapter != null) {
+            refreshEntriesAsync(cacheNamesByKey.keySet(), key -> cacheNamesByKey.get(key).get(0),
+                    (key, value) -> putToCaches(key, value, cacheNamesByKey.get(key), caches));
+            return;
+        }
+        if (batchLoader == null) {
+            refreshEntries(cacheNamesByKey.keySet(), keyObject -> {
+                ParametersKey key = (ParametersKey) keyObject;
+                List<String> cacheNames = cacheNamesByKey.get(key);
+                try {
+                    putToCaches(key, refreshEntry(key, cacheNames.get(0)), cacheNames, caches);
+                } catch (Exception e) {
+                    logRefreshFailure(List.of(key), cacheNames, e);
+                }
+            });
+            return;
+        }
+        // Group the keys by the cache the batch invocations are recorded for
+        Map<String, List<ParametersKey>> keysByFirstCacheName = new LinkedHashMap<>();
+        cacheNamesByKey.forEach((key, cacheNames) -> keysByFirstCacheName.computeIfAbsent(cacheNames.get(0), name -> new ArrayList<>()).add(key));
+        keysByFirstCacheName.forEach((firstCacheName, keys) -> refreshBatches(keys, batch -> {
+            try {
+                refreshBatch(batch, firstCacheName).forEach((key, value) -> putToCaches(key, value, cacheNamesByKey.get(key), caches));
+            } catch (Exception e) {
+                logRefreshFailure(batch, List.copyOf(caches.keySet()), e);
+            }
+        }));
+    }
+
+    /**
+     * Logs the exception thrown by the invocation of the cached method (or the batch method) refreshing the given cache-entries,
+     * which retain their old cached values.
+     */
+    protected void logRefreshFailure(List<ParametersKey> keys, Collection<String> cacheNames, Throwable failure) {
+        logInvocationFailure("Refresh for", keys, cacheNames, failure, keys.size() == 1
+                ? "The old cached value is retained for this entry." : "The old cached values are retained for these entries.");
+    }
+
+    /**
+     * Same as {@link #logRefreshFailure(List, Collection, Throwable)} for entries that are skipped by {@link #preload(Collection, Iterable, int, Executor)}
+     */
+    private void logPreloadFailure(List<ParametersKey> keys, Collection<String> cacheNames, Throwable failure) {
+        logInvocationFailure("Preloading", keys, cacheNames, failure, keys.size() == 1 ? "Skipping this entry." : "Skipping these entries.");
+    }
+
+    private void logInvocationFailure(String operation, List<ParametersKey> keys, Collection<String> cacheNames, Throwable failure, String consequence) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        String entries = keys.size() == 1 ? "cache-entry with key '%s'".formatted(keys.get(0)) : "batch of %d cache-entries".formatted(keys.size());
+        String cachesDescription = cacheNames.size() == 1 ? "cache '%s'".formatted(cacheNames.iterator().next()) : "caches %s".formatted(cacheNames);
+        Method invokedMethod = batchLoader != null ? batchLoader.getBatchMethod() : method;
+        logger.debug("%s %s for %s threw an exception while invoking bean-method '%s#%s'. %s"
+                .formatted(operation, entries, cachesDescription, bean.getClass().getSimpleName(), invokedMethod.toGenericString(), consequence), failure);
+    }
+
+    /**
+     * Stores the given refreshed value in the given caches of the method
+     */
+    void storeRefreshed(ParametersKey key, @Nullable Object value, List<String> cacheNames) {
+        putToCaches(key, value, cacheNames, caches);
+    }
+
+    private void putToCaches(ParametersKey key, Object value, @Nullable List<String> cacheNames, Map<String, C> caches) {
+        if (cacheNames == null) {
+            return;
+        }
+        for (int i = 0; i < cacheNames.size(); i++) {
+            String cacheName = cacheNames.get(i);
+            store(caches.get(cacheName), cacheName, key, value);
+            if (i > 0) {
+                // The refresh of the first cache is already recorded by the invocation
+                getStatistics(cacheName).entryRefreshed();
+            }
         }
     }
 
     public abstract void refreshCache(C c, String cacheName);
 
+    /**
+     * Selects the keys of the given cache to refresh in the current tick,
+     * see {@link #selectKeysToRefresh(Iterable, Consumer, Predicate, String)}.
+     */
+    protected abstract Iterable<ParametersKey> selectKeysToRefresh(C c, String cacheName);
+
+    /**
+     * Stores the refreshed value of a cache-entry in the given cache.
+     */
+    protected abstract void put(C c, ParametersKey key, Object value);
+
+    /**
+     * Stores the refreshed value of a cache-entry in the given cache via {@link #put(Object, ParametersKey, Object)}.
+     * The value is not written if it is the cached instance itself, i.e. the method returned {@link RefreshContext#notModified()}.
+     * If {@link CacheRefreshSettings#isSkipUnchanged()}, the value is only written if it differs from the cached value,
+     * and the {@link CacheRefreshListener#onEntryChanged(String, ParametersKey, Object, Object)} is notified about the change.
+     */
+    protected void store(C c, String cacheName, ParametersKey key, @Nullable Object value) {
+        Object oldValue = fromStoreValue(asMap(c).get(key));
+        if (retainCachedValue(cacheName, oldValue, value)) {
+            return;
+        }
+        put(c, key, toStoreValue(value));
+        entryWritten(cacheName, key, oldValue, value);
+    }
+
+    /**
+     * Converts a value returned by the cached method into the value stored in the native caches, just like Spring's
+     * {@link org.springframework.cache.support.AbstractValueAdaptingCache}: {@code null} is stored as {@link NullValue#INSTANCE}.
+     *
+     * @return {@code null} if the value is {@code null} and the caches do not allow {@code null} values
+     */
+    @Nullable
+    public Object toStoreValue(@Nullable Object value) {
+        return value != null || !allowNullValues ? value : NullValue.INSTANCE;
+    }
+
+    /**
+     * Converts a value stored in the native caches back into the value returned by the cached method.
+     */
+    @Nullable
+    public Object fromStoreValue(@Nullable Object storeValue) {
+        return storeValue == NullValue.INSTANCE ? null : storeValue;
+    }
+
+    /**
+     * Decides whether the cached value is retained instead of writing the refreshed value, i.e. if the refreshed value is the
+     * cached instance itself (see {@link RefreshContext#notModified()}) or did not change (see {@link CacheRefreshSettings#isSkipUnchanged()}).
+     * Retained values are counted in the statistics.
+     * Caches writing the refreshed values themselves (e.g. in bulk) have to call this and {@link #entryWritten(String, ParametersKey, Object, Object)}.
+     *
+     * @param cachedValue value currently cached, {@code null} if not cached
+     * @return {@code true} if the refreshed value must not be written
+     */
+    protected boolean retainCachedValue(String cacheName, @Nullable Object cachedValue, @Nullable Object value) {
+        if (value == null && !allowNullValues) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Refresh of cache-entry with key for cache '%s' returned null, which the cache does not allow. The old cached value is retained."
+                        .formatted(cacheName));
+            }
+            return true;
+        }
+        if (cachedValue != null && (cachedValue == value || (settings.isSkipUnchanged() && isUnchanged(cachedValue, value)))) {
+            getStatistics(cacheName).entryUnchanged();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Notifies the {@link CacheRefreshListener#onEntryChanged(String, ParametersKey, Object, Object)} after a refreshed value
+     * was written, if {@link CacheRefreshSettings#isSkipUnchanged()}, and publishes it via the {@link CacheRefreshSettings#getEntryPublisher()}.
+     */
+    protected void entryWritten(String cacheName, ParametersKey key, @Nullable Object oldValue, @Nullable Object value) {
+        if (settings.isSkipUnchanged()) {
+            listener.onEntryChanged(cacheName, key, oldValue, value);
+        }
+        RefreshedEntryPublisher entryPublisher = settings.getEntryPublisher();
+        if (entryPublisher != null) {
+            try {
+                entryPublisher.publish(cacheName, key, value);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish refreshed cache-entry with key '%s' of cache '%s' to the other nodes.".formatted(key, cacheName), e);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #store(Object, String, ParametersKey, Object)} for caches storing the value returned by a reload
+     * themselves, e.g. Caffeine's {@code CacheLoader#reload}.
+     *
+     * @return the old value itself if the value did not change, so that the cached instance is retained, otherwise the refreshed value
+     */
+    @Nullable
+    public Object reloaded(String cacheName, ParametersKey key, Object oldValue, @Nullable Object value) {
+        Object cachedValue = fromStoreValue(oldValue);
+        if (retainCachedValue(cacheName, cachedValue, value)) {
+            return oldValue;
+        }
+        entryWritten(cacheName, key, cachedValue, value);
+        return toStoreValue(value);
+    }
+
+    /**
+     * Compares the given values via the {@link CacheRefreshSettings#getFingerprint()}, or via {@link Object#equals(Object)} if none is set.
+     * The values of asynchronous methods are compared once resolved, unresolved values are considered as changed.
+     */
+    private boolean isUnchanged(Object oldValue, @Nullable Object newValue) {
+        if (asyncAdapter != null) {
+            if (newValue == null) {
+                return false;
+            }
+            oldValue = asyncAdapter.getNow(oldValue);
+            newValue = asyncAdapter.getNow(newValue);
+            if (oldValue == AsyncResultAdapter.UNRESOLVED || newValue == AsyncResultAdapter.UNRESOLVED) {
+                return false;
+            }
+        }
+        Function<Object, ?> fingerprint = settings.getFingerprint();
+        if (fingerprint == null || oldValue == null || newValue == null) {
+            return Objects.equals(oldValue, newValue);
+        }
+        return Objects.equals(fingerprint.apply(oldValue), fingerprint.apply(newValue));
+    }
+
+    /**
+     * @return live {@link Map} view of the given cache
+     */
+    protected abstract Map<Object, Object> asMap(C c);
+
+    /**
+     * Loads the up-to-date value of a single cache-entry by invoking the cached method, recording the invocation in the
+     * {@link #getStatistics(String) statistics} and notifying the {@link CacheRefreshListener}.
+     *
+     * @throws Exception thrown by the cached method
+     */
+    public Object refreshEntry(ParametersKey key, String cacheName) throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            RefreshContext context = createRefreshContext(key, cacheName);
+            Object value = invokeWithTimeout(() -> context.call(() -> invoker.invoke(key.getParams())));
+            getStatistics(cacheName).entryRefreshed();
+            recordInvocation(cacheName, System.nanoTime() - startNanos, 1, null);
+            recordLoad(key, System.nanoTime() - startNanos);
+            return value;
+        } catch (Exception e) {
+            recordInvocation(cacheName, System.nanoTime() - startNanos, 0, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #refreshEntry(ParametersKey, String)}, but without blocking until the value of an asynchronous method
+     * (see {@link #isAsync()}) is resolved. The returned future completes with the value to store in the cache, i.e. a
+     * completed instance of the method's return type, or exceptionally if the invocation failed.
+     */
+    public CompletableFuture<Object> refreshEntryAsync(ParametersKey key, String cacheName) {
+        if (asyncAdapter == null) {
+            try {
+                return CompletableFuture.completedFuture(refreshEntry(key, cacheName));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        long startNanos = System.nanoTime();
+        RefreshContext context = createRefreshContext(key, cacheName);
+        CompletableFuture<Object> result;
+        try {
+            Object invocationResult = context.call(() -> invoker.invoke(key.getParams()));
+            if (context.isNotModified()) {
+                // Retain the cached instance instead of wrapping its resolved value again
+                getStatistics(cacheName).entryRefreshed();
+                recordInvocation(cacheName, System.nanoTime() - startNanos, 1, null);
+                recordLoad(key, System.nanoTime() - startNanos);
+                return CompletableFuture.completedFuture(invocationResult);
+            }
+            result = asyncAdapter.toFuture(invocationResult);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        Duration refreshTimeout = settings.getRefreshTimeout();
+        if (refreshTimeout != null && !result.isDone()) {
+            // Not orTimeout() on the result itself, since that does not cancel the underlying invocation
+            CompletableFuture<Object> source = result;
+            CompletableFuture.delayedExecutor(refreshTimeout.toNanos(), TimeUnit.NANOSECONDS, settings.getTimeoutExecutor())
+                    .execute(() -> source.cancel(true));
+        }
+        return result.handle((value, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof CancellationException && refreshTimeout != null) {
+                    cause = new RefreshTimeoutException(method.toGenericString(), refreshTimeout);
+                }
+                recordInvocation(cacheName, System.nanoTime() - startNanos, 0, cause);
+                throw e instanceof CompletionException completionException && completionException.getCause() == cause
+                        ? completionException : new CompletionException(cause);
+            }
+            getStatistics(cacheName).entryRefreshed();
+            recordInvocation(cacheName, System.nanoTime() - startNanos, 1, null);
+            recordLoad(key, System.nanoTime() - startNanos);
+            return asyncAdapter.fromValue(value);
+        });
+    }
+
+    /**
+     * Loads the up-to-date values of a batch of cache-entries via the {@link #getBatchLoader()}, recording the invocation in the
+     * {@link #getStatistics(String) statistics} and notifying the {@link CacheRefreshListener}.
+     *
+     * @throws Exception thrown by the batch method
+     */
+    public Map<ParametersKey, Object> refreshBatch(List<ParametersKey> keys, String cacheName) throws Exception {
+        if (batchLoader == null) {
+            throw new IllegalStateException("No batch method specified for bean method '%s#%s'".formatted(bean.getClass().getSimpleName(), method.toGenericString()));
+        }
+        long startNanos = System.nanoTime();
+        try {
+            Map<ParametersKey, Object> values = invokeWithTimeout(() -> batchLoader.loadAll(keys));
+            getStatistics(cacheName).entriesRefreshed(values.size());
+            long durationNanos = System.nanoTime() - startNanos;
+            recordInvocation(cacheName, durationNanos, values.size(), null);
+            if (!values.isEmpty()) {
+                // The compute cost of a single entry is approximated by its share of the batch
+                values.keySet().forEach(key -> recordLoad(key, durationNanos / values.size()));
+            }
+            return values;
+        } catch (Exception e) {
+            recordInvocation(cacheName, System.nanoTime() - startNanos, 0, e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return context of the refresh of the given cache-entry, looking up its previous value in the given cache only if requested
+     */
+    private RefreshContext createRefreshContext(ParametersKey key, String cacheName) {
+        return new RefreshContext(key, cacheName, () -> {
+            C c = caches.get(cacheName);
+            return c != null ? fromStoreValue(asMap(c).get(key)) : null;
+        });
+    }
+
+    /**
+     * Invokes the given method invocation, abandoning it after {@link CacheRefreshSettings#getRefreshTimeout()}. The invocation
+     * then runs on the {@link CacheRefreshSettings#getTimeoutExecutor()} and is interrupted on timeout. Without a timeout
+     * the invocation runs on the calling thread.
+     *
+     * @throws RefreshTimeoutException if the invocation did not finish in time
+     */
+    private <T> T invokeWithTimeout(Callable<T> invocation) throws Exception {
+        Duration refreshTimeout = settings.getRefreshTimeout();
+        if (refreshTimeout == null) {
+            return invocation.call();
+        }
+        FutureTask<T> task = new FutureTask<>(invocation);
+        settings.getTimeoutExecutor().execute(task);
+        try {
+            return task.get(refreshTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new RefreshTimeoutException(method.toGenericString(), refreshTimeout);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records a finished invocation of the cached (or batch) method in the statistics, the {@link #getConcurrencyLimit()}
+     * and the {@link CacheRefreshListener}.
+     */
+    private void recordInvocation(String cacheName, long durationNanos, int entryCount, @Nullable Throwable failure) {
+        if (failure != null) {
+            getStatistics(cacheName).entryFailed(failure);
+        }
+        dispatcher.getConcurrencyLimit().onInvocation(durationNanos, failure != null);
+        listener.onInvocation(cacheName, durationNanos, entryCount, failure);
+    }
+
+    private void recordLoad(ParametersKey key, long computeNanos) {
+        if (earlyRefreshTracker != null) {
+            earlyRefreshTracker.recordLoad(key, computeNanos);
+        }
+    }
+
+    /**
+     * Called for every {@code @Cacheable} lookup of the given cache-key if {@link CacheRefreshSettings#isEarlyRefresh()}, see
+     * {@link EarlyRefreshInterceptor}. Refreshes the cache-entry
+     * in the background (see {@link #refreshKeys(Collection)}) if the {@link EarlyRefreshTracker} decides so, i.e. the reader gets
+     * the cached value without waiting. Entries already being refreshed and entries of paused or backing off caches are not refreshed.
+     * The refreshes run on the refresh scheduler (see {@link #setRefreshScheduler(TaskScheduler)}) or the {@link CacheRefreshSettings#getExecutor()},
+     * reads do not trigger refreshes if neither is set.
+     */
+    public void entryRead(Object key) {
+        onDemandRefresher.entryRead(key);
+    }
+
+    /**
+     * @return {@code true} if any cache of the method contains the given key
+     */
+    boolean isCached(Object key) {
+        for (C c : caches.values()) {
+            if (c != null && asMap(c).containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies {@code refreshEntry} to every given cache-key. If {@link CacheRefreshSettings#getParallelism()} is greater than {@code 1}
+     * the keys are refreshed on the configured {@link Executor}, with at most {@code parallelism} keys (or the current
+     * {@link #getConcurrencyLimit()}) being refreshed concurrently. Returns only after all keys have been refreshed,
+     * or once the {@link CacheRefreshSettings#getRefreshDeadline()} of the current refresh is exceeded.
+     *
+     * @param keys         cache-keys to refresh
+     * @param refreshEntry refreshes a single cache-entry, must not throw any exception
+     */
+    protected void refreshEntries(Iterable<?> keys, Consumer<Object> refreshEntry) {
+        dispatcher.refreshEntries(keys, refreshEntry, dispatcher.cycle());
+    }
+
+    /**
+     * Same as {@link #refreshEntries(Iterable, Consumer)}, but with the given parallelism and executor and without deadline.
+     */
+    protected void refreshEntries(Iterable<?> keys, Consumer<Object> refreshEntry, int parallelism, @Nullable Executor executor) {
+        dispatcher.refreshEntries(keys, refreshEntry, RefreshDispatcher.fixed(parallelism, executor));
+    }
+
+    /**
+     * Refreshes the given cache-entries of an asynchronous method (see {@link #isAsync()}) via {@link #refreshEntryAsync(ParametersKey, String)}.
+     * No thread is blocked per entry, instead at most {@link CacheRefreshSettings#getParallelism()} invocations (or the current
+     * {@link #getConcurrencyLimit()}) are in flight at once, further invocations wait for a running one to complete. Returns only after all keys have been refreshed,
+     * or once the {@link CacheRefreshSettings#getRefreshDeadline()} of the current refresh is exceeded.
+     *
+     * @param cacheNameOf cache the invocation is recorded for
+     * @param store       stores the refreshed value, must not throw any exception
+     */
+    protected void refreshEntriesAsync(Iterable<ParametersKey> keys, Function<ParametersKey, String> cacheNameOf, BiConsumer<ParametersKey, Object> store) {
+        dispatcher.refreshEntriesAsync(keys, key -> refreshAndStoreAsync(key, cacheNameOf.apply(key), store), dispatcher.cycle());
+    }
+
+    /**
+     * Same as {@link #refreshEntriesAsync(Iterable, Function, BiConsumer)}, but with the given maximum number of invocations in flight and without deadline.
+     */
+    protected void refreshEntriesAsync(Iterable<ParametersKey> keys, Function<ParametersKey, String> cacheNameOf, BiConsumer<ParametersKey, Object> store, int maxInFlight) {
+        dispatcher.refreshEntriesAsync(keys, key -> refreshAndStoreAsync(key, cacheNameOf.apply(key), store), RefreshDispatcher.fixed(maxInFlight, null));
+    }
+
+    private CompletableFuture<Object> refreshAndStoreAsync(ParametersKey key, String cacheName, BiConsumer<ParametersKey, Object> store) {
+        return refreshEntryAsync(key, cacheName).whenComplete((value, e) -> {
+            if (e == null) {
+                store.accept(key, value);
+            } else {
+                logRefreshFailure(List.of(key), List.of(cacheName), e);
+            }
+        });
+    }
+
+    /**
+     * Splits the given keys into batches of at most {@link CacheRefreshSettings#getBatchSize()} keys and applies {@code refreshBatch}
+     * to each of them, concurrently if {@link CacheRefreshSettings#getParallelism()} is greater than {@code 1}.
+     * The batches are built lazily while iterating the keys.
+     *
+     * @param keys         cache-keys to refresh
+     * @param refreshBatch refreshes the cache-entries of a batch of keys, must not throw any exception
+     */
+    protected void refreshBatches(Iterable<ParametersKey> keys, Consumer<List<ParametersKey>> refreshBatch) {
+        dispatcher.refreshBatches(keys, refreshBatch, dispatcher.cycle());
+    }
+
+    /**
+     * Same as {@link #refreshBatches(Iterable, Consumer)}, but with the given parallelism and executor and without deadline.
+     */
+    protected void refreshBatches(Iterable<ParametersKey> keys, Consumer<List<ParametersKey>> refreshBatch, int parallelism, @Nullable Executor executor) {
+        dispatcher.refreshBatches(keys, refreshBatch, RefreshDispatcher.fixed(parallelism, executor));
+    }
+
+    /**
+     * Waits for the given future of the refresh of multiple entries, at most until the {@link CacheRefreshSettings#getRefreshDeadline()}
+     * of the current refresh is exceeded. Exceptions of the future are ignored.
+     */
+    protected void awaitRefresh(CompletableFuture<?> refresh) {
+        dispatcher.awaitRefresh(refresh);
+    }
+
+    /**
+     * Loads the entries of the given keys into the given caches by invoking the cached method (or the batch method) once per key,
+     * e.g. to warm up the caches on startup. Keys that fail to load are skipped.
+     *
+     * @param parallelism maximum number of keys (or batches) loaded concurrently on the given executor
+     * @return number of loaded entries
+     */
+    public int preload(Collection<String> cacheNames, Iterable<ParametersKey> keys, int parallelism, @Nullable Executor executor) {
+        List<C> targetCaches = cacheNames.stream().map(caches::get).filter(Objects::nonNull).toList();
+        if (targetCaches.isEmpty()) {
+            return 0;
+        }
+        String cacheName = cacheNames.iterator().next();
+        AtomicInteger loadedCount = new AtomicInteger();
+        if (batchLoader != null) {
+            refreshBatches(keys, batch -> {
+                try {
+                    Map<ParametersKey, Object> values = refreshBatch(batch, cacheName);
+                    values.forEach((key, value) -> targetCaches.forEach(c -> preloaded(c, key, value)));
+                    loadedCount.addAndGet(values.size());
+                } catch (Exception e) {
+                    logPreloadFailure(batch, cacheNames, e);
+                }
+            }, parallelism, executor);
+        } else if (asyncAdapter != null) {
+            refreshEntriesAsync(keys, key -> cacheName, (key, value) -> {
+                targetCaches.forEach(c -> preloaded(c, key, value));
+                loadedCount.incrementAndGet();
+            }, parallelism);
+        } else {
+            refreshEntries(keys, keyObject -> {
+                ParametersKey key = (ParametersKey) keyObject;
+                try {
+                    Object value = refreshEntry(key, cacheName);
+                    targetCaches.forEach(c -> preloaded(c, key, value));
+                    loadedCount.incrementAndGet();
+                } catch (Exception e) {
+                    logPreloadFailure(List.of(key), cacheNames, e);
+                }
+            }, parallelism, executor);
+        }
+        return loadedCount.get();
+    }
+
+    private void preloaded(C c, ParametersKey key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        if (storeValue != null) {
+            put(c, key, storeValue);
+            recordStored(key);
+        }
+    }
+
+    /**
+     * Records an access of the given cache-key stored without being read, so that it is not evicted or skipped
+     * by the next refresh as if it was idle forever.
+     */
+    private void recordStored(ParametersKey key) {
+        if (accessTracker != null) {
+            accessTracker.recordAccess(key);
+        }
+    }
+
+    /**
+     * Loads the keys provided by {@link CacheRefreshSettings#getWarmUpKeyProvider()} that are missing in any of the caches,
+     * see {@link #preload(Collection, Iterable, int, Executor)}.
+     *
+     * @return number of loaded entries
+     */
+    public int warmUp(int parallelism, @Nullable Executor executor) {
+        Supplier<? extends Iterable<?>> warmUpKeyProvider = settings.getWarmUpKeyProvider();
+        if (warmUpKeyProvider == null) {
+            return 0;
+        }
+        List<ParametersKey> keys = new ArrayList<>();
+        for (Object element : warmUpKeyProvider.get()) {
+            ParametersKey key = toParametersKey(element);
+            if (caches.keySet().stream().anyMatch(cacheName -> !getEntries(cacheName).containsKey(key))) {
+                keys.add(key);
+            }
+        }
+        return preload(caches.keySet(), keys, parallelism, executor);
+    }
+
+    /**
+     * Converts a key given by the application, e.g. by the {@link CacheRefreshSettings#getWarmUpKeyProvider()}: {@link ParametersKey}s
+     * are used as is, other elements are the argument of a method with a single parameter or the {@code Object[]} of all arguments.
+     *
+     * @throws IllegalArgumentException if the element does not match the parameters of the cached method
+     */
+    public ParametersKey toParametersKey(Object element) {
+        if (element instanceof ParametersKey key) {
+            return key;
+        }
+        if (method.getParameterCount() == 1) {
+            return ParametersKey.of(element);
+        }
+        if (element instanceof Object[] params && params.length == method.getParameterCount()) {
+            return ParametersKey.of(params);
+        }
+        throw new IllegalArgumentException("Key '%s' does not match the parameters of bean method '%s#%s', expected a ParametersKey or Object[] of the arguments"
+                .formatted(element, bean.getClass().getSimpleName(), method.toGenericString()));
+    }
+
+    /**
+     * Refreshes the entries of the given keys in all caches of the method right away, independent of the scheduled refreshes.
+     * Keys that are already being refreshed by a previous call are not refreshed again, the returned future then completes
+     * together with the running refresh. The keys are refreshed on the refresh scheduler (see {@link #setRefreshScheduler(TaskScheduler)}),
+     * in batches if a {@link #getBatchLoader()} is set, or without blocking if the method is asynchronous.
+     * Without a refresh scheduler, the keys are refreshed one after another on the {@link CacheRefreshSettings#getExecutor()}.
+     * If neither is set, they are refreshed on the calling thread, i.e. this method blocks until the returned future is completed.
+     *
+     * @return future completing once all entries were refreshed, exceptionally if any invocation failed
+     */
+    public CompletableFuture<Void> refreshKeys(Collection<ParametersKey> keys) {
+        return onDemandRefresher.refreshKeys(keys);
+    }
+
+    /**
+     * Stores the given entries in the given cache as is, without invoking the cached method.
+     * The values have to be store values, see {@link #toStoreValue(Object)}. Since their age is unknown, they are refreshed
+     * on their next read if {@link CacheRefreshSettings#isEarlyRefresh()}.
+     */
+    public void putAll(String cacheName, Map<ParametersKey, Object> entries) {
+        C c = caches.get(cacheName);
+        if (c != null) {
+            entries.forEach((key, value) -> {
+                put(c, key, value);
+                recordStored(key);
+            });
+        }
+    }
+
+    /**
+     * Stores the given values just returned by the cached method in the given cache, without invoking the cached method.
+     */
+    public void storeAll(String cacheName, Map<ParametersKey, ?> values) {
+        C c = caches.get(cacheName);
+        if (c != null) {
+            boolean localCaches = settings.getEntryPublisher() != null;
+            values.forEach((key, value) -> {
+                preloaded(c, key, value);
+                if (earlyRefreshTracker != null) {
+                    earlyRefreshTracker.recordStored(key);
+                }
+                if (localCaches) {
+                    receivedKeys.add(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return live view of the entries of the given cache, empty if the cache does not exist
+     */
+    public Map<Object, Object> getEntries(String cacheName) {
+        C c = caches.get(cacheName);
+        return c != null ? asMap(c) : Map.of();
+    }
+
+    /**
+     * Selects the keys of the given cache to refresh in the current tick. If {@link CacheRefreshSettings#isBudgeted()}, the
+     * returned keys are limited to the budget of a single tick and the next tick continues where this one stopped,
+     * otherwise all keys that should be refreshed are returned (see {@link #collectKeysToRefresh(Iterable, Consumer, String)}).
+     *
+     * @param cacheKeys   all keys of the cache
+     * @param evict       evicts a key from the cache
+     * @param containsKey checks if a key is still present in the cache
+     */
+    protected Iterable<ParametersKey> selectKeysToRefresh(Iterable<?> cacheKeys, Consumer<Object> evict, Predicate<Object> containsKey, String cacheName) {
+        if (!settings.isBudgeted()) {
+            return collectKeysToRefresh(cacheKeys, evict, cacheName);
+        }
+        RefreshCursor cursor = cursors.computeIfAbsent(cacheName, RefreshCursor::new);
+        if (cursor.isSweepFinished()) {
+            getStatistics(cacheName).cycleStarted();
+            cursor.startSweep(collectKeysToRefresh(cacheKeys, evict, cacheName));
+        }
+        int maxKeysPerTick = settings.getMaxKeysPerTick();
+        return cursor.next(maxKeysPerTick > 0 ? maxKeysPerTick : Integer.MAX_VALUE, settings.getMaxTimePerTick(), containsKey);
+    }
+
+    /**
+     * Collects all keys of the given cache-keys that should be refreshed, see {@link #getEntryAction(Object)}.
+     * Keys that are not of type {@link ParametersKey} are skipped, idle keys are evicted via {@code evict}.
+     */
+    protected List<ParametersKey> collectKeysToRefresh(Iterable<?> keys, Consumer<Object> evict, String cacheName) {
+        List<ParametersKey> keysToRefresh = new ArrayList<>();
+        for (Object keyObject : keys) {
+            if (isToRefresh(keyObject, evict, cacheName)) {
+                keysToRefresh.add((ParametersKey) keyObject);
+            }
+        }
+        return keysToRefresh;
+    }
+
+    /**
+     * Same as {@link #selectKeysToRefresh(Iterable, Consumer, Predicate, String)}, but unless {@link CacheRefreshSettings#isBudgeted()},
+     * the keys are selected lazily while the returned {@link Iterable} is iterated (once), instead of collecting all keys on heap.
+     * Meant for caches whose keys are iterated from off-heap or remote storage.
+     */
+    protected Iterable<ParametersKey> streamKeysToRefresh(Iterable<?> cacheKeys, Consumer<Object> evict, Predicate<Object> containsKey, String cacheName) {
+        if (settings.isBudgeted()) {
+            return selectKeysToRefresh(cacheKeys, evict, containsKey, cacheName);
+        }
+        return () -> new Iterator<>() {
+
+            private final Iterator<?> keyIterator = cacheKeys.iterator();
+
+            @Nullable
+            private ParametersKey next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && keyIterator.hasNext()) {
+                    Object keyObject = keyIterator.next();
+                    if (isToRefresh(keyObject, evict, cacheName)) {
+                        next = (ParametersKey) keyObject;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public ParametersKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ParametersKey key = next;
+                next = null;
+                return key;
+            }
+        };
+    }
+
+    /**
+     * @return {@code true} if the given cache-key should be refreshed in the current tick, evicts it via {@code evict} if idle
+     */
+    private boolean isToRefresh(Object keyObject, Consumer<Object> evict, String cacheName) {
+        if (!(keyObject instanceof ParametersKey key)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Found cache-key in cache '%s' that is not of type 'ParametersKey': '%s', skipping refresh."
+                        .formatted(cacheName, keyObject));
+            }
+            return false;
+        }
+        if (!isInCurrentSlot(key) || !isInCurrentPartition(key)) {
+            return false;
+        }
+        switch (getEntryAction(key)) {
+            case REFRESH -> {
+                return true;
+            }
+            case SKIP -> {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Skipped refresh of idle cache-entry with key '%s' for cache '%s'.".formatted(key, cacheName));
+                }
+            }
+            case EVICT -> {
+                evict.accept(key);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Evicted idle cache-entry with key '%s' from cache '%s'.".formatted(key, cacheName));
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the given cache-key should be refreshed in the current tick, based on a stable hash of the key
+     * @see CacheRefreshSettings#getSpreadSlots()
+     */
+    protected boolean isInCurrentSlot(Object key) {
+        int spreadSlots = settings.getSpreadSlots();
+        if (spreadSlots <= 1) {
+            return true;
+        }
+        return slotOf(key, spreadSlots, slotOffset) == currentSlot;
+    }
+
+    /**
+     * @return {@code true} if the given key belongs to the partition of the keys locked by the running coordinated refresh,
+     * always {@code true} if the refresh is not coordinated, see {@link CacheRefreshSettings#getClusterPartitions()}
+     */
+    protected boolean isInCurrentPartition(Object key) {
+        int partition = currentPartition;
+        if (partition == UNPUBLISHED_PARTITIONS) {
+            Predicate<Object> filter = unpublishedKeys;
+            return filter == null || filter.test(key);
+        }
+        return partition == ALL_PARTITIONS || partitionOf(key, settings.getClusterPartitions()) == partition;
+    }
+
+    static int slotOf(Object key, int spreadSlots, int slotOffset) {
+        return Math.floorMod(spread(key.hashCode()) + slotOffset, spreadSlots);
+    }
+
+    /**
+     * Mixes the hash code with {@link #PARTITION_SEED} before spreading it, so that the partitions are independent of the slots,
+     * otherwise the keys of a slot would all fall into the same partition if the numbers of slots and partitions share a factor.
+     */
+    static int partitionOf(Object key, int partitions) {
+        return Math.floorMod(spread(key.hashCode() ^ PARTITION_SEED), partitions);
+    }
+
+    /**
+     * Spreads the bits of the hash code, so that similar keys are distributed evenly across the slots
+     */
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Decides what to do with the cache-entry of the given key in the current refresh, based on its last access
+     * and the {@link CacheRefreshSettings#getRefreshOnlyIfAccessedWithin()}, {@link CacheRefreshSettings#getEvictIfIdleFor()} settings.
+     */
+    protected EntryAction getEntryAction(Object key) {
+        if (accessTracker == null) {
+            return EntryAction.REFRESH;
+        }
+        Duration evictIfIdleFor = settings.getEvictIfIdleFor();
+        if (evictIfIdleFor != null && !accessTracker.wasAccessedWithin(key, evictIfIdleFor)) {
+            return EntryAction.EVICT;
+        }
+        Duration refreshOnlyIfAccessedWithin = settings.getRefreshOnlyIfAccessedWithin();
+        if (refreshOnlyIfAccessedWithin != null && !accessTracker.wasAccessedWithin(key, refreshOnlyIfAccessedWithin)) {
+            return EntryAction.SKIP;
+        }
+        return EntryAction.REFRESH;
+    }
+
+    private Duration maxIdleDuration() {
+        Duration refreshOnlyIfAccessedWithin = settings.getRefreshOnlyIfAccessedWithin();
+        Duration evictIfIdleFor = settings.getEvictIfIdleFor();
+        if (refreshOnlyIfAccessedWithin == null) {
+            return evictIfIdleFor;
+        }
+        if (evictIfIdleFor == null) {
+            return refreshOnlyIfAccessedWithin;
+        }
+        return evictIfIdleFor.compareTo(refreshOnlyIfAccessedWithin) > 0 ? evictIfIdleFor : refreshOnlyIfAccessedWithin;
+    }
+
+    /**
+     * @return duration of the last complete sweep over all entries of the given cache if {@link CacheRefreshSettings#isBudgeted()},
+     * {@code null} if no sweep has finished yet
+     */
+    @Nullable
+    public Duration getLastSweepDuration(String cacheName) {
+        RefreshCursor cursor = cursors.get(cacheName);
+        return cursor != null ? cursor.getLastSweepDuration() : null;
+    }
+
+    /**
+     * Sets the listener notified about the refreshes and notifies it about all caches of this refresher.
+     * The age of the cache-entries (see {@link CacheRefreshStatistics#getOldestEntryAge()}) is only tracked once a listener is set.
+     */
+    public void setListener(CacheRefreshListener listener) {
+        this.listening = true;
+        this.statistics.clear();
+        this.listener = listener;
+        caches.keySet().forEach(cacheName -> listener.onCacheRegistered(cacheName, this));
+    }
+
+    /**
+     * Sets whether the caches store {@code null} values. If not, refreshes returning {@code null} retain the cached value.
+     */
+    public void setAllowNullValues(boolean allowNullValues) {
+        this.allowNullValues = allowNullValues;
+    }
+
+    public void setRefreshScheduler(@Nullable TaskScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+    }
+
+    /**
+     * @return scheduler running fixed-rate, on-demand and early refreshes, {@code null} if the dedicated scheduler is disabled
+     */
+    @Nullable
+    public TaskScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    /**
+     * Pauses the scheduled refreshes of the given cache, e.g. while the source of the cached method is degraded.
+     * The cached entries are retained as is, entries refreshed on demand (see {@link #refreshKeys(Collection)}) are still refreshed.
+     *
+     * @throws IllegalArgumentException if the cache is not refreshed by this refresher
+     */
+    public void pause(String cacheName) {
+        assertCacheName(cacheName);
+        if (pausedCaches.add(cacheName) && logger.isInfoEnabled()) {
+            logger.info("Paused refreshes of cache '%s'.".formatted(cacheName));
+        }
+    }
+
+    /**
+     * Resumes the refreshes of the given cache paused by {@link #pause(String)}, starting with the next scheduled refresh.
+     *
+     * @throws IllegalArgumentException if the cache is not refreshed by this refresher
+     */
+    public void resume(String cacheName) {
+        assertCacheName(cacheName);
+        if (pausedCaches.remove(cacheName) && logger.isInfoEnabled()) {
+            logger.info("Resumed refreshes of cache '%s'.".formatted(cacheName));
+        }
+    }
+
+    public boolean isPaused(String cacheName) {
+        return pausedCaches.contains(cacheName);
+    }
+
+    /**
+     * @return {@code true} if a refresh of the caches is currently running
+     */
+    public boolean isRefreshing() {
+        return refreshing.get();
+    }
+
+    private void assertCacheName(String cacheName) {
+        if (!caches.containsKey(cacheName)) {
+            throw new IllegalArgumentException("Cache '%s' is not refreshed by bean method '%s#%s'".formatted(cacheName, bean.getClass().getSimpleName(), method.getName()));
+        }
+    }
+
+    /**
+     * @return statistics of the refreshes of the given cache
+     */
+    public CacheRefreshStatistics getStatistics(String cacheName) {
+        return statistics.computeIfAbsent(cacheName, name -> new CacheRefreshStatistics(listening));
+    }
+
+    /**
+     * @return names of the caches refreshed by this refresher
+     */
+    /**
+     * @return names of the caches of the method that exist
+     */
+    List<String> getPresentCacheNames() {
+        return caches.entrySet().stream().filter(cache -> cache.getValue() != null).map(Map.Entry::getKey).toList();
+    }
+
+    public Set<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    /**
+     * @return the cached method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    public CachedMethodInvoker getInvoker() {
+        return invoker;
+    }
+
+    /**
+     * @return current number of permitted concurrently refreshed entries, see {@link CacheRefreshSettings#isAdaptiveConcurrency()}
+     */
+    public int getConcurrencyLimit() {
+        return dispatcher.getConcurrencyLimit().getLimit();
+    }
+
+    /**
+     * @return {@code true} if the cached method is asynchronous, see {@link AsyncResultAdapter}
+     */
+    public boolean isAsync() {
+        return asyncAdapter != null;
+    }
+
+    @Nullable
+    public BatchLoader getBatchLoader() {
+        return batchLoader;
+    }
+
+    @Nullable
+    public AccessTracker getAccessTracker() {
+        return accessTracker;
+    }
+
+    @Nullable
+    public EarlyRefreshTracker getEarlyRefreshTracker() {
+        return earlyRefreshTracker;
+    }
+
+    public CacheRefreshSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * What to do with a single cache-entry during a refresh
+     */
+    public enum EntryAction {
+        /**
+         * Refresh the entry
+         */
+        REFRESH,
+        /**
+         * Keep the entry as is
+         */
+        SKIP,
+        /**
+         * Remove the entry from the cache
+         */
+        EVICT
+    }
 }
@@ -0,0 +1,74 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Invokes a cached method on its bean. Built once per method, to avoid the overhead of
+ * {@link Method#invoke(Object, Object...)} (access checks, argument boxing into a new array, exception wrapping)
+ * on every refresh of a cache-entry.
+ *
+ * <p>Exceptions thrown by the method are rethrown as is, i.e. not wrapped in an {@link InvocationTargetException}.
+ */
+@FunctionalInterface
+public interface CachedMethodInvoker {
+
+    /**
+     * Invokes the method with the given arguments.
+     */
+    Object invoke(Object... args) throws Exception;
+
+    /**
+     * Creates an invoker of the given method bound to the given bean, based on a {@link MethodHandle}.
+     * Falls back to reflective invocation if no {@link MethodHandle} can be created for the method.
+     */
+    static CachedMethodInvoker of(Object bean, Method method) {
+        ReflectionUtils.makeAccessible(method);
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(bean)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflective(bean, method);
+        }
+        return args -> {
+            try {
+                return (Object) methodHandle.invokeExact(args);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        };
+    }
+
+    /**
+     * Creates an invoker of the given method bound to the given bean, based on {@link Method#invoke(Object, Object...)}.
+     */
+    static CachedMethodInvoker reflective(Object bean, Method method) {
+        ReflectionUtils.makeAccessible(method);
+        return args -> {
+            try {
+                return method.invoke(bean, args);
+            } catch (InvocationTargetException ex) {
+                throw rethrow(ex.getTargetException());
+            }
+        };
+    }
+
+    private static Exception rethrow(Throwable ex) {
+        if (ex instanceof Error error) {
+            throw error;
+        }
+        if (ex instanceof Exception exception) {
+            return exception;
+        }
+        return new UndeclaredThrowableException(ex);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent invocations of a cached method during a refresh.
+ *
+ * <p>A {@link #fixed(int) fixed} limit behaves like a {@link java.util.concurrent.Semaphore}. An {@link #adaptive(int) adaptive}
+ * limit follows the AIMD algorithm on the measured invocations (see {@link #onInvocation(long, boolean)}): it grows by about one
+ * permit per {@code limit} successful invocations and shrinks multiplicatively if an invocation failed or took much longer than
+ * the baseline latency, i.e. the lowest latency recently measured. The limit stays between {@code 1} and the given maximum.
+ */
+public class ConcurrencyLimit {
+
+    /**
+     * Factor the limit is multiplied with on a failed or slow invocation
+     */
+    private static final double BACKOFF_RATIO = 0.75;
+
+    /**
+     * Invocations taking longer than the baseline latency times this factor are considered slow
+     */
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    /**
+     * Weight of a new latency sample above the baseline, so that the baseline slowly follows a permanent shift of the latency
+     */
+    private static final double BASELINE_SMOOTHING = 0.01;
+
+    private final int maxLimit;
+
+    private final boolean adaptive;
+
+    private double limit;
+
+    private int inFlight;
+
+    private double baselineNanos = Double.NaN;
+
+    private ConcurrencyLimit(int maxLimit, boolean adaptive) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.adaptive = adaptive;
+        this.limit = this.maxLimit;
+    }
+
+    public static ConcurrencyLimit fixed(int limit) {
+        return new ConcurrencyLimit(limit, false);
+    }
+
+    public static ConcurrencyLimit adaptive(int maxLimit) {
+        return new ConcurrencyLimit(maxLimit, true);
+    }
+
+    /**
+     * Waits until an invocation is permitted by the current limit.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Waits until all permitted invocations have been released.
+     */
+    public synchronized void awaitIdle() throws InterruptedException {
+        while (inFlight > 0) {
+            wait();
+        }
+    }
+
+    /**
+     * Waits until all permitted invocations have been released, at most until the given {@link System#nanoTime()}.
+     *
+     * @return {@code true} if all invocations have been released, {@code false} if the deadline elapsed
+     */
+    public synchronized boolean awaitIdle(long deadlineNanos) throws InterruptedException {
+        while (inFlight > 0) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Adapts the limit to a finished invocation, no-op for a fixed limit.
+     */
+    public synchronized void onInvocation(long durationNanos, boolean failed) {
+        if (!adaptive) {
+            return;
+        }
+        boolean slow = !Double.isNaN(baselineNanos) && durationNanos > baselineNanos * LATENCY_TOLERANCE;
+        if (!failed) {
+            baselineNanos = Double.isNaN(baselineNanos) || durationNanos < baselineNanos
+                    ? durationNanos : baselineNanos + (durationNanos - baselineNanos) * BASELINE_SMOOTHING;
+        }
+        if (failed || slow) {
+            limit = Math.max(1, limit * BACKOFF_RATIO);
+        } else if (limit < maxLimit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return current number of permitted concurrent invocations
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interceptor of the {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed} methods that notifies the
+ * {@link CacheRefresher}s of methods refreshing their entries early on read (see {@link CacheRefresher#entryRead(Object)}).
+ *
+ * <p>Only the invocations of these methods through their proxy count as reads, i.e. their {@code @Cacheable} lookups, but
+ * not {@code @CachePut} or {@code @CacheEvict} operations using the same {@link ParametersKeyGenerator}. It is applied before
+ * the caching interceptor, so it sees whether the entry was cached before a cache miss loads it.
+ */
+public class EarlyRefreshInterceptor implements MethodInterceptor {
+    public static final String EARLY_REFRESH_INTERCEPTOR_BEAN = "io.github.philkes.spring.cache.interceptor.internalEarlyRefreshInterceptor";
+
+    private final Map<Method, CacheRefresher<?>> earlyRefreshers = new ConcurrentHashMap<>();
+
+    @Override
+    @Nullable
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!earlyRefreshers.isEmpty() && invocation.getThis() != null) {
+            CacheRefresher<?> earlyRefresher = ParametersKeyGenerator.lookup(earlyRefreshers, invocation.getThis(), invocation.getMethod());
+            if (earlyRefresher != null) {
+                earlyRefresher.entryRead(ParametersKeyGenerator.generateKey(invocation.getArguments()));
+            }
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Registers the {@link CacheRefresher} that is notified about all reads of the cache of the given method, to refresh
+     * the read entries early.
+     */
+    public void registerEarlyRefresher(Method method, CacheRefresher<?> cacheRefresher) {
+        earlyRefreshers.put(method, cacheRefresher);
+    }
+}
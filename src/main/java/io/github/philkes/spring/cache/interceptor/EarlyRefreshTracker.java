@@ -0,0 +1,116 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Decides whether a read cache-entry of a single {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed}
+ * annotated method is refreshed early, based on the probabilistic early expiration ("XFetch") of Vattani et al.,
+ * "Optimal Probabilistic Cache Stampede Prevention": an entry loaded at {@code loadedAt}
+ * with a compute cost of {@code delta} is refreshed if {@code now - delta * beta * ln(random) >= loadedAt + earlyRefreshAfter}.
+ * The probability rises with the age of the entry and with its compute cost, so that frequently read entries are
+ * refreshed shortly before they become stale, while entries that are not read are never refreshed.
+ *
+ * <p>Keys read before a load was recorded are tracked as loaded at that time (i.e. a cache miss), with the average compute cost
+ * of the method, unless they are already cached: such entries (e.g. put into the cache by other means, or no longer tracked)
+ * are of unknown age and therefore refreshed. Keys not loaded within twice {@code earlyRefreshAfter} are no longer tracked.
+ */
+public class EarlyRefreshTracker {
+
+    private final Map<Object, Stamp> stamps = new ConcurrentHashMap<>();
+
+    private final long earlyRefreshAfterNanos;
+
+    private final double beta;
+
+    /**
+     * Returns random values in {@code (0, 1]}
+     */
+    private final DoubleSupplier random;
+
+    /**
+     * Exponentially weighted moving average of the recorded compute costs
+     */
+    private final AtomicLong averageComputeNanos = new AtomicLong();
+
+    private final AtomicLong lastPruneNanos = new AtomicLong(System.nanoTime());
+
+    public EarlyRefreshTracker(Duration earlyRefreshAfter, double beta) {
+        this(earlyRefreshAfter, beta, () -> 1.0 - ThreadLocalRandom.current().nextDouble());
+    }
+
+    EarlyRefreshTracker(Duration earlyRefreshAfter, double beta, DoubleSupplier random) {
+        this.earlyRefreshAfterNanos = earlyRefreshAfter.toNanos();
+        this.beta = beta;
+        this.random = random;
+    }
+
+    /**
+     * Records that the value of the given cache-key was (re)loaded right now, which took the given duration.
+     */
+    public void recordLoad(Object key, long computeNanos) {
+        long now = System.nanoTime();
+        stamps.put(key, new Stamp(now, computeNanos));
+        averageComputeNanos.accumulateAndGet(computeNanos, (average, cost) -> average == 0 ? cost : average + (cost - average) / 8);
+        pruneIfDue(now);
+    }
+
+    /**
+     * Records that the value of the given cache-key was loaded right now by other means, e.g. by another node of the cluster.
+     * Its compute cost is assumed to be the average one.
+     */
+    public void recordStored(Object key) {
+        long now = System.nanoTime();
+        stamps.put(key, new Stamp(now, averageComputeNanos.get()));
+        pruneIfDue(now);
+    }
+
+    /**
+     * Called for every read of the given cache-key. Never blocks, the decision only depends on the recorded load of the key.
+     *
+     * @param cached checks if the cache-key is cached, only called if no load of the key is tracked
+     * @return {@code true} if the cache-entry should be refreshed now
+     */
+    public boolean isToRefreshEarly(Object key, Predicate<Object> cached) {
+        long now = System.nanoTime();
+        Stamp stamp = stamps.get(key);
+        if (stamp == null) {
+            if (cached.test(key)) {
+                // Cached value of unknown age, its refresh records the load
+                return true;
+            }
+            stamps.putIfAbsent(key, new Stamp(now, averageComputeNanos.get()));
+            pruneIfDue(now);
+            return false;
+        }
+        double earlyNanos = -stamp.computeNanos() * beta * Math.log(random.getAsDouble());
+        return now - stamp.loadedAt() + earlyNanos >= earlyRefreshAfterNanos;
+    }
+
+    /**
+     * Stops tracking the given cache-key.
+     */
+    public void remove(Object key) {
+        stamps.remove(key);
+    }
+
+    private void pruneIfDue(long now) {
+        long lastPrune = lastPruneNanos.get();
+        if (now - lastPrune >= earlyRefreshAfterNanos && lastPruneNanos.compareAndSet(lastPrune, now)) {
+            long maxAgeNanos = 2 * earlyRefreshAfterNanos;
+            stamps.values().removeIf(stamp -> now - stamp.loadedAt() > maxAgeNanos);
+        }
+    }
+
+    public int size() {
+        return stamps.size();
+    }
+
+    private record Stamp(long loadedAt, long computeNanos) {
+    }
+}
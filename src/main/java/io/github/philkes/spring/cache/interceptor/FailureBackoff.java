@@ -0,0 +1,53 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff of the refreshes of a single cache after repeated failed refreshes, i.e. refreshes in which
+ * every invocation of the cached method failed (see {@link CacheRefreshSettings#getFailureBackoff()}).
+ *
+ * <p>After {@code n} consecutive failed refreshes, refreshes are skipped for {@code initial * 2^(n-1)}, at most {@code max}.
+ * A refresh with at least one successful invocation resets the backoff.
+ */
+class FailureBackoff {
+
+    private final Duration initial;
+
+    private final Duration max;
+
+    private int consecutiveFailures;
+
+    private long backoffUntilNanos;
+
+    FailureBackoff(Duration initial, Duration max) {
+        this.initial = initial;
+        this.max = max;
+    }
+
+    synchronized boolean isBackingOff() {
+        return consecutiveFailures > 0 && System.nanoTime() - backoffUntilNanos < 0;
+    }
+
+    synchronized void refreshFinished(int refreshedCount, int failedCount) {
+        if (refreshedCount > 0 || failedCount == 0) {
+            consecutiveFailures = 0;
+            return;
+        }
+        consecutiveFailures++;
+        backoffUntilNanos = System.nanoTime() + getBackoff().toNanos();
+    }
+
+    synchronized Duration getBackoff() {
+        if (consecutiveFailures == 0) {
+            return Duration.ZERO;
+        }
+        // Shift at most 30 bits, the backoff is capped by max anyway
+        long factor = 1L << Math.min(consecutiveFailures - 1, 30);
+        Duration backoff = initial.multipliedBy(factor);
+        return backoff.compareTo(max) > 0 ? max : backoff;
+    }
+
+    synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
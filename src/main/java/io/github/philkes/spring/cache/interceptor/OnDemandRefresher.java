@@ -0,0 +1,161 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Refreshes specific keys of a {@link CacheRefresher} right away, independent of its scheduled refreshes, either requested
+ * by the application (see {@link CacheRefresher#refreshKeys(Collection)}) or early on read (see {@link CacheRefresher#entryRead(Object)}).
+ * Every key is refreshed at most once at a time, later requests for a key being refreshed join the running refresh.
+ */
+class OnDemandRefresher {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final CacheRefresher<?> refresher;
+
+    private final RefreshDispatcher dispatcher;
+
+    /**
+     * Results of the refreshes of single keys currently running
+     */
+    private final Map<ParametersKey, CompletableFuture<Object>> pendingRefreshes = new ConcurrentHashMap<>();
+
+    OnDemandRefresher(CacheRefresher<?> refresher, RefreshDispatcher dispatcher) {
+        this.refresher = refresher;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * @see CacheRefresher#refreshKeys(Collection)
+     */
+    CompletableFuture<Void> refreshKeys(Collection<ParametersKey> keys) {
+        List<CompletableFuture<Object>> results = new ArrayList<>(keys.size());
+        Map<ParametersKey, CompletableFuture<Object>> claimedKeys = new LinkedHashMap<>();
+        for (ParametersKey key : keys) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            CompletableFuture<Object> pending = pendingRefreshes.putIfAbsent(key, result);
+            if (pending != null) {
+                results.add(pending);
+            } else if (claimedKeys.putIfAbsent(key, result) == null) {
+                results.add(result);
+            }
+        }
+        if (!claimedKeys.isEmpty()) {
+            startRefresh(claimedKeys);
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * @see CacheRefresher#entryRead(Object)
+     */
+    void entryRead(Object key) {
+        EarlyRefreshTracker earlyRefreshTracker = refresher.getEarlyRefreshTracker();
+        if (earlyRefreshTracker == null || !(key instanceof ParametersKey parametersKey) || pendingRefreshes.containsKey(parametersKey)
+                || !earlyRefreshTracker.isToRefreshEarly(parametersKey, refresher::isCached)) {
+            return;
+        }
+        for (String cacheName : refresher.getCacheNames()) {
+            if (refresher.isSuspended(cacheName)) {
+                return;
+            }
+        }
+        if (refresher.getRefreshScheduler() == null && refresher.getSettings().getExecutor() == null) {
+            // Never refresh on the reading thread
+            if (logger.isTraceEnabled()) {
+                logger.trace("Not refreshing read cache-entry with key '%s' of caches %s early since neither a refresh scheduler nor an executor is set."
+                        .formatted(parametersKey, refresher.getCacheNames()));
+            }
+            return;
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Refreshing read cache-entry with key '%s' of caches %s early.".formatted(parametersKey, refresher.getCacheNames()));
+        }
+        // Handed off to the scheduler or executor, also for asynchronous methods whose invocation might block before returning.
+        // Failures are already logged when completing the refresh
+        refreshKeys(List.of(parametersKey));
+    }
+
+    private void startRefresh(Map<ParametersKey, CompletableFuture<Object>> claimedKeys) {
+        List<String> cacheNames = refresher.getPresentCacheNames();
+        if (cacheNames.isEmpty()) {
+            claimedKeys.forEach((key, result) -> completeRefresh(key, result, null, null, cacheNames));
+            return;
+        }
+        String cacheName = cacheNames.get(0);
+        TaskScheduler scheduler = refresher.getRefreshScheduler();
+        Executor executor = refresher.getSettings().getExecutor();
+        // Without a scheduler the refresh itself occupies a thread of the executor, so it must not wait for further tasks on it
+        RefreshDispatcher.Dispatch dispatch = scheduler != null ? dispatcher.onDemand() : dispatcher.sequential();
+        Runnable refresh = () -> {
+            if (refresher.isAsync() && refresher.getBatchLoader() == null) {
+                // Only starts the invocations, they complete without blocking this thread
+                claimedKeys.forEach((key, result) -> refresher.refreshEntryAsync(key, cacheName)
+                        .whenComplete((value, e) -> completeRefresh(key, result, value, e, cacheNames)));
+            } else if (refresher.getBatchLoader() != null) {
+                dispatcher.refreshBatches(claimedKeys.keySet(), batch -> {
+                    try {
+                        Map<ParametersKey, Object> values = refresher.refreshBatch(batch, cacheName);
+                        // Keys missing in the result retain their old value
+                        batch.forEach(key -> completeRefresh(key, claimedKeys.get(key), values.get(key), null, values.containsKey(key) ? cacheNames : List.of()));
+                    } catch (Exception e) {
+                        batch.forEach(key -> completeRefresh(key, claimedKeys.get(key), null, e, cacheNames));
+                    }
+                }, dispatch);
+            } else {
+                dispatcher.refreshEntries(claimedKeys.keySet(), keyObject -> {
+                    ParametersKey key = (ParametersKey) keyObject;
+                    try {
+                        completeRefresh(key, claimedKeys.get(key), refresher.refreshEntry(key, cacheName), null, cacheNames);
+                    } catch (Exception e) {
+                        completeRefresh(key, claimedKeys.get(key), null, e, cacheNames);
+                    }
+                }, dispatch);
+            }
+        };
+        if (scheduler == null && executor == null) {
+            refresh.run();
+            return;
+        }
+        try {
+            if (scheduler != null) {
+                scheduler.schedule(refresh, Instant.now());
+            } else {
+                executor.execute(refresh);
+            }
+        } catch (RuntimeException e) {
+            claimedKeys.forEach((key, result) -> completeRefresh(key, result, null, e, cacheNames));
+        }
+    }
+
+    private void completeRefresh(ParametersKey key, CompletableFuture<Object> result, @Nullable Object value, @Nullable Throwable failure, List<String> cacheNames) {
+        try {
+            if (failure == null) {
+                refresher.storeRefreshed(key, value, cacheNames);
+            } else {
+                refresher.logRefreshFailure(List.of(key), cacheNames, failure);
+            }
+        } finally {
+            // Removed before completing, so that a refresh requested after the completion invokes the method again
+            pendingRefreshes.remove(key, result);
+            if (failure == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        }
+    }
+}
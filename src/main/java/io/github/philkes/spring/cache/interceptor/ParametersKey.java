@@ -1,19 +1,200 @@
 package io.github.philkes.spring.cache.interceptor;
 
-import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * Extension of {@link SimpleKey} to expose method invocation's parameters
+ * Cache-key of a method invocation, exposing the invocation's parameters so that the invocation can be repeated by a refresh.
+ *
+ * <p>Created via {@link #of(Object...)}, which uses a compact form per number of parameters: a shared instance without
+ * parameters, the parameter itself for a single parameter and the parameter array otherwise. The hash code is computed once,
+ * since keys are hashed on every cache lookup. It is not serialized but recomputed on deserialization (just like Spring's
+ * {@link org.springframework.cache.interceptor.SimpleKey}), since the hash codes of the parameters may differ between JVMs.
+ * Two keys are equal if their parameters are deeply equal.
  */
-public class ParametersKey extends SimpleKey {
+public abstract class ParametersKey implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    /**
+     * Key of all invocations of methods without parameters
+     */
+    public static final ParametersKey EMPTY = new NoParametersKey();
+
+    private transient int hash;
+
+    private ParametersKey(int hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * @return key of an invocation with the given parameters, the given array is not copied
+     */
+    public static ParametersKey of(Object... params) {
+        if (params == null || params.length == 0) {
+            return EMPTY;
+        }
+        if (params.length == 1) {
+            return new SingleParameterKey(params[0]);
+        }
+        return new MultiParametersKey(params);
+    }
+
+    /**
+     * @return parameters of the invocation, must not be modified
+     */
+    public abstract Object[] getParams();
+
+    public abstract int getParameterCount();
+
+    /**
+     * Same as {@code getParams()[index]}, but without creating the array of the parameters.
+     */
+    @Nullable
+    public abstract Object getParam(int index);
+
+    @Override
+    public final int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ParametersKey " + Arrays.deepToString(getParams());
+    }
+
+    private static final class NoParametersKey extends ParametersKey {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        NoParametersKey() {
+            super(0);
+        }
+
+        @Override
+        public Object[] getParams() {
+            return NO_PARAMS;
+        }
+
+        @Override
+        public int getParameterCount() {
+            return 0;
+        }
 
-    private final transient Object[] params;
-    public ParametersKey(Object... params) {
-        super(params);
-        this.params = params;
+        @Override
+        public Object getParam(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof NoParametersKey;
+        }
+
+        @Serial
+        private Object readResolve() {
+            return EMPTY;
+        }
     }
 
-    public Object[] getParams() {
-        return params;
+    private static final class SingleParameterKey extends ParametersKey {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        @Nullable
+        private final Object param;
+
+        SingleParameterKey(@Nullable Object param) {
+            super(hashOf(param));
+            this.param = param;
+        }
+
+        /**
+         * Same as {@code Arrays.deepHashCode(new Object[]{param})}, without creating the array for non-array parameters
+         */
+        private static int hashOf(@Nullable Object param) {
+            return param != null && param.getClass().isArray() ? Arrays.deepHashCode(new Object[]{param}) : 31 + Objects.hashCode(param);
+        }
+
+        @Serial
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            super.hash = hashOf(param);
+        }
+
+        @Override
+        public Object[] getParams() {
+            return new Object[]{param};
+        }
+
+        @Override
+        public int getParameterCount() {
+            return 1;
+        }
+
+        @Override
+        @Nullable
+        public Object getParam(int index) {
+            Objects.checkIndex(index, 1);
+            return param;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof SingleParameterKey that && hashCode() == that.hashCode()
+                    && Objects.deepEquals(param, that.param));
+        }
+    }
+
+    private static final class MultiParametersKey extends ParametersKey {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] params;
+
+        MultiParametersKey(Object[] params) {
+            super(Arrays.deepHashCode(params));
+            this.params = params;
+        }
+
+        @Serial
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            super.hash = Arrays.deepHashCode(params);
+        }
+
+        @Override
+        public Object[] getParams() {
+            return params;
+        }
+
+        @Override
+        public int getParameterCount() {
+            return params.length;
+        }
+
+        @Override
+        @Nullable
+        public Object getParam(int index) {
+            return params[index];
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof MultiParametersKey that && hashCode() == that.hashCode()
+                    && Arrays.deepEquals(params, that.params));
+        }
     }
 }
@@ -1,24 +1,56 @@
 package io.github.philkes.spring.cache.interceptor;
 
+import org.springframework.aop.support.AopUtils;
 import org.springframework.cache.interceptor.KeyGenerator;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Cache-key generator that uses {@link ParametersKey}s
+ * Cache-key generator that uses {@link ParametersKey}s.
+ *
+ * <p>Since it is invoked for every cache lookup of a {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed}
+ * method, it also records the accesses of the generated keys for methods with a registered {@link AccessTracker}.
+ * Reads of methods refreshing their entries early are seen by the {@link EarlyRefreshInterceptor} instead.
  */
 public class ParametersKeyGenerator implements KeyGenerator {
     public static final String PARAMETERS_KEY_GENERATOR_BEAN = "io.github.philkes.spring.cache.interceptor.internalParametersKeyGenerator";
 
+    private final Map<Method, AccessTracker> accessTrackers = new ConcurrentHashMap<>();
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
-        return generateKey(params);
+        Object key = generateKey(params);
+        if (!accessTrackers.isEmpty()) {
+            AccessTracker accessTracker = lookup(accessTrackers, target, method);
+            if (accessTracker != null) {
+                accessTracker.recordAccess(key);
+            }
+        }
+        return key;
+    }
+
+    static <T> T lookup(Map<Method, T> registrations, Object target, Method method) {
+        T registration = registrations.get(method);
+        if (registration == null && method.getDeclaringClass().isInterface()) {
+            // Invoked via interface-based proxy, registered with the target class' method
+            registration = registrations.get(AopUtils.getMostSpecificMethod(method, target.getClass()));
+        }
+        return registration;
+    }
+
+    /**
+     * Registers the {@link AccessTracker} that records all accesses to the cache of the given method.
+     */
+    public void registerAccessTracker(Method method, AccessTracker accessTracker) {
+        accessTrackers.put(method, accessTracker);
     }
 
     /**
      * Generate a key based on the specified parameters.
      */
     public static Object generateKey(Object... params) {
-        return new ParametersKey(params);
+        return ParametersKey.of(params);
     }
 }
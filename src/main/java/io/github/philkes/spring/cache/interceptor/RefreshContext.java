@@ -0,0 +1,124 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Context of the refresh of a single cache-entry, available to the cached method via {@link #current()} while it is invoked
+ * by a {@link CacheRefresher}. Allows conditional refreshes, e.g. via ETags or {@code If-Modified-Since}: the method can
+ * inspect the {@link #getPreviousValue() cached value} and return {@link #notModified()} if its source reports no change,
+ * the cached entry is then retained as is.
+ *
+ * <pre class="code">
+ * &#64;CacheableAutoRefreshed(cacheNames = "products", fixedDelay = 60_000)
+ * public Product getProduct(String id) {
+ *     RefreshContext context = RefreshContext.current();
+ *     Product previous = context != null ? context.getPreviousValue() : null;
+ *     Response response = client.get(id, previous != null ? previous.getETag() : null);
+ *     return response.isNotModified() ? RefreshContext.notModified() : response.toProduct();
+ * }
+ * </pre>
+ *
+ * <p>The context is bound to the thread invoking the method, i.e. asynchronous methods have to access it before switching threads.
+ * It is not available for invocations of a batch method, whose results can simply omit unchanged keys instead.
+ */
+public final class RefreshContext {
+
+    private static final ThreadLocal<RefreshContext> CURRENT = new ThreadLocal<>();
+
+    private final ParametersKey key;
+
+    private final String cacheName;
+
+    private final Supplier<Object> previousValueLookup;
+
+    private boolean previousValueResolved;
+
+    @Nullable
+    private Object previousValue;
+
+    private boolean notModified;
+
+    RefreshContext(ParametersKey key, String cacheName, Supplier<Object> previousValueLookup) {
+        this.key = key;
+        this.cacheName = cacheName;
+        this.previousValueLookup = previousValueLookup;
+    }
+
+    /**
+     * @return context of the refresh the current thread invokes the cached method for, {@code null} if the method is not invoked by a refresh
+     */
+    @Nullable
+    public static RefreshContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Signals that the value did not change since the {@link #getPreviousValue()}, so that the cached entry is retained.
+     * To be returned by the cached method, e.g. {@code return RefreshContext.notModified();}.
+     *
+     * @return the previous value, so that it can be returned regardless of the return type of the method
+     * @throws IllegalStateException if the method is not invoked by a refresh or the entry is not cached anymore
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T notModified() {
+        RefreshContext context = CURRENT.get();
+        if (context == null) {
+            throw new IllegalStateException("RefreshContext.notModified() can only be called while the cached method is invoked by a refresh");
+        }
+        Object previousValue = context.getPreviousValue();
+        if (previousValue == null) {
+            throw new IllegalStateException("No previous value of cache-entry with key '%s' in cache '%s'".formatted(context.key, context.cacheName));
+        }
+        context.notModified = true;
+        return (T) previousValue;
+    }
+
+    public ParametersKey getKey() {
+        return key;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * @return value currently cached for the key (as returned by the method, e.g. a {@code CompletableFuture} for asynchronous methods),
+     * {@code null} if the entry is not cached (anymore)
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T getPreviousValue() {
+        if (!previousValueResolved) {
+            previousValue = previousValueLookup.get();
+            previousValueResolved = true;
+        }
+        return (T) previousValue;
+    }
+
+    /**
+     * @return {@code true} if the method returned {@link #notModified()}
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Invokes the given invocation with this context bound to the current thread.
+     */
+    <T> T call(Callable<T> invocation) throws Exception {
+        RefreshContext outer = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return invocation.call();
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
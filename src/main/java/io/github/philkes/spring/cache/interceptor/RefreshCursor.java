@@ -0,0 +1,113 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Resumable position in a sweep over all cache-keys of a single cache, used to spread the refresh of a cache over
+ * multiple ticks with a limited budget each (see {@link CacheRefreshSettings#isBudgeted()}).
+ *
+ * <p>The keys of a sweep are snapshotted when the sweep starts, keys that are no longer present in the cache when
+ * the cursor reaches them are skipped.
+ */
+class RefreshCursor {
+
+    private final Log logger = LogFactory.getLog(CacheRefresher.class);
+
+    private final String cacheName;
+
+    private List<ParametersKey> keys = List.of();
+
+    private int position;
+
+    private long sweepStartNanos;
+
+    private int sweepTicks;
+
+    @Nullable
+    private volatile Duration lastSweepDuration;
+
+    RefreshCursor(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    boolean isSweepFinished() {
+        return position >= keys.size();
+    }
+
+    void startSweep(List<ParametersKey> keys) {
+        this.keys = keys;
+        this.position = 0;
+        this.sweepStartNanos = System.nanoTime();
+        this.sweepTicks = 0;
+    }
+
+    /**
+     * Returns the keys to refresh in the current tick. The returned {@link Iterable} advances the cursor lazily and
+     * stops once {@code maxKeys} keys were returned or {@code maxTime} has passed since calling this method.
+     *
+     * @param maxKeys     maximum number of keys to refresh in this tick
+     * @param maxTime     maximum duration of this tick, {@code null} if unlimited
+     * @param containsKey checks if a key is still present in the cache
+     */
+    Iterable<ParametersKey> next(int maxKeys, @Nullable Duration maxTime, Predicate<Object> containsKey) {
+        long tickStartNanos = System.nanoTime();
+        long maxTimeNanos = maxTime != null ? maxTime.toNanos() : Long.MAX_VALUE;
+        sweepTicks++;
+        return () -> new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                if (count >= maxKeys || System.nanoTime() - tickStartNanos >= maxTimeNanos) {
+                    return false;
+                }
+                while (position < keys.size() && !containsKey.test(keys.get(position))) {
+                    position++;
+                }
+                if (position >= keys.size()) {
+                    finishSweep();
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public ParametersKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                count++;
+                return keys.get(position++);
+            }
+        };
+    }
+
+    private void finishSweep() {
+        if (sweepTicks == 0 || keys.isEmpty()) {
+            return;
+        }
+        Duration sweepDuration = Duration.ofNanos(System.nanoTime() - sweepStartNanos);
+        lastSweepDuration = sweepDuration;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Finished refresh sweep of %d entries in cache '%s' in %d ms over %d ticks."
+                    .formatted(keys.size(), cacheName, sweepDuration.toMillis(), sweepTicks));
+        }
+        sweepTicks = 0;
+    }
+
+    /**
+     * Duration of the last complete sweep over all keys, {@code null} if no sweep finished yet
+     */
+    @Nullable
+    Duration getLastSweepDuration() {
+        return lastSweepDuration;
+    }
+}
@@ -0,0 +1,271 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the refreshes of multiple entries of a {@link CacheRefresher}: sequentially, in parallel on an {@link Executor}
+ * or as asynchronous invocations in flight, bounded by a {@link ConcurrencyLimit} and the deadline of the current
+ * refresh (see {@link CacheRefreshSettings#getRefreshDeadline()}).
+ */
+class RefreshDispatcher {
+
+    /**
+     * Value of {@link #cycleDeadlineNanos} if the current refresh has no deadline
+     */
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final CacheRefreshSettings settings;
+
+    /**
+     * Limits the concurrently refreshed entries to {@link CacheRefreshSettings#getParallelism()}, adaptive if {@link CacheRefreshSettings#isAdaptiveConcurrency()}
+     */
+    private final ConcurrencyLimit concurrencyLimit;
+
+    /**
+     * Caches of the refresher, only used for logging
+     */
+    private final Collection<String> cacheNames;
+
+    /**
+     * {@link System#nanoTime()} after which the current refresh stops refreshing further entries, see {@link CacheRefreshSettings#getRefreshDeadline()}
+     */
+    private volatile long cycleDeadlineNanos = NO_DEADLINE;
+
+    RefreshDispatcher(CacheRefreshSettings settings, Collection<String> cacheNames) {
+        this.settings = settings;
+        this.cacheNames = cacheNames;
+        this.concurrencyLimit = settings.isAdaptiveConcurrency() ? ConcurrencyLimit.adaptive(settings.getParallelism()) : ConcurrencyLimit.fixed(settings.getParallelism());
+    }
+
+    /**
+     * Runs the given scheduled refresh, the entries dispatched via {@link #cycle()} are refreshed until its deadline is exceeded.
+     */
+    void runCycle(Runnable refresh) {
+        Duration refreshDeadline = settings.getRefreshDeadline();
+        cycleDeadlineNanos = refreshDeadline != null ? System.nanoTime() + refreshDeadline.toNanos() : NO_DEADLINE;
+        try {
+            refresh.run();
+        } finally {
+            cycleDeadlineNanos = NO_DEADLINE;
+        }
+    }
+
+    /**
+     * @return {@code true} if the deadline of the current refresh is exceeded
+     */
+    boolean isPastCycleDeadline() {
+        long deadlineNanos = cycleDeadlineNanos;
+        return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Dispatches the refreshes of a scheduled refresh: configured parallelism, shared {@link #getConcurrencyLimit()} and the deadline of the current refresh
+     */
+    Dispatch cycle() {
+        return new Dispatch(settings.getParallelism(), settings.getExecutor(), concurrencyLimit, cycleDeadlineNanos);
+    }
+
+    /**
+     * Dispatches the refreshes of specific keys (see {@link CacheRefresher#refreshKeys(Collection)}): like {@link #cycle()}, but without deadline
+     */
+    Dispatch onDemand() {
+        return new Dispatch(settings.getParallelism(), settings.getExecutor(), concurrencyLimit, NO_DEADLINE);
+    }
+
+    /**
+     * Dispatches the refreshes one after another on the calling thread, without deadline
+     */
+    Dispatch sequential() {
+        return new Dispatch(1, null, concurrencyLimit, NO_DEADLINE);
+    }
+
+    /**
+     * Dispatches the refreshes with the given parallelism and executor, independent of the scheduled refreshes and without deadline
+     */
+    static Dispatch fixed(int parallelism, @Nullable Executor executor) {
+        return new Dispatch(parallelism, executor, ConcurrencyLimit.fixed(parallelism), NO_DEADLINE);
+    }
+
+    ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Applies {@code refreshEntry} to every given cache-key, on the executor of the dispatch if its parallelism is greater than {@code 1}.
+     * Returns only after all keys have been refreshed, or once the deadline of the dispatch is exceeded.
+     *
+     * @param refreshEntry refreshes a single cache-entry, must not throw any exception
+     */
+    void refreshEntries(Iterable<?> keys, Consumer<Object> refreshEntry, Dispatch dispatch) {
+        if (dispatch.parallelism() <= 1 || dispatch.executor() == null) {
+            for (Object key : keys) {
+                if (dispatch.isPastDeadline()) {
+                    logDeadlineExceeded();
+                    return;
+                }
+                refreshEntry.accept(key);
+            }
+            return;
+        }
+        ConcurrencyLimit limit = dispatch.limit();
+        try {
+            for (Object key : keys) {
+                limit.acquire();
+                if (dispatch.isPastDeadline()) {
+                    limit.release();
+                    logDeadlineExceeded();
+                    break;
+                }
+                try {
+                    dispatch.executor().execute(() -> {
+                        try {
+                            refreshEntry.accept(key);
+                        } finally {
+                            limit.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    limit.release();
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Executor rejected refresh of cache-entry with key '%s', refreshing it on the calling thread.".formatted(key), e);
+                    }
+                    refreshEntry.accept(key);
+                }
+            }
+            // Wait until all submitted refreshes have finished
+            dispatch.awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logInterrupted();
+        }
+    }
+
+    /**
+     * Starts the asynchronous refreshes of the given cache-keys, with at most as many invocations in flight as the parallelism
+     * of the dispatch. Returns only after all keys have been refreshed, or once the deadline of the dispatch is exceeded.
+     *
+     * @param refreshEntry starts the refresh of a single cache-entry, the returned future completes once it is stored
+     */
+    void refreshEntriesAsync(Iterable<ParametersKey> keys, Function<ParametersKey, CompletableFuture<?>> refreshEntry, Dispatch dispatch) {
+        ConcurrencyLimit limit = dispatch.limit();
+        try {
+            for (ParametersKey key : keys) {
+                limit.acquire();
+                if (dispatch.isPastDeadline()) {
+                    limit.release();
+                    logDeadlineExceeded();
+                    break;
+                }
+                refreshEntry.apply(key).whenComplete((value, e) -> limit.release());
+            }
+            // Wait until all invocations in flight have completed
+            dispatch.awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logInterrupted();
+        }
+    }
+
+    /**
+     * Splits the given keys lazily into batches of at most {@link CacheRefreshSettings#getBatchSize()} keys and applies
+     * {@code refreshBatch} to each of them, see {@link #refreshEntries(Iterable, Consumer, Dispatch)}.
+     *
+     * @param refreshBatch refreshes the cache-entries of a batch of keys, must not throw any exception
+     */
+    @SuppressWarnings("unchecked")
+    void refreshBatches(Iterable<ParametersKey> keys, Consumer<List<ParametersKey>> refreshBatch, Dispatch dispatch) {
+        int batchSize = settings.getBatchSize();
+        Iterator<ParametersKey> keyIterator = keys.iterator();
+        Iterable<List<ParametersKey>> batches = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return keyIterator.hasNext();
+            }
+
+            @Override
+            public List<ParametersKey> next() {
+                List<ParametersKey> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && keyIterator.hasNext()) {
+                    batch.add(keyIterator.next());
+                }
+                return batch;
+            }
+        };
+        refreshEntries(batches, batch -> refreshBatch.accept((List<ParametersKey>) batch), dispatch);
+    }
+
+    /**
+     * Waits for the given future, at most until the deadline of the current refresh is exceeded. Exceptions of the future are ignored.
+     */
+    void awaitRefresh(CompletableFuture<?> refresh) {
+        long deadlineNanos = cycleDeadlineNanos;
+        try {
+            if (deadlineNanos == NO_DEADLINE) {
+                refresh.get();
+            } else {
+                refresh.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            logDeadlineExceeded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // Failures of single entries are already recorded, their old values are retained
+        }
+    }
+
+    private void logDeadlineExceeded() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Refresh of caches %s exceeded its deadline of %s, the remaining entries keep their old values until the next refresh."
+                    .formatted(cacheNames, settings.getRefreshDeadline()));
+        }
+    }
+
+    private void logInterrupted() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Interrupted while refreshing caches %s.".formatted(cacheNames));
+        }
+    }
+
+    /**
+     * How the refreshes of multiple entries are run
+     *
+     * @param deadlineNanos {@link System#nanoTime()} after which no further entries are refreshed, {@link #NO_DEADLINE} if unlimited
+     */
+    record Dispatch(int parallelism, @Nullable Executor executor, ConcurrencyLimit limit, long deadlineNanos) {
+
+        boolean isPastDeadline() {
+            return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+        }
+
+        /**
+         * Waits until all refreshes finished, at most until the deadline.
+         */
+        void awaitIdle() throws InterruptedException {
+            if (deadlineNanos == NO_DEADLINE) {
+                limit.awaitIdle();
+            } else {
+                limit.awaitIdle(deadlineNanos);
+            }
+        }
+    }
+}
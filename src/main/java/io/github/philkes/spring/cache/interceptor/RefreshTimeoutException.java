@@ -0,0 +1,19 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thrown if an invocation of a cached method (or batch method) during a refresh took longer than
+ * {@link CacheRefreshSettings#getRefreshTimeout()} and was abandoned. The old cached values are retained.
+ */
+public class RefreshTimeoutException extends TimeoutException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public RefreshTimeoutException(String methodName, Duration timeout) {
+        super("Invocation of '%s' did not complete within the refresh timeout of %s".formatted(methodName, timeout));
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.philkes.spring.cache.metrics;
+
+import io.github.philkes.spring.cache.interceptor.CacheRefreshListener;
+import io.github.philkes.spring.cache.interceptor.CacheRefreshStatistics;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import io.github.philkes.spring.cache.interceptor.RefreshTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheRefreshListener} publishing the refreshes of all caches as Micrometer meters, tagged with the name of the cache:
+ * <ul>
+ *     <li>{@value #REFRESH_TIMER}: duration of the refresh of a cache</li>
+ *     <li>{@value #INVOCATION_TIMER}: latency of the invocations of the cached method (or batch method), with percentile histogram</li>
+ *     <li>{@value #INVOCATION_COUNTER}: number of invocations, tagged with {@code result} {@code success}, {@code failure} or {@code timeout}</li>
+ *     <li>{@value #REFRESHED_ENTRIES_GAUGE}: number of entries refreshed by the last refresh of a cache</li>
+ *     <li>{@value #OLDEST_ENTRY_AGE_GAUGE}: time since the least recently refreshed entry of a cache was refreshed</li>
+ *     <li>{@value #SKIPPED_COUNTER}: number of refreshes skipped since the previous refresh was still running or the cache was backing off after failures</li>
+ *     <li>{@value #CHANGED_COUNTER}: number of refreshed entries whose value changed, only if {@link io.github.philkes.spring.cache.interceptor.CacheRefreshSettings#isSkipUnchanged()}</li>
+ *     <li>{@value #UNCHANGED_COUNTER}: number of refreshed entries not written since their value did not change or was not modified</li>
+ * </ul>
+ */
+public class MicrometerCacheRefreshListener implements CacheRefreshListener {
+
+    public static final String REFRESH_TIMER = "cache.refresh";
+
+    public static final String INVOCATION_TIMER = "cache.refresh.invocation";
+
+    public static final String INVOCATION_COUNTER = "cache.refresh.invocations";
+
+    public static final String REFRESHED_ENTRIES_GAUGE = "cache.refresh.entries";
+
+    public static final String OLDEST_ENTRY_AGE_GAUGE = "cache.refresh.oldest.entry.age";
+
+    public static final String SKIPPED_COUNTER = "cache.refresh.skipped";
+
+    public static final String CHANGED_COUNTER = "cache.refresh.changed";
+
+    public static final String UNCHANGED_COUNTER = "cache.refresh.unchanged";
+
+    private static final String CACHE_TAG = "cache";
+
+    private static final String RESULT_TAG = "result";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CacheMeters> meters = new ConcurrentHashMap<>();
+
+    public MicrometerCacheRefreshListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onCacheRegistered(String cacheName, CacheRefresher<?> refresher) {
+        meters.computeIfAbsent(cacheName, name -> new CacheMeters(name, refresher.getStatistics(name)));
+    }
+
+    @Override
+    public void onInvocation(String cacheName, long durationNanos, int entryCount, @Nullable Throwable failure) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        if (cacheMeters == null) {
+            return;
+        }
+        cacheMeters.invocationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (failure == null) {
+            cacheMeters.successCounter.increment();
+        } else if (failure instanceof RefreshTimeoutException) {
+            cacheMeters.timeoutCounter.increment();
+        } else {
+            cacheMeters.failureCounter.increment();
+        }
+    }
+
+    @Override
+    public void onRefreshFinished(String cacheName, long durationNanos, int refreshedCount) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        if (cacheMeters != null) {
+            cacheMeters.refreshTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onRefreshSkipped(String cacheName) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        if (cacheMeters != null) {
+            cacheMeters.skippedCounter.increment();
+        }
+    }
+
+    @Override
+    public void onEntryChanged(String cacheName, ParametersKey key, @Nullable Object oldValue, @Nullable Object newValue) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        if (cacheMeters != null) {
+            cacheMeters.changedCounter.increment();
+        }
+    }
+
+    /**
+     * Meters of a single cache
+     */
+    private class CacheMeters {
+
+        private final Timer refreshTimer;
+
+        private final Timer invocationTimer;
+
+        private final Counter successCounter;
+
+        private final Counter failureCounter;
+
+        private final Counter timeoutCounter;
+
+        private final Counter skippedCounter;
+
+        private final Counter changedCounter;
+
+        CacheMeters(String cacheName, CacheRefreshStatistics statistics) {
+            this.refreshTimer = Timer.builder(REFRESH_TIMER)
+                    .description("Duration of the refreshes of the cache")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+            this.invocationTimer = Timer.builder(INVOCATION_TIMER)
+                    .description("Latency of the invocations of the cached method while refreshing the cache")
+                    .tag(CACHE_TAG, cacheName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.successCounter = invocationCounter(cacheName, "success");
+            this.failureCounter = invocationCounter(cacheName, "failure");
+            this.timeoutCounter = invocationCounter(cacheName, "timeout");
+            this.skippedCounter = Counter.builder(SKIPPED_COUNTER)
+                    .description("Refreshes of the cache skipped since the previous refresh was still running")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+            this.changedCounter = Counter.builder(CHANGED_COUNTER)
+                    .description("Refreshed entries of the cache whose value changed")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+            FunctionCounter.builder(UNCHANGED_COUNTER, statistics, CacheRefreshStatistics::getUnchangedEntries)
+                    .description("Refreshed entries of the cache not written since their value did not change")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+            Gauge.builder(REFRESHED_ENTRIES_GAUGE, statistics, CacheRefreshStatistics::getLastRefreshedCount)
+                    .description("Entries refreshed by the last refresh of the cache")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+            TimeGauge.builder(OLDEST_ENTRY_AGE_GAUGE, statistics, TimeUnit.NANOSECONDS, s -> s.getOldestEntryAge().toNanos())
+                    .description("Time since the least recently refreshed entry of the cache was refreshed")
+                    .tag(CACHE_TAG, cacheName)
+                    .register(meterRegistry);
+        }
+
+        private Counter invocationCounter(String cacheName, String result) {
+            return Counter.builder(INVOCATION_COUNTER)
+                    .description("Invocations of the cached method while refreshing the cache")
+                    .tag(CACHE_TAG, cacheName)
+                    .tag(RESULT_TAG, result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.philkes.spring.cache.snapshot;
+
+import io.github.philkes.spring.cache.annotation.CacheableAutoRefreshedProcessor;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restores the caches of all {@link io.github.philkes.spring.cache.annotation.CacheableAutoRefreshed} methods from their
+ * snapshots on startup and writes the snapshots periodically as well as on shutdown, see {@link CacheSnapshotStore}.
+ *
+ * <p>The caches are restored while starting the application context, i.e. before the first refresh is scheduled and
+ * before the web server (started in a later phase) accepts any requests. Entries stored without value are loaded by
+ * invoking the cached method, with up to {@code parallelism} concurrent invocations.
+ */
+public class CacheSnapshotLifecycle implements SmartLifecycle {
+
+    /**
+     * Started before the default phase of e.g. the web server, stopped after it
+     */
+    public static final int PHASE = 0;
+
+    private static final String THREAD_NAME_PREFIX = "cache-snapshot-";
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final CacheableAutoRefreshedProcessor<?> processor;
+
+    private final CacheSnapshotStore store;
+
+    @Nullable
+    private final Duration interval;
+
+    private final int parallelism;
+
+    @Nullable
+    private ScheduledExecutorService snapshotExecutor;
+
+    private volatile boolean running;
+
+    /**
+     * @param interval    interval of writing the snapshots, {@code null} to only write them on shutdown
+     * @param parallelism maximum number of concurrent invocations of the cached methods while restoring
+     */
+    public CacheSnapshotLifecycle(CacheableAutoRefreshedProcessor<?> processor, CacheSnapshotStore store,
+                                  @Nullable Duration interval, int parallelism) {
+        this.processor = processor;
+        this.store = store;
+        this.interval = interval;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Override
+    public void start() {
+        restoreSnapshots();
+        if (interval != null && !interval.isZero() && !interval.isNegative()) {
+            snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+            snapshotExecutor.scheduleWithFixedDelay(this::writeSnapshots, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+            snapshotExecutor = null;
+        }
+        writeSnapshots();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Restores all caches from their snapshots, returns after all caches were restored.
+     */
+    public void restoreSnapshots() {
+        long startNanos = System.nanoTime();
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory(THREAD_NAME_PREFIX)) : null;
+        int restoredCount = 0;
+        try {
+            for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+                for (String cacheName : refresher.getCacheNames()) {
+                    restoredCount += restoreSnapshot(refresher, cacheName, executor);
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        if (logger.isInfoEnabled() && restoredCount > 0) {
+            logger.info("Restored %d cache-entries from snapshots in %d ms.".formatted(restoredCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        }
+    }
+
+    private int restoreSnapshot(CacheRefresher<?> refresher, String cacheName, @Nullable ExecutorService executor) {
+        List<CacheSnapshotStore.Entry> entries;
+        try {
+            entries = store.read(cacheName);
+        } catch (IOException e) {
+            logger.warn("Could not read snapshot of cache '%s', the cache is not restored.".formatted(cacheName), e);
+            return 0;
+        }
+        Map<ParametersKey, Object> values = new HashMap<>();
+        List<ParametersKey> keysToLoad = new ArrayList<>();
+        for (CacheSnapshotStore.Entry entry : entries) {
+            if (entry.hasValue()) {
+                values.put(entry.key(), entry.value());
+            } else {
+                keysToLoad.add(entry.key());
+            }
+        }
+        refresher.putAll(cacheName, values);
+        int loadedCount = refresher.preload(List.of(cacheName), keysToLoad, parallelism, executor);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Restored %d cache-entries of cache '%s' from its snapshot, %d of them were loaded."
+                    .formatted(values.size() + loadedCount, cacheName, loadedCount));
+        }
+        return values.size() + loadedCount;
+    }
+
+    /**
+     * Writes the snapshots of all caches.
+     */
+    public void writeSnapshots() {
+        for (CacheRefresher<?> refresher : processor.getCacheRefreshers()) {
+            for (String cacheName : refresher.getCacheNames()) {
+                try {
+                    int count = store.write(cacheName, refresher.getEntries(cacheName));
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Wrote snapshot of %d entries of cache '%s'.".formatted(count, cacheName));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Could not write snapshot of cache '%s'.".formatted(cacheName), e);
+                }
+            }
+        }
+    }
+}
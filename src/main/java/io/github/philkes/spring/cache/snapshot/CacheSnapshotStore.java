@@ -0,0 +1,237 @@
+package io.github.philkes.spring.cache.snapshot;
+
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the keys (and optionally the values) of caches in local files, one file per cache, so that the caches can be
+ * restored after a restart.
+ *
+ * <p>A snapshot file is a gzipped sequence of length-prefixed records, each containing the Java-serialized parameters of a
+ * {@link ParametersKey} and optionally its value. Entries whose parameters (or values) are not serializable are skipped
+ * (or stored without value). Snapshots are written to a temporary file first and then moved, so that a crash while writing
+ * never leaves a corrupt snapshot behind.
+ *
+ * <p>Records are deserialized with an {@link ObjectInputFilter} limiting the size of the object graphs, merged with the
+ * JVM-wide filter (if any). Records longer than {@link #MAX_RECORD_LENGTH} are neither written nor read.
+ */
+public class CacheSnapshotStore {
+
+    private static final Log logger = LogFactory.getLog(CacheSnapshotStore.class);
+
+    private static final int MAGIC = 0x43524b53;
+
+    private static final int VERSION = 1;
+
+    private static final String FILE_SUFFIX = ".snapshot";
+
+    /**
+     * Maximum length of a single serialized record in bytes
+     */
+    public static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Default pattern of the {@link ObjectInputFilter} used to deserialize the records, see {@link ObjectInputFilter.Config#createFilter(String)}
+     */
+    public static final String DEFAULT_SERIAL_FILTER = "maxdepth=64;maxrefs=100000;maxarray=" + MAX_RECORD_LENGTH;
+
+    private final Path directory;
+
+    private final boolean includeValues;
+
+    @Nullable
+    private final ClassLoader classLoader;
+
+    private final ObjectInputFilter serialFilter;
+
+    /**
+     * Creates a store deserializing the records with the {@link #DEFAULT_SERIAL_FILTER}.
+     *
+     * @see #CacheSnapshotStore(Path, boolean, ClassLoader, String)
+     */
+    public CacheSnapshotStore(Path directory, boolean includeValues, @Nullable ClassLoader classLoader) {
+        this(directory, includeValues, classLoader, DEFAULT_SERIAL_FILTER);
+    }
+
+    /**
+     * @param directory     directory of the snapshot files
+     * @param includeValues whether the values are stored as well, otherwise only the keys are stored and the values are
+     *                      loaded by invoking the cached method on restore
+     * @param classLoader   class loader used to deserialize the keys and values
+     * @param serialFilter  pattern of the {@link ObjectInputFilter} used to deserialize the keys and values, e.g. to only allow
+     *                      certain classes, see {@link ObjectInputFilter.Config#createFilter(String)}
+     */
+    public CacheSnapshotStore(Path directory, boolean includeValues, @Nullable ClassLoader classLoader, String serialFilter) {
+        this.directory = directory;
+        this.includeValues = includeValues;
+        this.classLoader = classLoader;
+        ObjectInputFilter filter = ObjectInputFilter.Config.createFilter(serialFilter);
+        ObjectInputFilter jvmFilter = ObjectInputFilter.Config.getSerialFilter();
+        this.serialFilter = jvmFilter != null ? ObjectInputFilter.merge(filter, jvmFilter) : filter;
+    }
+
+    /**
+     * Replaces the snapshot of the given cache with the given entries. Keys that are not of type {@link ParametersKey} are skipped.
+     *
+     * @return number of written entries
+     */
+    public int write(String cacheName, Map<?, ?> entries) throws IOException {
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, getFileName(cacheName), ".tmp");
+        int count = 0;
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+                for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                    if (entry.getKey() instanceof ParametersKey key && writeRecord(record, key, entry.getValue()) && isWithinMaxLength(record, key)) {
+                        out.writeInt(record.size());
+                        record.writeTo(out);
+                        count++;
+                    }
+                }
+            }
+            Files.move(tempFile, getFile(cacheName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return count;
+    }
+
+    private static boolean isWithinMaxLength(ByteArrayOutputStream record, ParametersKey key) {
+        if (record.size() > MAX_RECORD_LENGTH) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cache-entry with key '%s' is serialized into %d bytes, skipping it in the snapshot.".formatted(key, record.size()));
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Serializes a single entry into {@code record}, without the value if it is not serializable.
+     *
+     * @return {@code false} if the key is not serializable
+     */
+    private boolean writeRecord(ByteArrayOutputStream record, ParametersKey key, @Nullable Object value) {
+        if (includeValues && value != null) {
+            record.reset();
+            try (ObjectOutputStream out = new ObjectOutputStream(record)) {
+                out.writeObject(key.getParams());
+                out.writeBoolean(true);
+                out.writeObject(value);
+                return true;
+            } catch (IOException e) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Value of cache-entry with key '%s' is not serializable, storing only its key.".formatted(key), e);
+                }
+            }
+        }
+        record.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(record)) {
+            out.writeObject(key.getParams());
+            out.writeBoolean(false);
+            return true;
+        } catch (IOException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cache-entry with key '%s' is not serializable, skipping it in the snapshot.".formatted(key), e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads the snapshot of the given cache. Entries that can not be deserialized (or are rejected by the filter) are skipped.
+     * Reading stops at a record of invalid length.
+     *
+     * @return entries of the snapshot, empty if there is no snapshot of the cache
+     */
+    public List<Entry> read(String cacheName) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(getFile(cacheName)))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.warn("Ignoring snapshot of cache '%s' with unknown format.".formatted(cacheName));
+                return entries;
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0 || length > MAX_RECORD_LENGTH) {
+                    logger.warn("Snapshot of cache '%s' contains a record of invalid length %d, ignoring the rest of the snapshot.".formatted(cacheName, length));
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                Entry entry = readRecord(record, cacheName);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return entries;
+        }
+        return entries;
+    }
+
+    @Nullable
+    private Entry readRecord(byte[] record, String cacheName) {
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(record), classLoader)) {
+            in.setObjectInputFilter(serialFilter);
+            ParametersKey key = ParametersKey.of((Object[]) in.readObject());
+            boolean hasValue = in.readBoolean();
+            return new Entry(key, hasValue ? in.readObject() : null, hasValue);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Could not read cache-entry from snapshot of cache '%s', skipping it.".formatted(cacheName), e);
+            }
+            return null;
+        }
+    }
+
+    private Path getFile(String cacheName) {
+        return directory.resolve(getFileName(cacheName) + FILE_SUFFIX);
+    }
+
+    private static String getFileName(String cacheName) {
+        return cacheName.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Entry of a snapshot
+     *
+     * @param key      key of the cache-entry
+     * @param value    value of the cache-entry, only present if {@code hasValue}
+     * @param hasValue whether the value was stored in the snapshot
+     */
+    public record Entry(ParametersKey key, @Nullable Object value, boolean hasValue) {
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.philkes.spring.cache.annotation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationCodeFragments;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.javapoet.ClassName;
+import org.springframework.javapoet.CodeBlock;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheableAutoRefreshedBeanRegistrationAotProcessorTest {
+
+    private final CacheableAutoRefreshedBeanRegistrationAotProcessor processor = new CacheableAutoRefreshedBeanRegistrationAotProcessor();
+
+    private final RuntimeHints runtimeHints = new RuntimeHints();
+
+    private final GenerationContext generationContext = new DefaultGenerationContext(
+            new ClassNameGenerator(ClassName.get("com.example", "Test")), new InMemoryGeneratedFiles(), runtimeHints);
+
+    @Test
+    void testRegistersHintsForAnnotatedAndReferencedMethods() throws Exception {
+        BeanRegistrationAotContribution contribution = processor.processAheadOfTime(registeredBean(TestBean.class));
+        assertNotNull(contribution);
+        contribution.applyTo(generationContext, null);
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TestBean.class.getMethod("fetchSomeData", String.class)).invoke().test(runtimeHints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TestBean.class, "fetchAllBatchData").invoke().test(runtimeHints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TestBean.class, "warmUpKeys").invoke().test(runtimeHints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TestBean.class, "changeFingerprint").invoke().test(runtimeHints));
+    }
+
+    @Test
+    void testGeneratesAnnotatedMethodsAttribute() {
+        BeanRegistrationAotContribution contribution = processor.processAheadOfTime(registeredBean(TestBean.class));
+        assertNotNull(contribution);
+        BeanRegistrationCodeFragments delegate = mock(BeanRegistrationCodeFragments.class);
+        when(delegate.generateSetBeanDefinitionPropertiesCode(any(), any(), any(), any())).thenReturn(CodeBlock.of(""));
+
+        String code = contribution.customizeBeanRegistrationCodeFragments(generationContext, delegate)
+                .generateSetBeanDefinitionPropertiesCode(generationContext, null, new RootBeanDefinition(TestBean.class), name -> true)
+                .toString();
+
+        assertTrue(code.startsWith("beanDefinition.setAttribute(\"" + CacheableAutoRefreshedMethods.ATTRIBUTE + "\""), code);
+        assertTrue(code.contains("\"" + TestBean.class.getName() + "\""), code);
+        assertTrue(code.contains("\"fetchSomeData(java.lang.String)\""), code);
+        assertTrue(code.contains("\"fetchSomeData()\""), code);
+    }
+
+    @Test
+    void testSkipsJavaClasses() {
+        assertNull(processor.processAheadOfTime(registeredBean(String.class)));
+    }
+
+    @Test
+    void testResolvesDetectedMethods() throws Exception {
+        Method withParameter = TestBean.class.getMethod("fetchSomeData", String.class);
+        Method withoutParameters = TestBean.class.getMethod("fetchSomeData");
+        CacheableAutoRefreshedMethods methods = CacheableAutoRefreshedMethods.of(TestBean.class, List.of(withParameter, withoutParameters));
+
+        assertEquals(Set.of(withParameter, withoutParameters), methods.resolve(TestBean.class));
+        assertNull(methods.resolve(SomeService.class));
+        assertTrue(CacheableAutoRefreshedMethods.of(SomeService.class.getName()).resolve(SomeService.class).isEmpty());
+    }
+
+    private static RegisteredBean registeredBean(Class<?> beanClass) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(beanClass));
+        return RegisteredBean.of(beanFactory, "bean");
+    }
+}
@@ -1,17 +1,46 @@
 package io.github.philkes.spring.cache.annotation;
 
+import io.github.philkes.spring.cache.actuator.CacheRefreshEndpoint;
+import io.github.philkes.spring.cache.cluster.InMemoryRefreshLockProvider;
+import io.github.philkes.spring.cache.interceptor.CacheRefresher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.awaitility.Duration;
+import io.github.philkes.spring.cache.snapshot.CacheSnapshotLifecycle;
+import io.github.philkes.spring.cache.snapshot.CacheSnapshotStore;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import static io.github.philkes.spring.cache.interceptor.ParametersKeyGenerator.PARAMETERS_KEY_GENERATOR_BEAN;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +54,34 @@ public abstract class CacheableAutoRefreshedTest {
     @Autowired
     TestBean testBean;
 
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    CacheableAutoRefreshedProcessor<?> cacheableAutoRefreshedProcessor;
+
+    @Autowired
+    CacheRefreshOperations cacheRefreshOperations;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    InMemoryRefreshLockProvider refreshLockProvider;
+
+    @Autowired
+    TestApplication.RecordingEntryPublisher entryPublisher;
+
+    @Autowired
+    @Qualifier(PARAMETERS_KEY_GENERATOR_BEAN)
+    KeyGenerator parametersKeyGenerator;
+
+    @TempDir
+    Path snapshotDirectory;
+
     @Value("${test.cache.fixed.delay}")
     Integer fixedDelay;
 
@@ -73,4 +130,555 @@ public abstract class CacheableAutoRefreshedTest {
         assertEquals("data: %s".formatted(msg), testBean.fetchSomeData(msg));
         assertEquals("data: %s".formatted(msg2), testBean.fetchSomeData(msg2));
     }
+
+    @Test
+    void testCacheableAutoRefreshedParallel() {
+        int keyCount = 10;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("parallel data: %d".formatted(i), testBean.fetchSomeParallelData(String.valueOf(i)));
+        }
+        verify(someService, times(keyCount)).fetchParallelData(anyString());
+
+        // Wait until all cache-entries should have been refreshed once
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(keyCount * 2)).fetchParallelData(anyString()));
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("parallel data: %d".formatted(i), testBean.fetchSomeParallelData(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedEvictIfIdle() {
+        String msg = "idle message";
+        assertEquals("idle data: %s".formatted(msg), testBean.fetchSomeIdleData(msg));
+        Cache cache = cacheManager.getCache("someIdleCache");
+        assertNotNull(cache);
+        assertTrue(isCached(cache, ParametersKey.of(msg)));
+
+        // Entry is not accessed anymore, so it has to be evicted instead of being refreshed forever
+        await()
+                .atMost(new Duration(fixedDelay * 3l + 100, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertFalse(isCached(cache, ParametersKey.of(msg))));
+        verify(someService, atMost(2)).fetchIdleData(anyString());
+
+        assertEquals("idle data: %s".formatted(msg), testBean.fetchSomeIdleData(msg));
+        assertTrue(isCached(cache, ParametersKey.of(msg)));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedStoredEntryNotIdle() {
+        cacheRefreshOperations.putAll("someStoredCache", Map.of(ParametersKey.of("a"), "stored data: a"));
+        Cache cache = cacheManager.getCache("someStoredCache");
+        assertNotNull(cache);
+        assertTrue(isCached(cache, ParametersKey.of("a")));
+
+        // The stored entry counts as accessed, so the next refresh refreshes it instead of evicting it as idle
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeastOnce()).fetchStoredData("a"));
+    }
+
+    /**
+     * Checks the native cache directly, since e.g. {@link Cache#get(Object)} of a Caffeine LoadingCache would load missing entries
+     */
+    private static boolean isCached(Cache cache, Object key) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof Map<?, ?> mapCache) {
+            return mapCache.containsKey(key);
+        }
+        if (nativeCache instanceof javax.cache.Cache<?, ?> jCache) {
+            return ((javax.cache.Cache<Object, ?>) jCache).containsKey(key);
+        }
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap().containsKey(key);
+    }
+
+    @Test
+    void testCacheableAutoRefreshedBatch() {
+        int keyCount = 5;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("batch data: %d".formatted(i), testBean.fetchSomeBatchData(String.valueOf(i)));
+        }
+        verify(someService, times(keyCount)).fetchBatchData(anyString());
+
+        // Wait until all cache-entries should have been refreshed once in batches of 2 entries
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(3)).fetchAllBatchData(anyList()));
+        verify(someService, times(keyCount)).fetchBatchData(anyString());
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("batch data: %d".formatted(i), testBean.fetchSomeBatchData(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedSpread() {
+        int keyCount = 10;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("spread data: %d".formatted(i), testBean.fetchSomeSpreadData(String.valueOf(i)));
+        }
+        verify(someService, times(keyCount)).fetchSpreadData(anyString());
+
+        // Every cache-entry is refreshed once per interval, but in its own slot
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    for (int i = 0; i < keyCount; i++) {
+                        verify(someService, atLeast(2)).fetchSpreadData(String.valueOf(i));
+                    }
+                });
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("spread data: %d".formatted(i), testBean.fetchSomeSpreadData(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedBudgeted() {
+        int keyCount = 5;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("budgeted data: %d".formatted(i), testBean.fetchSomeBudgetedData(String.valueOf(i)));
+        }
+        verify(someService, times(keyCount)).fetchBudgetedData(anyString());
+
+        // A single refresh only refreshes at most 2 entries
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(keyCount + 1)).fetchBudgetedData(anyString()));
+        verify(someService, atMost(keyCount + 2)).fetchBudgetedData(anyString());
+
+        // All entries are refreshed once after 3 refreshes
+        await()
+                .atMost(new Duration(fixedDelay * 3l + 100, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    for (int i = 0; i < keyCount; i++) {
+                        verify(someService, atLeast(2)).fetchBudgetedData(String.valueOf(i));
+                    }
+                });
+    }
+
+    @Test
+    void testCacheableAutoRefreshedMetrics() {
+        int keyCount = 3;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("metrics data: %d".formatted(i), testBean.fetchSomeMetricsData(String.valueOf(i)));
+        }
+
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    Timer refreshTimer = meterRegistry.find("cache.refresh").tag("cache", "someMetricsCache").timer();
+                    assertNotNull(refreshTimer);
+                    assertTrue(refreshTimer.count() >= 1);
+                    assertEquals(keyCount, meterRegistry.get("cache.refresh.entries").tag("cache", "someMetricsCache").gauge().value());
+                });
+        assertTrue(meterRegistry.get("cache.refresh.invocation").tag("cache", "someMetricsCache").timer().count() >= keyCount);
+        assertTrue(meterRegistry.get("cache.refresh.invocations").tag("cache", "someMetricsCache").tag("result", "success").counter().count() >= keyCount);
+        assertEquals(0, meterRegistry.get("cache.refresh.invocations").tag("cache", "someMetricsCache").tag("result", "failure").counter().count());
+        assertEquals(0, meterRegistry.get("cache.refresh.skipped").tag("cache", "someMetricsCache").counter().count());
+        assertTrue(meterRegistry.get("cache.refresh.oldest.entry.age").tag("cache", "someMetricsCache").timeGauge().value(TimeUnit.MILLISECONDS) <= fixedDelay * 2l);
+    }
+
+    @Test
+    void testCacheableAutoRefreshedFanOut() {
+        int keyCount = 3;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("fan-out data: %d".formatted(i), testBean.fetchSomeFanOutData(String.valueOf(i)));
+        }
+        verify(someService, times(keyCount)).fetchFanOutData(anyString());
+
+        // Every key is refreshed once for both caches
+        await()
+                .atMost(new Duration(fixedDelay * 2l, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(keyCount * 2)).fetchFanOutData(anyString()));
+        for (int i = 0; i < keyCount; i++) {
+            verify(someService, times(2)).fetchFanOutData(String.valueOf(i));
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedSkipsOverlappingRefreshes() {
+        assertEquals("slow data: 1", testBean.fetchSomeSlowData("1"));
+
+        // Refreshes take longer than the fixed rate, so ticks are skipped instead of piling up
+        await()
+                .atMost(new Duration(fixedDelay, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertTrue(meterRegistry.get("cache.refresh.skipped").tag("cache", "someSlowCache").counter().count() >= 1));
+        // Not refreshed on the application's scheduler (Caffeine reloads on its own executor)
+        await()
+                .atMost(new Duration(fixedDelay, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(2)).fetchSlowData("1"));
+        assertFalse(someService.lastSlowDataThread.startsWith("scheduling-"));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedSnapshot() {
+        int keyCount = 3;
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("snapshot data: %d".formatted(i), testBean.fetchSomeSnapshotData(String.valueOf(i)));
+        }
+        CacheSnapshotLifecycle snapshotLifecycle = new CacheSnapshotLifecycle(cacheableAutoRefreshedProcessor,
+                new CacheSnapshotStore(snapshotDirectory, false, getClass().getClassLoader()), null, 2);
+        snapshotLifecycle.writeSnapshots();
+
+        Cache cache = cacheManager.getCache("someSnapshotCache");
+        cache.clear();
+        snapshotLifecycle.restoreSnapshots();
+
+        for (int i = 0; i < keyCount; i++) {
+            assertTrue(isCached(cache, ParametersKey.of(String.valueOf(i))));
+            verify(someService, atLeast(2)).fetchSnapshotData(String.valueOf(i));
+        }
+        clearInvocations(someService);
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("snapshot data: %d".formatted(i), testBean.fetchSomeSnapshotData(String.valueOf(i)));
+        }
+        verify(someService, never()).fetchSnapshotData(anyString());
+    }
+
+    @Test
+    void testCacheableAutoRefreshedSnapshotNotIdle() {
+        assertEquals("stored data: b", testBean.fetchSomeStoredData("b"));
+        CacheSnapshotLifecycle snapshotLifecycle = new CacheSnapshotLifecycle(cacheableAutoRefreshedProcessor,
+                new CacheSnapshotStore(snapshotDirectory, true, getClass().getClassLoader()), null, 2);
+        snapshotLifecycle.writeSnapshots();
+
+        Cache cache = cacheManager.getCache("someStoredCache");
+        cache.clear();
+        snapshotLifecycle.restoreSnapshots();
+        assertTrue(isCached(cache, ParametersKey.of("b")));
+        clearInvocations(someService);
+
+        // Restored entries are not evicted as idle by the next refresh
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeastOnce()).fetchStoredData("b"));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedWarmUp() {
+        Cache cache = cacheManager.getCache("someWarmUpCache");
+        for (String key : List.of("a", "b", "c")) {
+            assertTrue(isCached(cache, ParametersKey.of(key)));
+        }
+        clearInvocations(someService);
+        for (String key : List.of("a", "b", "c")) {
+            assertEquals("warm-up data: %s".formatted(key), testBean.fetchSomeWarmUpData(key));
+        }
+        verify(someService, never()).fetchWarmUpData(anyString());
+    }
+
+    @Test
+    void testCacheableAutoRefreshedCompletableFuture() {
+        assertEquals("async data: a", testBean.fetchSomeFutureData("a").join());
+        verify(someService, times(1)).fetchAsyncData("a");
+
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeast(2)).fetchAsyncData("a"));
+        CompletableFuture<String> cached = testBean.fetchSomeFutureData("a");
+        assertTrue(cached.isDone());
+        assertEquals("async data: a", cached.join());
+    }
+
+    @Test
+    void testCacheableAutoRefreshedMono() {
+        assertEquals("reactive data: a", testBean.fetchSomeMonoData("a").block());
+        verify(someService, times(1)).fetchReactiveData("a");
+
+        // The refresh subscribes to the returned Mono and caches its resolved value
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(2)).fetchReactiveData("a"));
+        clearInvocations(someService);
+        assertEquals("reactive data: a", testBean.fetchSomeMonoData("a").block());
+        verify(someService, never()).fetchReactiveData("a");
+    }
+
+    @Test
+    void testCacheableAutoRefreshedAsyncWithoutExecutor() {
+        // Asynchronous methods only limit their invocations in flight, no refresh thread pool is needed
+        for (String cacheName : List.of("someFutureCache", "someMonoCache")) {
+            CacheRefresher<?> refresher = getCacheRefresher(cacheName);
+            assertNull(refresher.getSettings().getExecutor());
+            assertEquals(64, refresher.getConcurrencyLimit());
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedFailureBackoff() {
+        assertEquals("backoff data: a", testBean.fetchSomeBackoffData("a"));
+        someService.backoffSourceDown = true;
+        try {
+            // After the first failed refresh, the following refreshes are skipped instead of invoking the failing source again
+            await()
+                    .atMost(new Duration(fixedDelay * 3l + 1000, TimeUnit.MILLISECONDS))
+                    .untilAsserted(() -> assertTrue(meterRegistry.get("cache.refresh.skipped").tag("cache", "someBackoffCache").counter().count() >= 1));
+            verify(someService, times(2)).fetchBackoffData("a");
+            assertEquals("backoff data: a", testBean.fetchSomeBackoffData("a"));
+        } finally {
+            someService.backoffSourceDown = false;
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedOnDemand() throws Exception {
+        assertEquals("on-demand data: a v1", testBean.fetchSomeOnDemandData("a"));
+        assertEquals("on-demand data: b v1", testBean.fetchSomeOnDemandData("b"));
+        someService.onDemandVersion = 2;
+
+        cacheRefreshOperations.refresh("someOnDemandCache", "a").get(5, TimeUnit.SECONDS);
+        assertEquals("on-demand data: a v2", testBean.fetchSomeOnDemandData("a"));
+        assertEquals("on-demand data: b v1", testBean.fetchSomeOnDemandData("b"));
+
+        // Duplicate keys are refreshed once
+        cacheRefreshOperations.refreshKeys("someOnDemandCache", List.of("b", "b")).get(5, TimeUnit.SECONDS);
+        assertEquals("on-demand data: b v2", testBean.fetchSomeOnDemandData("b"));
+        verify(someService, times(2)).fetchOnDemandData("b");
+
+        someService.onDemandVersion = 3;
+        eventPublisher.publishEvent(new CacheRefreshEvent(this, "someOnDemandCache", List.of("a")));
+        await()
+                .atMost(new Duration(5, TimeUnit.SECONDS))
+                .untilAsserted(() -> assertEquals("on-demand data: a v3", testBean.fetchSomeOnDemandData("a")));
+
+        assertThrows(IllegalArgumentException.class, () -> cacheRefreshOperations.refresh("unknownCache", "a"));
+        assertThrows(IllegalArgumentException.class, () -> cacheRefreshOperations.refresh("someOnDemandCache", "a", "b"));
+        assertThrows(IllegalArgumentException.class, () -> cacheRefreshOperations.refresh("someOnDemandCache"));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedOnDemandWithoutScheduler() throws Exception {
+        CacheRefresher<?> onDemandRefresher = getCacheRefresher("someOnDemandCache");
+        CacheRefresher<?> parallelRefresher = getCacheRefresher("someParallelCache");
+        TaskScheduler scheduler = onDemandRefresher.getRefreshScheduler();
+        onDemandRefresher.setRefreshScheduler(null);
+        parallelRefresher.setRefreshScheduler(null);
+        try {
+            // Neither scheduler nor executor, refreshed on the calling thread
+            someService.onDemandVersion = 1;
+            assertEquals("on-demand data: c v1", testBean.fetchSomeOnDemandData("c"));
+            someService.onDemandVersion = 2;
+            assertTrue(cacheRefreshOperations.refresh("someOnDemandCache", "c").isDone());
+            assertEquals("on-demand data: c v2", testBean.fetchSomeOnDemandData("c"));
+
+            // Refreshed on the executor
+            assertEquals("parallel data: c", testBean.fetchSomeParallelData("c"));
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            doAnswer(invocation -> {
+                threads.add(Thread.currentThread());
+                return invocation.callRealMethod();
+            }).when(someService).fetchParallelData("c");
+            cacheRefreshOperations.refresh("someParallelCache", "c").get(5, TimeUnit.SECONDS);
+            assertEquals(1, threads.size());
+            assertFalse(threads.contains(Thread.currentThread()));
+        } finally {
+            someService.onDemandVersion = 1;
+            // Do not refresh the entries in other tests
+            cacheManager.getCache("someOnDemandCache").evict(ParametersKey.of("c"));
+            cacheManager.getCache("someParallelCache").evict(ParametersKey.of("c"));
+            onDemandRefresher.setRefreshScheduler(scheduler);
+            parallelRefresher.setRefreshScheduler(scheduler);
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedTimeout() {
+        assertEquals("timeout data: a", testBean.fetchSomeTimeoutData("a"));
+        someService.timeoutSourceSlow = true;
+        try {
+            // The slow invocation is abandoned after the refresh timeout, the old value is retained
+            await()
+                    .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                    .untilAsserted(() -> assertTrue(meterRegistry.get("cache.refresh.invocations").tag("cache", "someTimeoutCache")
+                            .tag("result", "timeout").counter().count() >= 1));
+            assertEquals("timeout data: a", testBean.fetchSomeTimeoutData("a"));
+        } finally {
+            someService.timeoutSourceSlow = false;
+        }
+    }
+
+    @Test
+    void testCacheableAutoRefreshedSkipUnchanged() {
+        String value = testBean.fetchSomeChangeData("a");
+        assertTrue(value.startsWith("change data: a v1"));
+
+        // The refreshed value has the same fingerprint, the cached value is not replaced
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertTrue(meterRegistry.get("cache.refresh.unchanged").tag("cache", "someChangeCache").functionCounter().count() >= 1));
+        assertEquals(value, testBean.fetchSomeChangeData("a"));
+        assertEquals(0, meterRegistry.get("cache.refresh.changed").tag("cache", "someChangeCache").counter().count());
+
+        someService.changeVersion = 2;
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertTrue(testBean.fetchSomeChangeData("a").startsWith("change data: a v2")));
+        assertEquals(1, meterRegistry.get("cache.refresh.changed").tag("cache", "someChangeCache").counter().count());
+    }
+
+    @Test
+    void testCacheableAutoRefreshedConditional() {
+        assertEquals("conditional data: a v1", testBean.fetchSomeConditionalData("a"));
+        verify(someService, times(1)).fetchConditionalData("a", null);
+
+        // The refresh passes the cached value, which is retained since the source reports no change
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, atLeastOnce()).fetchConditionalData("a", "conditional data: a v1"));
+        assertEquals("conditional data: a v1", testBean.fetchSomeConditionalData("a"));
+        assertTrue(meterRegistry.get("cache.refresh.unchanged").tag("cache", "someConditionalCache").functionCounter().count() >= 1);
+
+        someService.conditionalVersion = 2;
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertEquals("conditional data: a v2", testBean.fetchSomeConditionalData("a")));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedEndpoint() {
+        CacheRefreshEndpoint endpoint = new CacheRefreshEndpoint(cacheableAutoRefreshedProcessor);
+        assertEquals("paused data: a v1", testBean.fetchSomePausedData("a"));
+        CacheRefreshEndpoint.RefresherDescriptor refresher = endpoint.refreshers().refreshers().stream()
+                .filter(descriptor -> descriptor.caches().containsKey("somePausedCache")).findFirst().orElseThrow();
+        assertTrue(refresher.target().endsWith("TestBean.fetchSomePausedData"));
+        assertNotNull(refresher.schedule());
+        assertEquals("fixedDelay", refresher.schedule().type());
+        assertEquals(1, refresher.caches().get("somePausedCache").size());
+
+        // The paused cache is not refreshed anymore
+        assertTrue(endpoint.updateCache("somePausedCache", CacheRefreshEndpoint.Action.PAUSE).paused());
+        someService.pausedVersion = 2;
+        await()
+                .pollDelay(new Duration(fixedDelay * 2, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertEquals("paused data: a v1", testBean.fetchSomePausedData("a")));
+
+        assertFalse(endpoint.updateCache("somePausedCache", CacheRefreshEndpoint.Action.RESUME).paused());
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertEquals("paused data: a v2", testBean.fetchSomePausedData("a")));
+        CacheRefreshEndpoint.CacheDescriptor cache = endpoint.cache("somePausedCache");
+        assertNotNull(cache);
+        assertNotNull(cache.lastRefreshDuration());
+        assertNull(endpoint.cache("unknownCache"));
+        assertNull(endpoint.updateCache("unknownCache", CacheRefreshEndpoint.Action.REFRESH));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedClusterCoordinated() {
+        assertEquals("cluster data: a v1", testBean.fetchSomeClusterData("a"));
+        assertEquals("cluster data: b v1", testBean.fetchSomeClusterData("b"));
+
+        // Another node holds the locks of all partitions (once released by this node), so this node does not refresh
+        InMemoryRefreshLockProvider otherNode = refreshLockProvider.forNode("node-2");
+        Instant lockUntil = Instant.now().plusSeconds(3600);
+        for (int partition = 0; partition < 4; partition++) {
+            String lockName = "cache-refresh:someClusterCache:" + partition;
+            await()
+                    .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                    .until(() -> otherNode.tryLock(lockName, lockUntil));
+        }
+        // The other node publishes the entries it refreshes, only these are not refreshed by this node
+        Map<ParametersKey, Object> published = Map.of(ParametersKey.of("a"), "cluster data: a node-2");
+        cacheRefreshOperations.putAll("someClusterCache", published);
+        someService.clusterVersion = 2;
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    cacheRefreshOperations.putAll("someClusterCache", published);
+                    assertEquals("cluster data: b v2", testBean.fetchSomeClusterData("b"));
+                });
+        assertEquals("cluster data: a node-2", testBean.fetchSomeClusterData("a"));
+        assertEquals("cluster data: b v2", entryPublisher.published.get(ParametersKey.of("b")));
+
+        for (int partition = 0; partition < 4; partition++) {
+            otherNode.unlock("cache-refresh:someClusterCache:" + partition, Instant.now());
+        }
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    assertEquals("cluster data: a v2", testBean.fetchSomeClusterData("a"));
+                    assertEquals("cluster data: b v2", testBean.fetchSomeClusterData("b"));
+                });
+    }
+
+    @Test
+    void testCacheableAutoRefreshedEarlyOnRead() {
+        assertEquals("early data: a v1", testBean.fetchSomeEarlyData("a"));
+        assertEquals("early data: b v1", testBean.fetchSomeEarlyData("b"));
+        someService.earlyVersion = 2;
+
+        // Entries are not refreshed without being read
+        await()
+                .pollDelay(new Duration(fixedDelay + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(1)).fetchEarlyData("a"));
+
+        // Reading the stale entry refreshes it in the background, the read itself does not wait for the refresh
+        assertNotNull(testBean.fetchSomeEarlyData("a"));
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> assertEquals("early data: a v2", testBean.fetchSomeEarlyData("a")));
+        verify(someService, times(1)).fetchEarlyData("b");
+    }
+
+    @Test
+    void testCacheableAutoRefreshedEarlyOnlyOnLookup() throws Exception {
+        assertNotNull(testBean.fetchSomeEarlyData("c"));
+        await()
+                .pollDelay(new Duration(fixedDelay + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(1)).fetchEarlyData("c"));
+
+        // Generating the key of the stale entry, e.g. for a @CachePut or @CacheEvict, is no read
+        parametersKeyGenerator.generate(testBean, TestBean.class.getMethod("fetchSomeEarlyData", String.class), "c");
+        await()
+                .pollDelay(new Duration(500, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(1)).fetchEarlyData("c"));
+
+        assertNotNull(testBean.fetchSomeEarlyData("c"));
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(2)).fetchEarlyData("c"));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedEarlyOnReadAsync() throws Exception {
+        assertEquals("early future data: a", testBean.fetchSomeEarlyFutureData("a").get(5, TimeUnit.SECONDS));
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(someService).fetchEarlyFutureData("a");
+        await()
+                .pollDelay(new Duration(fixedDelay + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(1)).fetchEarlyFutureData("a"));
+
+        // The asynchronous method is invoked in the background as well, not on the reading thread
+        assertNotNull(testBean.fetchSomeEarlyFutureData("a"));
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> verify(someService, times(2)).fetchEarlyFutureData("a"));
+        assertEquals(1, threads.size());
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void testCacheableAutoRefreshedNullValue() {
+        assertEquals("nullable data: a v1", testBean.fetchSomeNullableData("a"));
+        assertEquals("nullable data: b v1", testBean.fetchSomeNullableData("b"));
+
+        // The refresh returning null for one entry caches null and does not abort the refresh of the other entries
+        someService.nullableVersion = 2;
+        await()
+                .atMost(new Duration(fixedDelay * 2l + 1000, TimeUnit.MILLISECONDS))
+                .untilAsserted(() -> {
+                    assertNull(testBean.fetchSomeNullableData("a"));
+                    assertEquals("nullable data: b v2", testBean.fetchSomeNullableData("b"));
+                });
+    }
+
+    private CacheRefresher<?> getCacheRefresher(String cacheName) {
+        return cacheableAutoRefreshedProcessor.getCacheRefreshers().stream()
+                .filter(refresher -> refresher.getCacheNames().contains(cacheName))
+                .findFirst()
+                .orElseThrow();
+    }
 }
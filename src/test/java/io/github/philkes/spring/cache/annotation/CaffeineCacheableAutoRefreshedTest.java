@@ -1,8 +1,59 @@
 package io.github.philkes.spring.cache.annotation;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.junit.jupiter.api.Test;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @ActiveProfiles("caffeine")
 class CaffeineCacheableAutoRefreshedTest extends CacheableAutoRefreshedTest {
 
-}
\ No newline at end of file
+    @Test
+    void testCaffeineSpecIsKept() {
+        Policy<?, ?> policy = getPolicy("someCache");
+        assertEquals(500, policy.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofHours(1), policy.expireAfterWrite().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    void testMaximumSizeOverridesCaffeineSpec() {
+        Policy<?, ?> policy = getPolicy("someBoundedCache");
+        assertEquals(10, policy.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofHours(1), policy.expireAfterWrite().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    void testCustomCacheConfigurationIsKept() {
+        Policy<?, ?> policy = getPolicy("someCustomCache");
+        assertEquals(42, policy.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(10), policy.expireAfterAccess().orElseThrow().getExpiresAfter());
+        assertTrue(policy.expireAfterWrite().isEmpty());
+        // Set by the RefreshedCaffeineCacheCustomizer
+        assertTrue(policy.isRecordingStats());
+    }
+
+    @Test
+    void testWeightedCacheConfigurationIsKept() {
+        assertEquals("data: a", testBean.fetchSomeWeightedData("a"));
+        LoadingCache<?, ?> cache = assertInstanceOf(LoadingCache.class, cacheManager.getCache("someWeightedCache").getNativeCache());
+        // Applies the pending weight of the new entry
+        cache.cleanUp();
+        Policy<?, ?> policy = cache.policy();
+        Policy.Eviction<?, ?> eviction = policy.eviction().orElseThrow();
+        assertTrue(eviction.isWeighted());
+        assertEquals(1000, eviction.getMaximum());
+        // Weighed by the weigher set by the RefreshedCaffeineCacheCustomizer
+        assertEquals(7, eviction.weightedSize().orElseThrow());
+    }
+
+    private Policy<?, ?> getPolicy(String cacheName) {
+        Object nativeCache = cacheManager.getCache(cacheName).getNativeCache();
+        return assertInstanceOf(LoadingCache.class, nativeCache).policy();
+    }
+}
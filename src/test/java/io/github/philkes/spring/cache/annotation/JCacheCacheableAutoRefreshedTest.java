@@ -0,0 +1,8 @@
+package io.github.philkes.spring.cache.annotation;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("jcache")
+class JCacheCacheableAutoRefreshedTest extends CacheableAutoRefreshedTest {
+
+}
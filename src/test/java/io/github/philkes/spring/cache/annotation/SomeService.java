@@ -1,10 +1,35 @@
 package io.github.philkes.spring.cache.annotation;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Example Service mocking fetching some data from external source
  */
 public class SomeService {
 
+    volatile String lastSlowDataThread;
+
+    volatile boolean backoffSourceDown;
+
+    volatile int onDemandVersion = 1;
+
+    volatile int pausedVersion = 1;
+
+    volatile boolean timeoutSourceSlow;
+
+    volatile int clusterVersion = 1;
+
+    volatile int earlyVersion = 1;
+
+    volatile int changeVersion = 1;
+
+    volatile int conditionalVersion = 1;
+
+    volatile int nullableVersion = 1;
+
     public String fetchData(String parameter) {
         return "data: %s".formatted(parameter);
     }
@@ -12,4 +37,124 @@ public class SomeService {
     public String fetchData() {
         return "data";
     }
+
+    public String fetchStoredData(String parameter) {
+        return "stored data: %s".formatted(parameter);
+    }
+
+    public String fetchParallelData(String parameter) {
+        return "parallel data: %s".formatted(parameter);
+    }
+
+    public String fetchIdleData(String parameter) {
+        return "idle data: %s".formatted(parameter);
+    }
+
+    public String fetchBatchData(String parameter) {
+        return "batch data: %s".formatted(parameter);
+    }
+
+    public Map<String, String> fetchAllBatchData(List<String> parameters) {
+        return parameters.stream().collect(Collectors.toMap(Function.identity(), "batch data: %s"::formatted));
+    }
+
+    public String fetchSpreadData(String parameter) {
+        return "spread data: %s".formatted(parameter);
+    }
+
+    public String fetchBudgetedData(String parameter) {
+        return "budgeted data: %s".formatted(parameter);
+    }
+
+    public String fetchMetricsData(String parameter) {
+        return "metrics data: %s".formatted(parameter);
+    }
+
+    public String fetchFanOutData(String parameter) {
+        return "fan-out data: %s".formatted(parameter);
+    }
+
+    public String fetchSlowData(String parameter) {
+        lastSlowDataThread = Thread.currentThread().getName();
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slow data: %s".formatted(parameter);
+    }
+
+    public String fetchSnapshotData(String parameter) {
+        return "snapshot data: %s".formatted(parameter);
+    }
+
+    public String fetchWarmUpData(String parameter) {
+        return "warm-up data: %s".formatted(parameter);
+    }
+
+    public String fetchAsyncData(String parameter) {
+        return "async data: %s".formatted(parameter);
+    }
+
+    public String fetchReactiveData(String parameter) {
+        return "reactive data: %s".formatted(parameter);
+    }
+
+    public String fetchBackoffData(String parameter) {
+        if (backoffSourceDown) {
+            throw new IllegalStateException("source down");
+        }
+        return "backoff data: %s".formatted(parameter);
+    }
+
+    public String fetchOnDemandData(String parameter) {
+        return "on-demand data: %s v%d".formatted(parameter, onDemandVersion);
+    }
+
+    public String fetchTimeoutData(String parameter) {
+        if (timeoutSourceSlow) {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow timeout data: %s".formatted(parameter);
+        }
+        return "timeout data: %s".formatted(parameter);
+    }
+
+    public String fetchChangeData(String parameter) {
+        return "change data: %s v%d fetched at %d".formatted(parameter, changeVersion, System.nanoTime());
+    }
+
+    /**
+     * @return {@code null} if the given previous value is still up-to-date, like an HTTP 304 response
+     */
+    public String fetchConditionalData(String parameter, String previousValue) {
+        String value = "conditional data: %s v%d".formatted(parameter, conditionalVersion);
+        return value.equals(previousValue) ? null : value;
+    }
+
+    public String fetchPausedData(String parameter) {
+        return "paused data: %s v%d".formatted(parameter, pausedVersion);
+    }
+
+    public String fetchClusterData(String parameter) {
+        return "cluster data: %s v%d".formatted(parameter, clusterVersion);
+    }
+
+    public String fetchEarlyData(String parameter) {
+        return "early data: %s v%d".formatted(parameter, earlyVersion);
+    }
+
+    public String fetchEarlyFutureData(String parameter) {
+        return "early future data: %s".formatted(parameter);
+    }
+
+    public String fetchNullableData(String parameter) {
+        if (nullableVersion > 1 && parameter.equals("a")) {
+            return null;
+        }
+        return "nullable data: %s v%d".formatted(parameter, nullableVersion);
+    }
 }
@@ -1,11 +1,26 @@
 package io.github.philkes.spring.cache.annotation;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.philkes.spring.cache.cluster.InMemoryRefreshLockProvider;
+import io.github.philkes.spring.cache.cluster.RefreshedEntryPublisher;
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.MutableConfiguration;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @SpringBootApplication
 @EnableCaching
 @EnableScheduling
@@ -24,4 +39,77 @@ public class TestApplication {
         return new TestBean(someService);
     }
 
+    @Bean
+    public MeterRegistry meterRegistry(){
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public InMemoryRefreshLockProvider refreshLockProvider(){
+        return new InMemoryRefreshLockProvider();
+    }
+
+    @Bean
+    public RecordingEntryPublisher refreshedEntryPublisher(){
+        return new RecordingEntryPublisher();
+    }
+
+    /**
+     * Stores the cached values by reference, e.g. {@code CompletableFuture}s are not serializable
+     */
+    @Bean
+    @Profile("jcache")
+    public Configuration<Object, Object> defaultCacheConfiguration(){
+        return new MutableConfiguration<>().setStoreByValue(false);
+    }
+
+    /**
+     * Registers a cache with a configuration differing from {@code spring.cache.caffeine.spec}
+     */
+    @Bean
+    @Profile("caffeine")
+    public CacheManagerCustomizer<CaffeineCacheManager> customCacheCustomizer(){
+        return cacheManager -> {
+            cacheManager.registerCustomCache("someCustomCache",
+                    Caffeine.newBuilder().maximumSize(42).expireAfterAccess(Duration.ofMinutes(10)).build());
+            cacheManager.registerCustomCache("someWeightedCache",
+                    Caffeine.newBuilder().maximumWeight(1000).weigher((key, value) -> value.toString().length()).build());
+        };
+    }
+
+    @Bean
+    @Profile("caffeine")
+    public RefreshedCaffeineCacheCustomizer recordStatsCustomizer(){
+        return (cacheName, builder) -> {
+            if (cacheName.equals("someCustomCache")) {
+                builder.recordStats();
+            }
+        };
+    }
+
+    /**
+     * The weigher of a weighted cache is not part of its policy
+     */
+    @Bean
+    @Profile("caffeine")
+    public RefreshedCaffeineCacheCustomizer weigherCustomizer(){
+        return (cacheName, builder) -> {
+            if (cacheName.equals("someWeightedCache")) {
+                builder.weigher((key, value) -> value.toString().length());
+            }
+        };
+    }
+
+    /**
+     * Records the last published value per key, instead of sending it to other nodes
+     */
+    public static class RecordingEntryPublisher implements RefreshedEntryPublisher {
+        final Map<ParametersKey, Object> published = new ConcurrentHashMap<>();
+
+        @Override
+        public void publish(String cacheName, ParametersKey key, Object value) {
+            published.put(key, value);
+        }
+    }
+
 }
@@ -1,5 +1,12 @@
 package io.github.philkes.spring.cache.annotation;
 
+import io.github.philkes.spring.cache.interceptor.RefreshContext;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public class TestBean {
 
     private final SomeService someService;
@@ -17,4 +24,150 @@ public class TestBean {
     public String fetchSomeData(){
         return someService.fetchData();
     }
+
+    @CacheableAutoRefreshed(cacheNames = "someParallelCache", fixedDelayString = "${test.cache.fixed.delay}", parallelism = 4)
+    public String fetchSomeParallelData(String parameter){
+        return someService.fetchParallelData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someIdleCache", fixedDelayString = "${test.cache.fixed.delay}", evictIfIdleForString = "${test.cache.fixed.delay}")
+    public String fetchSomeIdleData(String parameter){
+        return someService.fetchIdleData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someStoredCache", fixedDelayString = "${test.cache.fixed.delay}", evictIfIdleForString = "${test.cache.fixed.delay}")
+    public String fetchSomeStoredData(String parameter){
+        return someService.fetchStoredData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someCustomCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeCustomData(String parameter){
+        return someService.fetchData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someWeightedCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeWeightedData(String parameter){
+        return someService.fetchData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someBatchCache", fixedDelayString = "${test.cache.fixed.delay}", batchMethod = "fetchAllBatchData", batchSize = 2)
+    public String fetchSomeBatchData(String parameter){
+        return someService.fetchBatchData(parameter);
+    }
+
+    public Map<String, String> fetchAllBatchData(List<String> parameters){
+        return someService.fetchAllBatchData(parameters);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someSpreadCache", fixedDelayString = "${test.cache.fixed.delay}", spreadSlots = 3, spreadJitter = true)
+    public String fetchSomeSpreadData(String parameter){
+        return someService.fetchSpreadData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someBudgetedCache", fixedDelayString = "${test.cache.fixed.delay}", maxKeysPerTick = 2)
+    public String fetchSomeBudgetedData(String parameter){
+        return someService.fetchBudgetedData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someBoundedCache", fixedDelayString = "${test.cache.fixed.delay}", maximumSize = 10)
+    public String fetchSomeBoundedData(String parameter){
+        return someService.fetchData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someMetricsCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeMetricsData(String parameter){
+        return someService.fetchMetricsData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = {"someFanOutCache", "someOtherFanOutCache"}, fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeFanOutData(String parameter){
+        return someService.fetchFanOutData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someSlowCache", fixedRate = 100)
+    public String fetchSomeSlowData(String parameter){
+        return someService.fetchSlowData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someSnapshotCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeSnapshotData(String parameter){
+        return someService.fetchSnapshotData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someWarmUpCache", fixedDelayString = "${test.cache.fixed.delay}", warmUpKeys = "warmUpKeys")
+    public String fetchSomeWarmUpData(String parameter){
+        return someService.fetchWarmUpData(parameter);
+    }
+
+    public List<String> warmUpKeys() {
+        return List.of("a", "b", "c");
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someFutureCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public CompletableFuture<String> fetchSomeFutureData(String parameter){
+        return CompletableFuture.supplyAsync(() -> someService.fetchAsyncData(parameter));
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someMonoCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public Mono<String> fetchSomeMonoData(String parameter){
+        return Mono.fromCallable(() -> someService.fetchReactiveData(parameter));
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someBackoffCache", fixedDelayString = "${test.cache.fixed.delay}", failureBackoffString = "PT20S")
+    public String fetchSomeBackoffData(String parameter){
+        return someService.fetchBackoffData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someOnDemandCache", fixedDelayString = "PT1H")
+    public String fetchSomeOnDemandData(String parameter){
+        return someService.fetchOnDemandData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someTimeoutCache", fixedDelayString = "${test.cache.fixed.delay}", refreshTimeoutString = "PT0.2S")
+    public String fetchSomeTimeoutData(String parameter){
+        return someService.fetchTimeoutData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someChangeCache", fixedDelayString = "${test.cache.fixed.delay}", fingerprint = "changeFingerprint")
+    public String fetchSomeChangeData(String parameter){
+        return someService.fetchChangeData(parameter);
+    }
+
+    public String changeFingerprint(String value){
+        return value.substring(0, value.indexOf(" fetched at"));
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someConditionalCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeConditionalData(String parameter){
+        RefreshContext context = RefreshContext.current();
+        String value = someService.fetchConditionalData(parameter, context != null ? context.getPreviousValue() : null);
+        return value != null ? value : RefreshContext.notModified();
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "somePausedCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomePausedData(String parameter){
+        return someService.fetchPausedData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someClusterCache", fixedDelayString = "${test.cache.fixed.delay}",
+            clusterCoordinated = true, clusterPartitions = 4)
+    public String fetchSomeClusterData(String parameter){
+        return someService.fetchClusterData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someEarlyCache", earlyRefreshAfterString = "${test.cache.fixed.delay}")
+    public String fetchSomeEarlyData(String parameter){
+        return someService.fetchEarlyData(parameter);
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someEarlyFutureCache", earlyRefreshAfterString = "${test.cache.fixed.delay}")
+    public CompletableFuture<String> fetchSomeEarlyFutureData(String parameter){
+        // Blocks before returning the future
+        return CompletableFuture.completedFuture(someService.fetchEarlyFutureData(parameter));
+    }
+
+    @CacheableAutoRefreshed(cacheNames = "someNullableCache", fixedDelayString = "${test.cache.fixed.delay}")
+    public String fetchSomeNullableData(String parameter){
+        return someService.fetchNullableData(parameter);
+    }
 }
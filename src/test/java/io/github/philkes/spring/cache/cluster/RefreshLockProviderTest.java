@@ -0,0 +1,72 @@
+package io.github.philkes.spring.cache.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshLockProviderTest {
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+
+    @AfterEach
+    void shutdownDatabases() {
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    void testInMemoryLocks() {
+        InMemoryRefreshLockProvider node1 = new InMemoryRefreshLockProvider();
+        assertLocks(node1, node1.forNode("node-2"));
+    }
+
+    @Test
+    void testJdbcLocks() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        databases.add(database);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE CACHE_REFRESH_LOCK (
+                    NAME       VARCHAR(255) NOT NULL PRIMARY KEY,
+                    LOCK_UNTIL TIMESTAMP    NOT NULL,
+                    LOCKED_AT  TIMESTAMP    NOT NULL,
+                    LOCKED_BY  VARCHAR(255) NOT NULL
+                )""");
+        assertLocks(new JdbcRefreshLockProvider(jdbcTemplate, JdbcRefreshLockProvider.DEFAULT_TABLE_NAME, "node-1"),
+                new JdbcRefreshLockProvider(jdbcTemplate, JdbcRefreshLockProvider.DEFAULT_TABLE_NAME, "node-2"));
+    }
+
+    private static void assertLocks(RefreshLockProvider node1, RefreshLockProvider node2) {
+        Instant now = Instant.now();
+        assertTrue(node1.tryLock("lock", now.plusSeconds(60)));
+        assertFalse(node2.tryLock("lock", now.plusSeconds(60)));
+        // Locks are independent of each other
+        assertTrue(node2.tryLock("other-lock", now.plusSeconds(60)));
+        // The node holding the lock can extend it
+        assertTrue(node1.tryLock("lock", now.plusSeconds(120)));
+
+        // Unlocking keeps the lock until the given instant
+        node1.unlock("lock", now.plusSeconds(30));
+        assertFalse(node2.tryLock("lock", now.plusSeconds(60)));
+        // Unlocking by another node has no effect
+        node2.unlock("lock", now.minusSeconds(1));
+        assertFalse(node2.tryLock("lock", now.plusSeconds(60)));
+
+        // Expired locks can be acquired by any node
+        node1.unlock("lock", now.minusSeconds(1));
+        assertTrue(node2.tryLock("lock", now.plusSeconds(60)));
+        assertFalse(node1.tryLock("lock", now.plusSeconds(60)));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchLoaderTest {
+
+    @Test
+    void testLoadsSingleParameterByElement() throws Exception {
+        BatchLoader batchLoader = new BatchLoader(new SomeSource(), SomeSource.class.getMethod("fetch", String.class),
+                SomeSource.class.getMethod("fetchAll", List.class));
+        Map<ParametersKey, Object> values = batchLoader.loadAll(List.of(ParametersKey.of("a"), ParametersKey.of("b")));
+        assertEquals(Map.of(ParametersKey.of("a"), "data: a", ParametersKey.of("b"), "data: b"), values);
+    }
+
+    @Test
+    void testLoadsArrayParameterByContent() throws Exception {
+        BatchLoader batchLoader = new BatchLoader(new SomeSource(), SomeSource.class.getMethod("fetch", int[].class),
+                SomeSource.class.getMethod("fetchAllArrays", List.class));
+        // The batch method returns other array instances with the same content
+        Map<ParametersKey, Object> values = batchLoader.loadAll(List.of(ParametersKey.of((Object) new int[]{1, 2})));
+        assertEquals(Map.of(ParametersKey.of((Object) new int[]{1, 2}), "data: [1, 2]"), values);
+    }
+
+    @Test
+    void testIgnoresElementsNotRequested() throws Exception {
+        BatchLoader batchLoader = new BatchLoader(new SomeSource(), SomeSource.class.getMethod("fetch", String.class),
+                SomeSource.class.getMethod("fetchAllAndMore", List.class));
+        Map<ParametersKey, Object> values = batchLoader.loadAll(List.of(ParametersKey.of("a")));
+        assertEquals(Map.of(ParametersKey.of("a"), "data: a"), values);
+    }
+
+    public static class SomeSource {
+
+        public String fetch(String parameter) {
+            return "data: " + parameter;
+        }
+
+        public String fetch(int[] parameter) {
+            return "data: " + Arrays.toString(parameter);
+        }
+
+        public Map<String, String> fetchAll(List<String> parameters) {
+            return parameters.stream().collect(Collectors.toMap(Function.identity(), this::fetch));
+        }
+
+        public Map<int[], String> fetchAllArrays(List<int[]> parameters) {
+            return parameters.stream().collect(Collectors.toMap(int[]::clone, this::fetch));
+        }
+
+        public Map<String, String> fetchAllAndMore(List<String> parameters) {
+            Map<String, String> values = fetchAll(parameters);
+            values.put("unknown", fetch("unknown"));
+            return values;
+        }
+    }
+}
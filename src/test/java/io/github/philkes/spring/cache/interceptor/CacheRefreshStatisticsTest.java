@@ -0,0 +1,60 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRefreshStatisticsTest {
+
+    @Test
+    void testOldestEntryAgeNotTracked() throws InterruptedException {
+        CacheRefreshStatistics statistics = new CacheRefreshStatistics(false);
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        Thread.sleep(5);
+        statistics.cycleFinished(1);
+        assertEquals(Duration.ZERO, statistics.getOldestEntryAge());
+    }
+
+    @Test
+    void testOldestEntryAgeIsResetByCompleteCycle() throws InterruptedException {
+        CacheRefreshStatistics statistics = new CacheRefreshStatistics(true);
+        assertEquals(Duration.ZERO, statistics.getOldestEntryAge());
+
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        Thread.sleep(50);
+        statistics.cycleFinished(1);
+        assertTrue(statistics.getOldestEntryAge().toMillis() >= 50);
+
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        statistics.cycleFinished(1);
+        assertTrue(statistics.getOldestEntryAge().toMillis() < 50);
+    }
+
+    @Test
+    void testOldestEntryAgeKeepsIncompleteCycles() throws InterruptedException {
+        CacheRefreshStatistics statistics = new CacheRefreshStatistics(true);
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        Thread.sleep(50);
+        statistics.cycleFinished(1);
+
+        // Failed cycle
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        statistics.entryFailed(new IllegalStateException());
+        statistics.cycleFinished(1);
+        assertTrue(statistics.getOldestEntryAge().toMillis() >= 50);
+
+        // Cycle with a skipped tick
+        statistics.cycleStarted();
+        statistics.refreshStarted();
+        statistics.cycleFinished(2);
+        assertTrue(statistics.getOldestEntryAge().toMillis() >= 50);
+    }
+}
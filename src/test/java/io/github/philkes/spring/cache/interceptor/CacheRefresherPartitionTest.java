@@ -0,0 +1,29 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRefresherPartitionTest {
+
+    private static final int KEY_COUNT = 100_000;
+
+    @ParameterizedTest
+    @CsvSource({"4, 4", "4, 2", "6, 3", "8, 4"})
+    void testKeysOfEverySlotAreSplitAcrossAllPartitions(int spreadSlots, int partitions) {
+        int[][] keysPerSlotAndPartition = new int[spreadSlots][partitions];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            ParametersKey key = ParametersKey.of("key", i);
+            keysPerSlotAndPartition[CacheRefresher.slotOf(key, spreadSlots, 0)][CacheRefresher.partitionOf(key, partitions)]++;
+        }
+        double expectedKeysPerNode = (double) KEY_COUNT / spreadSlots / partitions;
+        for (int slot = 0; slot < spreadSlots; slot++) {
+            for (int partition = 0; partition < partitions; partition++) {
+                int keys = keysPerSlotAndPartition[slot][partition];
+                assertTrue(Math.abs(keys - expectedKeysPerNode) < expectedKeysPerNode * 0.1,
+                        "Slot %d partition %d has %d keys, expected about %.0f".formatted(slot, partition, keys, expectedKeysPerNode));
+            }
+        }
+    }
+}
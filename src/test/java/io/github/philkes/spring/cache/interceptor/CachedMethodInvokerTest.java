@@ -0,0 +1,94 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedMethodInvokerTest {
+
+    private static final IOException CHECKED_EXCEPTION = new IOException("source unavailable");
+
+    static Stream<BiFunction<Object, Method, CachedMethodInvoker>> invokerFactories() {
+        return Stream.of(CachedMethodInvoker::of, CachedMethodInvoker::reflective);
+    }
+
+    @ParameterizedTest
+    @MethodSource("invokerFactories")
+    void testInvokesWithArguments(BiFunction<Object, Method, CachedMethodInvoker> factory) throws Exception {
+        CachedMethodInvoker invoker = factory.apply(new SomeSource(), SomeSource.class.getMethod("fetch", String.class, int.class));
+        assertEquals("data: a 1", invoker.invoke("a", 1));
+        assertEquals("data: null 2", invoker.invoke(null, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invokerFactories")
+    void testCheckedExceptionIsNotWrapped(BiFunction<Object, Method, CachedMethodInvoker> factory) throws Exception {
+        CachedMethodInvoker invoker = factory.apply(new SomeSource(), SomeSource.class.getMethod("fetchFailing"));
+        assertSame(CHECKED_EXCEPTION, assertThrows(IOException.class, invoker::invoke));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invokerFactories")
+    void testNonPublicMethod(BiFunction<Object, Method, CachedMethodInvoker> factory) throws Exception {
+        CachedMethodInvoker invoker = factory.apply(new SomeSource(), SomeSource.class.getDeclaredMethod("fetchInternal", String.class));
+        assertEquals("internal data: a", invoker.invoke("a"));
+        assertSame(CHECKED_EXCEPTION, assertThrows(IOException.class, () -> invoker.invoke("fail")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invokerFactories")
+    void testProxiedMethod(BiFunction<Object, Method, CachedMethodInvoker> factory) throws Exception {
+        Source proxy = (Source) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Source.class}, (bean, method, args) -> {
+            if (args[0] == null) {
+                throw CHECKED_EXCEPTION;
+            }
+            return "proxied data: " + args[0];
+        });
+        CachedMethodInvoker invoker = factory.apply(proxy, Source.class.getMethod("fetch", String.class));
+        assertEquals("proxied data: a", invoker.invoke("a"));
+        assertSame(CHECKED_EXCEPTION, assertThrows(IOException.class, () -> invoker.invoke((Object) null)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invokerFactories")
+    void testVoidMethodReturnsNull(BiFunction<Object, Method, CachedMethodInvoker> factory) throws Exception {
+        CachedMethodInvoker invoker = factory.apply(new SomeSource(), SomeSource.class.getMethod("touch"));
+        assertNull(invoker.invoke());
+    }
+
+    public interface Source {
+
+        String fetch(String parameter) throws IOException;
+    }
+
+    public static class SomeSource {
+
+        public String fetch(String parameter, int version) {
+            return "data: %s %d".formatted(parameter, version);
+        }
+
+        public String fetchFailing() throws IOException {
+            throw CHECKED_EXCEPTION;
+        }
+
+        public void touch() {
+        }
+
+        private String fetchInternal(String parameter) throws IOException {
+            if (parameter.equals("fail")) {
+                throw CHECKED_EXCEPTION;
+            }
+            return "internal data: " + parameter;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitTest {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testFixedLimitIgnoresInvocations() {
+        ConcurrencyLimit limit = ConcurrencyLimit.fixed(4);
+        limit.onInvocation(LATENCY, true);
+        limit.onInvocation(LATENCY * 10, false);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void testAdaptiveLimitShrinksOnFailuresAndSlowInvocations() {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(16);
+        assertEquals(16, limit.getLimit());
+
+        limit.onInvocation(LATENCY, true);
+        assertEquals(12, limit.getLimit());
+
+        limit.onInvocation(LATENCY, false);
+        limit.onInvocation(LATENCY * 5, false);
+        assertTrue(limit.getLimit() < 12);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onInvocation(LATENCY, true);
+        }
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void testAdaptiveLimitGrowsWhileInvocationsSucceed() {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(8);
+        for (int i = 0; i < 100; i++) {
+            limit.onInvocation(LATENCY, true);
+        }
+        assertEquals(1, limit.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limit.onInvocation(LATENCY, false);
+        }
+        assertTrue(limit.getLimit() > 1);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onInvocation(LATENCY, false);
+        }
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void testAwaitIdleReturnsAtDeadline() throws InterruptedException {
+        ConcurrencyLimit limit = ConcurrencyLimit.fixed(2);
+        limit.acquire();
+        assertFalse(limit.awaitIdle(System.nanoTime() + LATENCY));
+
+        limit.release();
+        assertTrue(limit.awaitIdle(System.nanoTime() + LATENCY));
+    }
+}
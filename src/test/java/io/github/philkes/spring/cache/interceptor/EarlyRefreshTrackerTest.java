@@ -0,0 +1,79 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EarlyRefreshTrackerTest {
+
+    private static final long COMPUTE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final Predicate<Object> NOT_CACHED = key -> false;
+
+    @Test
+    void testUntrackedKeyIsTrackedAsLoadedOnFirstRead() {
+        EarlyRefreshTracker tracker = new EarlyRefreshTracker(Duration.ofMinutes(1), 1.0, () -> Double.MIN_VALUE);
+        assertFalse(tracker.isToRefreshEarly("key", NOT_CACHED));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void testUntrackedCachedKeyIsRefreshed() {
+        EarlyRefreshTracker tracker = new EarlyRefreshTracker(Duration.ofMinutes(1), 1.0, () -> 1.0);
+        assertTrue(tracker.isToRefreshEarly("key", key -> true));
+        assertEquals(0, tracker.size());
+
+        tracker.recordLoad("key", COMPUTE_NANOS);
+        assertFalse(tracker.isToRefreshEarly("key", key -> true));
+    }
+
+    @Test
+    void testPrunedEntryIsRefreshedOnNextRead() throws InterruptedException {
+        EarlyRefreshTracker tracker = new EarlyRefreshTracker(Duration.ofMillis(20), 1.0, () -> 1.0);
+        tracker.recordLoad("key", COMPUTE_NANOS);
+        Thread.sleep(50);
+        tracker.recordLoad("other", COMPUTE_NANOS);
+        assertEquals(1, tracker.size());
+        assertTrue(tracker.isToRefreshEarly("key", key -> true));
+    }
+
+    @Test
+    void testStoredKeyIsTrackedAsLoaded() {
+        EarlyRefreshTracker tracker = new EarlyRefreshTracker(Duration.ofMinutes(1), 1.0, () -> 1.0);
+        tracker.recordStored("key");
+        assertFalse(tracker.isToRefreshEarly("key", key -> true));
+    }
+
+    @Test
+    void testFreshEntryIsRefreshedEarlyDependingOnRandomAndComputeCost() {
+        EarlyRefreshTracker late = new EarlyRefreshTracker(Duration.ofMinutes(1), 1.0, () -> 1.0);
+        late.recordLoad("key", COMPUTE_NANOS);
+        assertFalse(late.isToRefreshEarly("key", NOT_CACHED));
+
+        // -ln(MIN_VALUE) * 10ms is about 7s
+        EarlyRefreshTracker early = new EarlyRefreshTracker(Duration.ofSeconds(1), 1.0, () -> Double.MIN_VALUE);
+        early.recordLoad("key", COMPUTE_NANOS);
+        assertTrue(early.isToRefreshEarly("key", NOT_CACHED));
+
+        // Entries that are cheap to compute are not refreshed early
+        early.recordLoad("key", 0);
+        assertFalse(early.isToRefreshEarly("key", NOT_CACHED));
+    }
+
+    @Test
+    void testExpiredEntryIsAlwaysRefreshed() throws InterruptedException {
+        EarlyRefreshTracker tracker = new EarlyRefreshTracker(Duration.ofMillis(20), 1.0, () -> 1.0);
+        tracker.recordLoad("key", COMPUTE_NANOS);
+        Thread.sleep(30);
+        assertTrue(tracker.isToRefreshEarly("key", NOT_CACHED));
+
+        tracker.recordLoad("key", COMPUTE_NANOS);
+        assertFalse(tracker.isToRefreshEarly("key", NOT_CACHED));
+    }
+}
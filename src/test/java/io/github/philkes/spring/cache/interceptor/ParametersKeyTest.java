@@ -0,0 +1,76 @@
+package io.github.philkes.spring.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ParametersKeyTest {
+
+    @Test
+    void testNoParametersKeyIsShared() throws Exception {
+        assertSame(ParametersKey.EMPTY, ParametersKey.of());
+        assertEquals(0, ParametersKey.of().getParams().length);
+        assertSame(ParametersKey.EMPTY, serializeAndDeserialize(ParametersKey.EMPTY));
+    }
+
+    @Test
+    void testKeysAreEqualByParameters() {
+        assertEquals(ParametersKey.of("a"), ParametersKey.of("a"));
+        assertEquals(ParametersKey.of("a", 1, null), ParametersKey.of("a", 1, null));
+        assertEquals(ParametersKey.of((Object) new int[]{1, 2}), ParametersKey.of((Object) new int[]{1, 2}));
+        assertNotEquals(ParametersKey.of("a"), ParametersKey.of("b"));
+        assertNotEquals(ParametersKey.of("a"), ParametersKey.of("a", "a"));
+        assertNotEquals(ParametersKey.of(), ParametersKey.of((Object) null));
+    }
+
+    @Test
+    void testHashCodeMatchesParameters() {
+        Object[][] paramsList = {{}, {"a"}, {(Object) null}, {(Object) new String[]{"a", "b"}}, {"a", 1, 2L}};
+        for (Object[] params : paramsList) {
+            ParametersKey key = ParametersKey.of(params);
+            assertEquals(params.length == 0 ? 0 : Arrays.deepHashCode(params), key.hashCode());
+            assertArrayEquals(params, key.getParams());
+            assertEquals(params.length, key.getParameterCount());
+            for (int i = 0; i < params.length; i++) {
+                assertSame(params[i], key.getParam(i));
+            }
+        }
+    }
+
+    @Test
+    void testSerialization() throws Exception {
+        ParametersKey key = ParametersKey.of("a", 1);
+        assertEquals(key, serializeAndDeserialize(key));
+        assertEquals(ParametersKey.of("a"), serializeAndDeserialize(ParametersKey.of("a")));
+    }
+
+    @Test
+    void testHashCodeIsRecomputedOnDeserialization() throws Exception {
+        // The hash code is not part of the serialized form
+        assertNull(ObjectStreamClass.lookup(ParametersKey.class).getField("hash"));
+        for (ParametersKey key : new ParametersKey[]{ParametersKey.of("a"), ParametersKey.of("a", 1), ParametersKey.of((Object) new int[]{1, 2})}) {
+            assertEquals(key.hashCode(), serializeAndDeserialize(key).hashCode());
+        }
+    }
+
+    private static Object serializeAndDeserialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+}
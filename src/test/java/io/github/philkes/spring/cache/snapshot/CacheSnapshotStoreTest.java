@@ -0,0 +1,91 @@
+package io.github.philkes.spring.cache.snapshot;
+
+import io.github.philkes.spring.cache.interceptor.ParametersKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndReadKeys() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory, false, getClass().getClassLoader());
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put(ParametersKey.of("a", 1), "value a");
+        entries.put(ParametersKey.of(), "value without params");
+        entries.put("not a parameters key", "value");
+        entries.put(ParametersKey.of(new Object()), "not serializable key");
+
+        assertEquals(2, store.write("some/cache", entries));
+
+        List<CacheSnapshotStore.Entry> snapshot = store.read("some/cache");
+        assertEquals(2, snapshot.size());
+        assertEquals(ParametersKey.of("a", 1), snapshot.get(0).key());
+        assertEquals(ParametersKey.of(), snapshot.get(1).key());
+        assertFalse(snapshot.get(0).hasValue());
+        assertNull(snapshot.get(0).value());
+    }
+
+    @Test
+    void testWriteAndReadValues() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory, true, getClass().getClassLoader());
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put(ParametersKey.of("a"), "value a");
+        entries.put(ParametersKey.of("b"), new Object());
+        store.write("someCache", entries);
+
+        List<CacheSnapshotStore.Entry> snapshot = store.read("someCache");
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.get(0).hasValue());
+        assertEquals("value a", snapshot.get(0).value());
+        // Values that are not serializable are loaded again on restore
+        assertFalse(snapshot.get(1).hasValue());
+    }
+
+    @Test
+    void testReadMissingSnapshot() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory, false, getClass().getClassLoader());
+        assertTrue(store.read("unknownCache").isEmpty());
+    }
+
+    @Test
+    void testReadRejectedByFilter() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory, true, getClass().getClassLoader(), "!java.util.ArrayList");
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        entries.put(ParametersKey.of("a"), "value a");
+        entries.put(ParametersKey.of("b"), new ArrayList<>(List.of("value b")));
+        store.write("someCache", entries);
+
+        List<CacheSnapshotStore.Entry> snapshot = store.read("someCache");
+        assertEquals(1, snapshot.size());
+        assertEquals(ParametersKey.of("a"), snapshot.get(0).key());
+    }
+
+    @Test
+    void testReadInvalidRecordLength() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(directory, false, getClass().getClassLoader());
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(directory.resolve("someCache.snapshot"))))) {
+            out.writeInt(0x43524b53);
+            out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        assertTrue(store.read("someCache").isEmpty());
+    }
+}